@@ -1,12 +1,9 @@
 package org.qubership.colly;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.qubership.colly.cloudpassport.*;
@@ -18,13 +15,13 @@
 import org.qubership.colly.projectrepo.Project;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,65 +36,225 @@ public class CloudPassportLoader {
     @Inject
     GitService gitService;
 
+    @Inject
+    GitWorkingCopies gitWorkingCopies;
+
     @Inject
     ParamsetService paramsetService;
 
+    @Inject
+    YamlParser yamlParser;
+
     @ConfigProperty(name = "colly.eis.cloud.passport.folder")
     String cloudPassportFolder;
 
     public List<CloudPassport> loadCloudPassports(List<Project> projects) {
-        List<GitInfo> gitInfos = cloneGitRepositories(projects);
-        Path dir = Paths.get(cloudPassportFolder);
-        if (!dir.toFile().exists()) {
-            return Collections.emptyList();
+        return loadCloudPassports(projects, gitInfo -> null).stream()
+                .flatMap(repository -> repository.cloudPassports().stream())
+                .toList();
+    }
+
+    /**
+     * Updates working copies of instance repositories of the projects one by one and reads what has changed since
+     * the commits loaded previously.
+     *
+     * @param loadedCommits gives the commit of a repository loaded by a previous sync, null if there is none
+     */
+    public List<LoadedInstanceRepository> loadCloudPassports(List<Project> projects, Function<GitInfo, String> loadedCommits) {
+        return workingCopies(projects).stream()
+                .flatMap(workingCopy -> loadCloudPassports(workingCopy, loadedCommits).stream())
+                .toList();
+    }
+
+    /**
+     * @return working copies of instance repositories of the projects, one per repository branch
+     */
+    public List<InstanceRepositoryWorkingCopy> workingCopies(List<Project> projects) {
+        File directory = new File(cloudPassportFolder);
+        Map<File, InstanceRepository> repositories = new LinkedHashMap<>();
+        Map<File, List<GitInfo>> gitInfos = new HashMap<>();
+        for (Project project : projects) {
+            for (InstanceRepository instanceRepository : project.instanceRepositories()) {
+                File workingCopy = new File(directory, GitWorkingCopies.folderName(instanceRepository.url(), instanceRepository.branch()));
+                // several projects may refer to the same repository, it is updated once per sync
+                repositories.putIfAbsent(workingCopy, instanceRepository);
+                gitInfos.computeIfAbsent(workingCopy, folder -> new ArrayList<>())
+                        .add(new GitInfo(instanceRepository, cloudPassportFolder + "/" + workingCopy.getName(), project.id()));
+            }
         }
+        return repositories.entrySet().stream()
+                .map(entry -> new InstanceRepositoryWorkingCopy(entry.getKey(), entry.getValue(), List.copyOf(gitInfos.get(entry.getKey()))))
+                .toList();
+    }
+
+    /**
+     * Brings the working copy up to date and reads what has changed since the commits loaded previously.
+     * A repository without a previously loaded commit is read completely.
+     *
+     * @param loadedCommits gives the commit of a repository loaded by a previous sync, null if there is none
+     * @return the repository in every project referring to it
+     */
+    public List<LoadedInstanceRepository> loadCloudPassports(InstanceRepositoryWorkingCopy workingCopy, Function<GitInfo, String> loadedCommits) {
+        InstanceRepository instanceRepository = workingCopy.instanceRepository();
+        String token = gitService.resolveToken(instanceRepository.token(), instanceRepository.region());
+        String commit = gitWorkingCopies.update(instanceRepository.url(), instanceRepository.branch(), token, workingCopy.directory());
+        return workingCopy.gitInfos().stream()
+                .map(gitInfo -> loadInstanceRepository(gitInfo, loadedCommits.apply(gitInfo), commit))
+                .toList();
+    }
+
+    private LoadedInstanceRepository loadInstanceRepository(GitInfo gitInfo, String loadedCommit, String commit) {
+        if (commit != null && commit.equals(loadedCommit)) {
+            Log.info("Commit " + commit + " of Instance Repository=" + gitInfo.instanceRepository().url() + " is already loaded, skipping it");
+            return new LoadedInstanceRepository(gitInfo, commit, LoadedInstanceRepository.Load.SKIPPED, List.of(), List.of());
+        }
+        if (commit != null && loadedCommit != null) {
+            LoadedInstanceRepository changes = loadChanges(gitInfo, loadedCommit, commit);
+            if (changes != null) {
+                return changes;
+            }
+        }
+        List<CloudPassport> cloudPassports = loadCloudPassports(gitInfo);
+        // a repository that failed to be read has no commit, so it is read again by the next sync
+        return new LoadedInstanceRepository(gitInfo, cloudPassports != null ? commit : null, LoadedInstanceRepository.Load.COMPLETE,
+                cloudPassports != null ? cloudPassports : List.of(), List.of());
+    }
+
+    /**
+     * Reads clusters whose cloud passports have changed since the loaded commit and environments whose folders have
+     * changed in other clusters.
+     *
+     * @return null if the changes can't be mapped to existing clusters, e.g. because a cluster has been removed,
+     * the repository has to be read completely then
+     */
+    private LoadedInstanceRepository loadChanges(GitInfo gitInfo, String loadedCommit, String commit) {
+        Path repositoryDir = Paths.get(gitInfo.folderName());
+        Path environmentsDir = repositoryDir.resolve(ENVIRONMENTS_FOLDER);
+        Set<String> changedPaths;
+        List<Path> clusterFolders;
+        try (Stream<Path> paths = Files.walk(environmentsDir)) {
+            changedPaths = gitService.changedPaths(repositoryDir.toFile(), loadedCommit, commit);
+            clusterFolders = paths.filter(path -> Files.isDirectory(path.resolve(CLOUD_PASSPORT_FOLDER))).toList();
+        } catch (IOException | IllegalStateException e) {
+            Log.warn("Changes since commit " + loadedCommit + " can't be read in " + gitInfo.folderName() + ", reading all of it: " + e.getMessage());
+            return null;
+        }
+
+        Map<Path, Set<Path>> changedPathsByCluster = new LinkedHashMap<>();
+        for (String changedPath : changedPaths) {
+            Path path = repositoryDir.resolve(changedPath);
+            if (!path.startsWith(environmentsDir)) {
+                continue;
+            }
+            Optional<Path> clusterFolder = clusterFolders.stream()
+                    .filter(path::startsWith)
+                    .max(Comparator.comparingInt(Path::getNameCount));
+            if (clusterFolder.isEmpty()) {
+                Log.info("Changed file " + changedPath + " is not in a cluster folder of " + gitInfo.folderName() + ", reading all of it");
+                return null;
+            }
+            changedPathsByCluster.computeIfAbsent(clusterFolder.get(), folder -> new LinkedHashSet<>()).add(path);
+        }
+
         List<CloudPassport> cloudPassports = new ArrayList<>();
-        for (GitInfo gitInfo : gitInfos) {
-            Path environmentsDir = Paths.get(gitInfo.folderName()).resolve(ENVIRONMENTS_FOLDER);
-            if (!Files.isDirectory(environmentsDir)) {
-                Log.error("Environments folder not found in " + gitInfo.folderName() + ", Instance Repository=" + gitInfo.instanceRepository().url());
+        List<EnvironmentChanges> environmentChanges = new ArrayList<>();
+        for (Map.Entry<Path, Set<Path>> entry : changedPathsByCluster.entrySet()) {
+            Path clusterFolder = entry.getKey();
+            Path cloudPassportFolderPath = clusterFolder.resolve(CLOUD_PASSPORT_FOLDER);
+            if (entry.getValue().stream().anyMatch(path -> path.startsWith(cloudPassportFolderPath))) {
+                CloudPassport cloudPassport = processYamlFilesInClusterFolder(gitInfo, cloudPassportFolderPath, clusterFolder);
+                if (cloudPassport == null) {
+                    return null;
+                }
+                cloudPassports.add(cloudPassport);
                 continue;
             }
-            try (Stream<Path> paths = Files.walk(environmentsDir)) {
-                cloudPassports.addAll(paths.filter(Files::isDirectory)
-                        .map(path -> path.resolve(CLOUD_PASSPORT_FOLDER))
-                        .filter(Files::isDirectory)
-                        .map(path -> processYamlFilesInClusterFolder(gitInfo, path, path.getParent()))
-                        .filter(Objects::nonNull)
-                        .toList());
-            } catch (Exception e) {
-                Log.error("Error loading CloudPassports from " + environmentsDir, e);
+            try {
+                environmentChanges.add(loadEnvironmentChanges(repositoryDir, loadedCommit, clusterFolder, entry.getValue()));
+            } catch (IllegalStateException e) {
+                Log.warn("Changed environments of " + clusterFolder + " can't be read, reading all of " + gitInfo.folderName() + ": " + e.getMessage());
+                return null;
             }
         }
-        return cloudPassports;
+        Log.infof("Loaded changes since commit %s of Instance Repository=%s: %d clusters, %d clusters with changed environments",
+                loadedCommit, gitInfo.instanceRepository().url(), cloudPassports.size(), environmentChanges.size());
+        return new LoadedInstanceRepository(gitInfo, commit, LoadedInstanceRepository.Load.CHANGES, cloudPassports, environmentChanges);
     }
 
-    private List<GitInfo> cloneGitRepositories(List<Project> projects) {
-
-        File directory = new File(cloudPassportFolder);
+    private EnvironmentChanges loadEnvironmentChanges(Path repositoryDir, String loadedCommit, Path clusterFolder, Set<Path> changedPaths) {
+        Set<String> previousEnvironmentNames = changedPaths.stream()
+                .filter(path -> path.getFileName().toString().equals(ENV_DEFINITION_YML_FILENAME))
+                .map(path -> previousEnvironmentName(repositoryDir, loadedCommit, path))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Path> envDefinitionPaths;
+        try (Stream<Path> paths = Files.walk(clusterFolder)) {
+            envDefinitionPaths = paths.filter(Files::isDirectory)
+                    .map(path -> path.resolve(ENV_DEFINITION_YML_FILENAME))
+                    .filter(Files::isRegularFile)
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error loading Environments from " + clusterFolder, e);
+        }
+        // a changed file belongs to the innermost environment folder containing it, other files are not read
+        Set<CloudPassportEnvironment> environments = changedPaths.stream()
+                .map(path -> envDefinitionPaths.stream()
+                        .filter(envDefinitionPath -> path.startsWith(envDefinitionPath.getParent().getParent()))
+                        .max(Comparator.comparingInt(Path::getNameCount)))
+                .flatMap(Optional::stream)
+                .distinct()
+                .map(this::processEnvDefinition)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return new EnvironmentChanges(clusterFolder.getFileName().toString(), environments, previousEnvironmentNames);
+    }
 
+    private String previousEnvironmentName(Path repositoryDir, String loadedCommit, Path envDefinitionPath) {
+        String relativePath = repositoryDir.relativize(envDefinitionPath).toString().replace(File.separatorChar, '/');
+        byte[] content = gitService.readFile(repositoryDir.toFile(), loadedCommit, relativePath);
+        if (content == null) {
+            return null;
+        }
         try {
-            if (directory.exists()) {
-                FileUtils.deleteDirectory(directory);
-            }
+            Inventory inventory = yamlParser.read(content, EnvDefinition.class).inventory();
+            return inventory != null ? environmentName(inventory, envDefinitionPath.getParent().getParent()) : null;
         } catch (IOException e) {
-            Log.error("Impossible to start git cloning. Failed to clean directory: " + cloudPassportFolder, e);
-            return Collections.emptyList();
+            Log.warn("Previous version of " + envDefinitionPath + " can't be read: " + e.getMessage());
+            return null;
         }
+    }
 
-        List<GitInfo> result = new ArrayList<>();
-        int index = 1;
-        for (Project project : projects) {
-
-            for (InstanceRepository instanceRepository : project.instanceRepositories()) {
-                String folderNameToClone = cloudPassportFolder + "/" + index;
-                String token = gitService.resolveToken(instanceRepository.token(), instanceRepository.region());
-                gitService.cloneRepository(instanceRepository.url(), instanceRepository.branch(), token, new File(folderNameToClone));
-                result.add(new GitInfo(instanceRepository, folderNameToClone, project.id()));
-                index++;
-            }
+    /**
+     * @return null if the repository can't be read
+     */
+    private List<CloudPassport> loadCloudPassports(GitInfo gitInfo) {
+        Path environmentsDir = Paths.get(gitInfo.folderName()).resolve(ENVIRONMENTS_FOLDER);
+        if (!Files.isDirectory(environmentsDir)) {
+            Log.error("Environments folder not found in " + gitInfo.folderName() + ", Instance Repository=" + gitInfo.instanceRepository().url());
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(environmentsDir)) {
+            return paths.filter(Files::isDirectory)
+                    .map(path -> path.resolve(CLOUD_PASSPORT_FOLDER))
+                    .filter(Files::isDirectory)
+                    .map(path -> processYamlFilesInClusterFolder(gitInfo, path, path.getParent()))
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (Exception e) {
+            Log.error("Error loading CloudPassports from " + environmentsDir, e);
+            return null;
         }
-        return result;
+    }
+
+    /**
+     * Deletes working copies of instance repositories that none of the projects refers to anymore.
+     */
+    public void removeUnusedWorkingCopies(List<Project> projects) {
+        Set<String> used = projects.stream()
+                .flatMap(project -> project.instanceRepositories().stream())
+                .map(instanceRepository -> GitWorkingCopies.folderName(instanceRepository.url(), instanceRepository.branch()))
+                .collect(Collectors.toSet());
+        gitWorkingCopies.retain(new File(cloudPassportFolder), used);
     }
 
     private CloudPassport processYamlFilesInClusterFolder(GitInfo gitInfo, Path cloudPassportFolderPath, Path clusterFolderPath) {
@@ -192,7 +349,6 @@ private Set<CloudPassportEnvironment> processEnvironmentsInClusterFolder(Path cl
     }
 
     private CloudPassportEnvironment processEnvDefinition(Path envDevinitionPath) {
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
         Path environmentPath = envDevinitionPath.getParent().getParent();
         List<CloudPassportNamespace> namespaces = Collections.emptyList();
         try (Stream<Path> paths = Files.walk(environmentPath)) {
@@ -205,9 +361,9 @@ private CloudPassportEnvironment processEnvDefinition(Path envDevinitionPath) {
         } catch (IOException e) {
             Log.error("Error loading namespaces from " + environmentPath, e);
         }
-        try (FileInputStream inputStream = new FileInputStream(envDevinitionPath.toFile())) {
+        try {
             Log.info("Processing environment in folder: " + envDevinitionPath);
-            EnvDefinition envDefinition = mapper.readValue(inputStream, EnvDefinition.class);
+            EnvDefinition envDefinition = yamlParser.read(envDevinitionPath, EnvDefinition.class);
             Inventory inventory = envDefinition.inventory();
             if (inventory == null) {
                 return null;
@@ -244,9 +400,7 @@ private CloudPassportEnvironment processEnvDefinition(Path envDevinitionPath) {
                     ? List.of()
                     : envDefinitionMetadata.effectiveAccessGroups();
             boolean sspStandalone = envDefinitionMetadata != null && Boolean.TRUE.equals(envDefinitionMetadata.sspStandalone());
-            String environmentName = StringUtils.isNotBlank(inventory.environmentName())
-                    ? inventory.environmentName()
-                    : environmentPath.getFileName().toString();
+            String environmentName = environmentName(inventory, environmentPath);
             CmApproach cmApproach = inventory.deployer() != null ? CmApproach.CMDB : CmApproach.NO_CMDB;
             List<Paramset> paramsets = paramsetService.parseParamsets(envDefinition.envTemplate(), envDevinitionPath.getParent());
             List<SdApplication> sdApplications = loadSolutionDescriptor(envDevinitionPath.getParent());
@@ -259,6 +413,12 @@ private CloudPassportEnvironment processEnvDefinition(Path envDevinitionPath) {
         }
     }
 
+    private static String environmentName(Inventory inventory, Path environmentPath) {
+        return StringUtils.isNotBlank(inventory.environmentName())
+                ? inventory.environmentName()
+                : environmentPath.getFileName().toString();
+    }
+
     private List<SdApplication> loadSolutionDescriptor(Path inventoryDir) {
         Path sdPath = inventoryDir.resolve("solution-descriptor/sd.yaml");
         if (!Files.isRegularFile(sdPath)) {
@@ -267,9 +427,8 @@ private List<SdApplication> loadSolutionDescriptor(Path inventoryDir) {
         if (!Files.isRegularFile(sdPath)) {
             return Collections.emptyList();
         }
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
         try {
-            SolutionDescriptor sd = mapper.readValue(sdPath.toFile(), SolutionDescriptor.class);
+            SolutionDescriptor sd = yamlParser.read(sdPath, SolutionDescriptor.class);
             if (sd.applications() == null || sd.applications().isEmpty()) {
                 Log.warnf("SD at %s has no 'applications' section — skipping", sdPath);
                 return Collections.emptyList();
@@ -290,9 +449,8 @@ private List<SdApplication> loadSolutionDescriptor(Path inventoryDir) {
     }
 
     private CloudPassportNamespace parseNamespaceFile(Path namespaceFilePath) {
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        try (FileInputStream inputStream = new FileInputStream(namespaceFilePath.toFile())) {
-            Namespace namespace = mapper.readValue(inputStream, Namespace.class);
+        try {
+            Namespace namespace = yamlParser.read(namespaceFilePath, Namespace.class);
             Log.info("Processing namespace " + namespace.getName());
             String deployPostfix = namespaceFilePath.getParent().getFileName().toString();
             return new CloudPassportNamespace(namespace.getName(), deployPostfix);
@@ -303,9 +461,8 @@ private CloudPassportNamespace parseNamespaceFile(Path namespaceFilePath) {
     }
 
     String parseTokenFromCredsFile(Path path, CloudPassportData cloudPassportData) {
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        try (FileInputStream inputStream = new FileInputStream(path.toFile())) {
-            JsonNode jsonNode = mapper.readTree(inputStream);
+        try {
+            JsonNode jsonNode = yamlParser.readTree(path);
             JsonNode tokenNode = jsonNode.get(cloudPassportData.cloud().cloudDeployToken());
             if (tokenNode != null) {
                 return tokenNode.findValue("secret").asText();
@@ -318,10 +475,8 @@ String parseTokenFromCredsFile(Path path, CloudPassportData cloudPassportData) {
     }
 
     CloudPassportData parseCloudPassportDataFile(Path filePath) {
-
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        try (FileInputStream inputStream = new FileInputStream(filePath.toFile())) {
-            CloudPassportData data = mapper.readValue(inputStream, CloudPassportData.class);
+        try {
+            CloudPassportData data = yamlParser.read(filePath, CloudPassportData.class);
             if (data != null && data.cloud() != null) {
                 return data;
             }
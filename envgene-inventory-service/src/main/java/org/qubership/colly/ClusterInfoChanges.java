@@ -0,0 +1,92 @@
+package org.qubership.colly;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.dto.InternalClusterInfoChangesDto;
+import org.qubership.colly.dto.InternalClusterInfoDto;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks in which {@link DataVersion} generation every cluster info was last changed or removed, so the operational
+ * service can fetch only clusters changed since its previous request. Cluster infos are compared with the ones seen
+ * before when the generation has moved on, which covers every write path without touching it. Removed clusters are
+ * remembered for a limited number of generations; a version older than that gets all cluster infos.
+ */
+@ApplicationScoped
+public class ClusterInfoChanges {
+
+    private final CollyStorage collyStorage;
+    private final DtoMapper dtoMapper;
+    private final DataVersion dataVersion;
+    private final int retainedGenerations;
+
+    // cluster id -> cluster info with the generation it was last changed in, in the order of the cluster list
+    private Map<String, TrackedClusterInfo> clusterInfos = new LinkedHashMap<>();
+    private final Map<String, Long> deletedAt = new HashMap<>();
+    private long trackedGeneration = -1;
+    // versions older than this generation may miss removed clusters that are no longer remembered
+    private long oldestIncrementalGeneration = 0;
+
+    @Inject
+    public ClusterInfoChanges(CollyStorage collyStorage, DtoMapper dtoMapper, DataVersion dataVersion,
+                              @ConfigProperty(name = "colly.eis.changes.retained-generations") int retainedGenerations) {
+        this.collyStorage = collyStorage;
+        this.dtoMapper = dtoMapper;
+        this.dataVersion = dataVersion;
+        this.retainedGenerations = retainedGenerations;
+    }
+
+    /**
+     * @param since version returned by a previous call, null to get all clusters
+     */
+    public synchronized InternalClusterInfoChangesDto changesSince(String since) {
+        // taken before reading clusters: a write that is not seen now bumps the generation and is found by the next call
+        long generation = dataVersion.current();
+        if (generation != trackedGeneration) {
+            track(dtoMapper.toClusterInfoDtos(collyStorage.getClusters(null)), generation);
+        }
+        String version = dataVersion.token(generation);
+        Long sinceGeneration = dataVersion.generationOf(since);
+        if (sinceGeneration == null || sinceGeneration < oldestIncrementalGeneration || sinceGeneration > generation) {
+            return new InternalClusterInfoChangesDto(version, true,
+                    clusterInfos.values().stream().map(TrackedClusterInfo::clusterInfo).toList(), List.of());
+        }
+        List<InternalClusterInfoDto> changed = clusterInfos.values().stream()
+                .filter(tracked -> tracked.changedAt() > sinceGeneration)
+                .map(TrackedClusterInfo::clusterInfo)
+                .toList();
+        List<String> deleted = deletedAt.entrySet().stream()
+                .filter(entry -> entry.getValue() > sinceGeneration)
+                .map(Map.Entry::getKey)
+                .toList();
+        return new InternalClusterInfoChangesDto(version, false, changed, deleted);
+    }
+
+    private void track(List<InternalClusterInfoDto> current, long generation) {
+        Map<String, TrackedClusterInfo> tracked = new LinkedHashMap<>();
+        for (InternalClusterInfoDto clusterInfo : current) {
+            TrackedClusterInfo previous = clusterInfos.get(clusterInfo.id());
+            boolean unchanged = previous != null && previous.clusterInfo().equals(clusterInfo);
+            tracked.put(clusterInfo.id(), new TrackedClusterInfo(clusterInfo, unchanged ? previous.changedAt() : generation));
+            deletedAt.remove(clusterInfo.id());
+        }
+        clusterInfos.keySet().stream()
+                .filter(id -> !tracked.containsKey(id))
+                .forEach(id -> deletedAt.put(id, generation));
+        long cutoff = generation - retainedGenerations;
+        if (cutoff > oldestIncrementalGeneration) {
+            deletedAt.values().removeIf(removedAt -> removedAt <= cutoff);
+            oldestIncrementalGeneration = cutoff;
+        }
+        clusterInfos = tracked;
+        trackedGeneration = generation;
+    }
+
+    private record TrackedClusterInfo(InternalClusterInfoDto clusterInfo, long changedAt) {
+    }
+}
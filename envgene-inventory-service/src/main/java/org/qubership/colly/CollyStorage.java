@@ -29,13 +29,17 @@ public class CollyStorage {
     private final UpdateEnvironmentService updateEnvironmentService;
     private final ProjectRepoLoader projectRepoLoader;
     private final ParamsetService paramsetService;
+    private final DataVersion dataVersion;
+    private final RepositorySyncTracker syncTracker;
+    private final InstanceRepositoryPipeline instanceRepositoryPipeline;
 
     @Inject
     public CollyStorage(
             ClusterRepository clusterRepository,
             EnvironmentRepository environmentRepository, ProjectRepository projectRepository,
             CloudPassportLoader cloudPassportLoader, UpdateEnvironmentService updateEnvironmentService,
-            ProjectRepoLoader projectRepoLoader, ParamsetService paramsetService) {
+            ProjectRepoLoader projectRepoLoader, ParamsetService paramsetService, DataVersion dataVersion,
+            RepositorySyncTracker syncTracker, InstanceRepositoryPipeline instanceRepositoryPipeline) {
         this.clusterRepository = clusterRepository;
         this.environmentRepository = environmentRepository;
         this.projectRepository = projectRepository;
@@ -43,33 +47,85 @@ public CollyStorage(
         this.updateEnvironmentService = updateEnvironmentService;
         this.projectRepoLoader = projectRepoLoader;
         this.paramsetService = paramsetService;
+        this.dataVersion = dataVersion;
+        this.syncTracker = syncTracker;
+        this.instanceRepositoryPipeline = instanceRepositoryPipeline;
     }
 
-    @Scheduled(cron = "{colly.eis.cron.schedule}")
-    void syncAll() {
+    // syncs share working copies of repositories, so a manual sync waits for a running one and an overlapping scheduled run is skipped
+    @Scheduled(cron = "{colly.eis.cron.schedule}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    synchronized void syncAll() {
         Log.info("Task for loading data from git has started");
-        List<Project> projects = projectRepoLoader.loadProjects();
-        removeDeletedProjects(projects);
-        projects.forEach(projectRepository::persist);
-        Log.info("Projects loaded: " + projects.size());
-        List<CloudPassport> cloudPassports = cloudPassportLoader.loadCloudPassports(projects);
-        Log.info("Cloud passports loaded: " + cloudPassports.size());
-        removeDeletedClusters(cloudPassports);
-        cloudPassports.forEach(this::saveDataToCache);
+        String projectRepositoryCommit = projectRepoLoader.updateRepository();
+        // a failed sync may have written a part of its data
+        boolean written = true;
+        try {
+            List<Project> projects;
+            boolean projectsCached = syncTracker.isProcessed(RepositorySyncTracker.PROJECT_REPOSITORY, projectRepositoryCommit);
+            if (projectsCached) {
+                projects = projectRepository.listAll();
+                Log.info("Project repository has no new commits, projects taken from cache: " + projects.size());
+            } else {
+                projects = projectRepoLoader.parseProjects();
+                removeDeletedProjects(projects);
+                projects.forEach(projectRepository::persist);
+                // tokens, branches and projects of instance repositories may have changed
+                syncTracker.forgetInstanceRepositories();
+                syncTracker.markProcessed(RepositorySyncTracker.PROJECT_REPOSITORY, projectRepositoryCommit);
+                Log.info("Projects loaded: " + projects.size());
+            }
+            List<SyncedRepository> repositories = instanceRepositoryPipeline.sync(projects,
+                    gitInfo -> syncTracker.processedCommit(RepositorySyncTracker.instanceRepositoryKey(gitInfo)),
+                    this::saveRepositoryToCache, SyncedRepository::failure);
+            Log.info("Cloud passports loaded: " + repositories.stream().mapToInt(repository -> repository.clusterNames().size()).sum());
+            cloudPassportLoader.removeUnusedWorkingCopies(projects);
+            boolean clustersRemoved = removeDeletedClusters(repositories);
+            // tags and change versions stay valid while every repository is skipped
+            written = !projectsCached || clustersRemoved || repositories.stream().anyMatch(repository -> !repository.skipped());
+            throwIfFailed(repositories);
+        } finally {
+            if (written) {
+                dataVersion.increment();
+            }
+        }
     }
 
-    private void removeDeletedClusters(List<CloudPassport> currentCloudPassports) {
-        Set<String> currentClusterNames = currentCloudPassports.stream()
-                .map(CloudPassport::name)
+    /**
+     * Removes clusters missing in repositories that have been read completely. Clusters of repositories that have
+     * been skipped, read partially or failed are kept.
+     *
+     * @return true if any cluster has been removed
+     */
+    private boolean removeDeletedClusters(List<SyncedRepository> repositories) {
+        Set<String> currentClusterNames = repositories.stream()
+                .flatMap(repository -> repository.clusterNames().stream())
+                .collect(Collectors.toSet());
+        Set<String> partiallySyncedRepositories = repositories.stream()
+                .filter(repository -> !repository.complete())
+                .map(SyncedRepository::repositoryKey)
                 .collect(Collectors.toSet());
-        clusterRepository.listAll().stream()
+        List<Cluster> deletedClusters = clusterRepository.listAll().stream()
                 .filter(cached -> !currentClusterNames.contains(cached.getName()))
-                .forEach(deleted -> {
-                    Log.infof("Cluster %s no longer exists in git - removing from cache", deleted.getName());
-                    environmentRepository.findByClusterId(deleted.getId())
-                            .forEach(env -> environmentRepository.deleteById(env.getId()));
-                    clusterRepository.deleteById(deleted.getId());
-                });
+                .filter(cached -> cached.getGitInfo() == null
+                        || !partiallySyncedRepositories.contains(RepositorySyncTracker.instanceRepositoryKey(cached.getGitInfo())))
+                .toList();
+        deletedClusters.forEach(deleted -> {
+            Log.infof("Cluster %s no longer exists in git - removing from cache", deleted.getName());
+            environmentRepository.findByClusterId(deleted.getId())
+                    .forEach(env -> environmentRepository.deleteById(env.getId()));
+            clusterRepository.deleteById(deleted.getId());
+        });
+        return !deletedClusters.isEmpty();
+    }
+
+    private static void throwIfFailed(List<SyncedRepository> repositories) {
+        List<String> failed = repositories.stream()
+                .filter(SyncedRepository::failed)
+                .map(SyncedRepository::repositoryKey)
+                .toList();
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Failed to sync instance repositories: " + failed);
+        }
     }
 
     private void removeDeletedProjects(List<Project> currentProjects) {
@@ -89,14 +145,64 @@ private void removeDeletedProjects(List<Project> currentProjects) {
                 });
     }
 
-    void syncProject(String projectId) {
+    synchronized void syncProject(String projectId) {
         Project project = projectRepository.findById(projectId);
         if (project == null) {
             throw new NotFoundException("Project is not found. ID=" + projectId);
         }
-        List<CloudPassport> cloudPassports = cloudPassportLoader.loadCloudPassports(List.of(project));
-        Log.info("Cloud passports loaded: " + cloudPassports.size());
-        cloudPassports.forEach(this::saveDataToCache);
+        // a manual sync of a project reads its repositories completely even if their commits were loaded already
+        try {
+            List<SyncedRepository> repositories = instanceRepositoryPipeline.sync(List.of(project), gitInfo -> null,
+                    this::saveRepositoryToCache, SyncedRepository::failure);
+            Log.info("Cloud passports loaded: " + repositories.stream().mapToInt(repository -> repository.clusterNames().size()).sum());
+            throwIfFailed(repositories);
+        } finally {
+            dataVersion.increment();
+        }
+    }
+
+    private SyncedRepository saveRepositoryToCache(LoadedInstanceRepository repository) {
+        String repositoryKey = RepositorySyncTracker.instanceRepositoryKey(repository.gitInfo());
+        syncTracker.count(repositoryKey, repository.load());
+        Set<String> clusterNames = repository.cloudPassports().stream()
+                .map(CloudPassport::name)
+                .collect(Collectors.toSet());
+        boolean complete = repository.load() == LoadedInstanceRepository.Load.COMPLETE;
+        if (repository.load() == LoadedInstanceRepository.Load.SKIPPED) {
+            return new SyncedRepository(repositoryKey, complete, false, true, clusterNames);
+        }
+        repository.cloudPassports().forEach(this::saveDataToCache);
+        boolean saved = true;
+        for (EnvironmentChanges environmentChanges : repository.environmentChanges()) {
+            saved &= saveDataToCache(environmentChanges);
+        }
+        // changes that could not be applied are read again by the next sync with the whole repository
+        syncTracker.markProcessed(repositoryKey, saved ? repository.commit() : null);
+        return new SyncedRepository(repositoryKey, complete, false, false, clusterNames);
+    }
+
+    /**
+     * @return false if the cluster of the environments is not in the cache
+     */
+    private boolean saveDataToCache(EnvironmentChanges environmentChanges) {
+        Cluster cluster = clusterRepository.findByName(environmentChanges.clusterName());
+        if (cluster == null) {
+            Log.warnf("Cluster %s of changed environments is not in cache", environmentChanges.clusterName());
+            return false;
+        }
+        environmentChanges.environments().forEach(env -> saveEnvironmentToCache(env, cluster));
+        Set<String> currentEnvNames = environmentChanges.environments().stream()
+                .map(CloudPassportEnvironment::name)
+                .collect(Collectors.toSet());
+        environmentChanges.previousEnvironmentNames().stream()
+                .filter(name -> !currentEnvNames.contains(name))
+                .map(name -> environmentRepository.findByNameAndClusterId(name, cluster.getId()))
+                .filter(Objects::nonNull)
+                .forEach(env -> {
+                    Log.infof("Environment %s no longer exists in cluster %s - removing from cache", env.getName(), cluster.getName());
+                    environmentRepository.deleteById(env.getId());
+                });
+        return true;
     }
 
     private void saveDataToCache(CloudPassport cloudPassport) {
@@ -222,6 +328,7 @@ public Environment updateEnvironment(String environmentId, PatchEnvironmentDto u
 
         // Persist changes
         environmentRepository.persist(existingEnv);
+        dataVersion.increment();
 
         return existingEnv;
     }
@@ -335,6 +442,20 @@ public void setUiParameters(String environmentId, String namespaceName, String a
         List<Paramset> updatedParamsets = updateEnvironmentService.updateParamset(cluster, environment, target, applicationName, setUiParametersDto.parameters(), setUiParametersDto.commitInfo());
         environment.setParamsets(updatedParamsets);
         environmentRepository.persist(environment);
+        dataVersion.increment();
     }
 
+    /**
+     * What is kept of an instance repository once it has been synced.
+     *
+     * @param complete     true if all clusters of the repository have been read
+     * @param clusterNames names of clusters that have been read
+     */
+    private record SyncedRepository(String repositoryKey, boolean complete, boolean failed, boolean skipped,
+                                    Set<String> clusterNames) {
+
+        static SyncedRepository failure(GitInfo gitInfo) {
+            return new SyncedRepository(RepositorySyncTracker.instanceRepositoryKey(gitInfo), false, true, false, Set.of());
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package org.qubership.colly;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation of the inventory data, increased by {@link CollyStorage} after every sync that writes data and every update.
+ * Entity tags are built from it instead of hashing response bodies, so a conditional GET of unchanged data
+ * is answered without reading it. Tags carry an id of this instance because generations start from zero
+ * again after a restart. The generation is not shared between replicas, so a tag or a change token of one replica
+ * is not recognized by another: a conditional GET gets the full body and a change request gets all cluster infos.
+ */
+@ApplicationScoped
+public class DataVersion {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong generation = new AtomicLong();
+
+    void increment() {
+        generation.incrementAndGet();
+    }
+
+    long current() {
+        return generation.get();
+    }
+
+    public EntityTag entityTag() {
+        return new EntityTag(token(current()));
+    }
+
+    /**
+     * @return opaque version clients send back to ask what has changed since the given generation
+     */
+    String token(long generation) {
+        return instanceId + "-" + generation;
+    }
+
+    /**
+     * @return generation of a token issued by this instance, null if the token is malformed or was issued
+     * by another instance, e.g. before a restart
+     */
+    Long generationOf(String token) {
+        if (token == null || !token.startsWith(instanceId + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(token.substring(instanceId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
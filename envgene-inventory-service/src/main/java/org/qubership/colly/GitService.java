@@ -3,15 +3,30 @@
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.jgit.api.CommitCommand;
+import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class GitService {
@@ -70,6 +85,115 @@ public void cloneRepository(String repositoryUrl, String branch, String token, F
         Log.info("Repository cloned.");
     }
 
+    /**
+     * @return true if the directory holds a working copy cloned from the repository URL that can be opened
+     */
+    public boolean isWorkingCopyOf(File directory, String repositoryUrl) {
+        if (!new File(directory, Constants.DOT_GIT).isDirectory()) {
+            return false;
+        }
+        try (Git git = Git.open(directory)) {
+            return repositoryUrl.equals(git.getRepository().getConfig().getString("remote", "origin", "url"));
+        } catch (IOException | RuntimeException e) {
+            Log.warn("Working copy in " + directory + " can't be opened: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fetches the branch and resets the working copy to it, dropping local commits, changes and untracked files.
+     *
+     * @param branch branch to reset to, null for the branch checked out by the clone
+     * @throws IllegalStateException caused by {@link org.eclipse.jgit.api.errors.TransportException} if the repository
+     *                               can't be reached, caused by another exception if the working copy is broken
+     */
+    public void fetchAndReset(File directory, String branch, String token) {
+        String tokenToUse = token != null && !token.isBlank() ? token : projectRepoGitToken;
+        Log.info("Fetching repository to " + directory);
+        try (Git git = Git.open(directory)) {
+            String branchToReset = branch != null ? branch : git.getRepository().getBranch();
+            FetchCommand fetchCommand = git.fetch().setRemote("origin").setRemoveDeletedRefs(true);
+            if (!tokenToUse.isBlank()) {
+                fetchCommand.setCredentialsProvider(new UsernamePasswordCredentialsProvider("", tokenToUse));
+            }
+            fetchCommand.call();
+            git.reset()
+                    .setMode(ResetCommand.ResetType.HARD)
+                    .setRef(Constants.R_REMOTES + "origin/" + branchToReset)
+                    .call();
+            git.clean().setCleanDirectories(true).setForce(true).call();
+        } catch (IOException | GitAPIException | JGitInternalException e) {
+            throw new IllegalStateException("Error during fetch of repository in " + directory, e);
+        }
+        Log.info("Repository fetched.");
+    }
+
+    /**
+     * @return id of the commit checked out in the working copy, null if it can't be read
+     */
+    public String headCommit(File directory) {
+        try (Git git = Git.open(directory)) {
+            ObjectId head = git.getRepository().resolve(Constants.HEAD);
+            return head != null ? head.name() : null;
+        } catch (IOException | RuntimeException e) {
+            Log.warn("Head commit of working copy in " + directory + " can't be read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return paths of files added, modified or deleted between the commits relative to the working copy,
+     * a renamed file is reported with both paths
+     * @throws IllegalStateException if a commit is not in the repository
+     */
+    public Set<String> changedPaths(File directory, String oldCommit, String newCommit) {
+        try (Git git = Git.open(directory);
+             ObjectReader reader = git.getRepository().newObjectReader()) {
+            CanonicalTreeParser oldTree = new CanonicalTreeParser();
+            oldTree.reset(reader, treeOf(git.getRepository(), oldCommit));
+            CanonicalTreeParser newTree = new CanonicalTreeParser();
+            newTree.reset(reader, treeOf(git.getRepository(), newCommit));
+            Set<String> paths = new LinkedHashSet<>();
+            for (DiffEntry entry : git.diff().setOldTree(oldTree).setNewTree(newTree).setShowNameAndStatusOnly(true).call()) {
+                if (entry.getChangeType() != DiffEntry.ChangeType.ADD) {
+                    paths.add(entry.getOldPath());
+                }
+                if (entry.getChangeType() != DiffEntry.ChangeType.DELETE) {
+                    paths.add(entry.getNewPath());
+                }
+            }
+            return paths;
+        } catch (IOException | GitAPIException | RuntimeException e) {
+            throw new IllegalStateException("Error during diff of commits " + oldCommit + " and " + newCommit + " in " + directory, e);
+        }
+    }
+
+    /**
+     * @param path path of the file relative to the working copy
+     * @return content of the file in the commit, null if the commit has no such file
+     * @throws IllegalStateException if the commit is not in the repository
+     */
+    public byte[] readFile(File directory, String commit, String path) {
+        try (Git git = Git.open(directory)) {
+            Repository repository = git.getRepository();
+            try (TreeWalk treeWalk = TreeWalk.forPath(repository, path, treeOf(repository, commit))) {
+                return treeWalk != null ? repository.open(treeWalk.getObjectId(0)).getBytes() : null;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Error during read of " + path + " in commit " + commit + " of " + directory, e);
+        }
+    }
+
+    private static RevTree treeOf(Repository repository, String commit) throws IOException {
+        ObjectId commitId = repository.resolve(commit);
+        if (commitId == null) {
+            throw new IllegalStateException("Commit " + commit + " is not found");
+        }
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            return revWalk.parseCommit(commitId).getTree();
+        }
+    }
+
     public void commitAndPush(File repositoryPath, String commitMessage, String token, String gitUser, String gitEmail) {
         Log.info("Committing and pushing changes in repository: " + repositoryPath);
         String tokenToUse = token != null && !token.isBlank() ? token : projectRepoGitToken;
@@ -0,0 +1,82 @@
+package org.qubership.colly;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.TransportException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps a working copy of every repository between syncs, so a sync only fetches new commits instead of cloning
+ * the whole repository again. A working copy that can't be opened or reset is cloned again.
+ */
+@ApplicationScoped
+public class GitWorkingCopies {
+
+    @Inject
+    GitService gitService;
+
+    /**
+     * Brings the working copy in the directory to the head of the branch, cloning the repository if there is
+     * no usable working copy yet.
+     *
+     * @param branch branch to check out, null for the default branch of the repository
+     * @return id of the checked out commit, null if it is unknown
+     */
+    public String update(String repositoryUrl, String branch, String token, File directory) {
+        if (gitService.isWorkingCopyOf(directory, repositoryUrl)) {
+            try {
+                gitService.fetchAndReset(directory, branch, token);
+                return gitService.headCommit(directory);
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof TransportException) {
+                    throw e;
+                }
+                Log.warn("Working copy in " + directory + " is broken, cloning it again: " + e.getMessage());
+            }
+        }
+        try {
+            if (directory.exists()) {
+                FileUtils.deleteDirectory(directory);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to clean directory: " + directory, e);
+        }
+        gitService.cloneRepository(repositoryUrl, branch, token, directory);
+        return gitService.headCommit(directory);
+    }
+
+    /**
+     * Deletes working copies in the folder other than the given ones, e.g. of repositories removed from projects.
+     *
+     * @param folderNames names of working copies to keep, see {@link #folderName}
+     */
+    public void retain(File folder, Set<String> folderNames) {
+        File[] children = folder.listFiles(File::isDirectory);
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (!folderNames.contains(child.getName())) {
+                Log.info("Removing working copy of a repository that is no longer used: " + child);
+                FileUtils.deleteQuietly(child);
+            }
+        }
+    }
+
+    /**
+     * @return folder name that stays the same for the repository branch across syncs and restarts
+     */
+    public static String folderName(String repositoryUrl, String branch) {
+        String repositoryName = repositoryUrl.replaceAll("/+$", "").replaceAll("\\.git$", "");
+        repositoryName = repositoryName.substring(repositoryName.lastIndexOf('/') + 1);
+        String readablePart = (repositoryName + "-" + (branch != null ? branch : "default")).replaceAll("[^A-Za-z0-9._-]", "_");
+        return readablePart + "-" + UUID.nameUUIDFromBytes((repositoryUrl + "#" + branch).getBytes(StandardCharsets.UTF_8)).toString().substring(0, 8);
+    }
+}
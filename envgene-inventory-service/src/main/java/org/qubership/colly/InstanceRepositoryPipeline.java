@@ -0,0 +1,85 @@
+package org.qubership.colly;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.cloudpassport.GitInfo;
+import org.qubership.colly.cloudpassport.InstanceRepositoryWorkingCopy;
+import org.qubership.colly.cloudpassport.LoadedInstanceRepository;
+import org.qubership.colly.projectrepo.Project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Syncs instance repositories in parallel, every working copy in its own task: the copy is fetched, its changes are
+ * parsed and persisted, and only a small result is kept once the task is done, so parsed cloud passports of all
+ * repositories are never held at once. A failure of one repository does not affect the other ones.
+ */
+@ApplicationScoped
+public class InstanceRepositoryPipeline {
+
+    private final CloudPassportLoader cloudPassportLoader;
+    private final ExecutorService executor;
+
+    @Inject
+    public InstanceRepositoryPipeline(CloudPassportLoader cloudPassportLoader,
+                                      @ConfigProperty(name = "colly.eis.instance-repositories.concurrency") int concurrency) {
+        this.cloudPassportLoader = cloudPassportLoader;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency,
+                runnable -> new Thread(runnable, "instance-repository-sync-" + threadNumber.getAndIncrement()));
+    }
+
+    /**
+     * @param loadedCommits gives the commit of a repository loaded by a previous sync, null if there is none
+     * @param persist       persists a loaded repository and returns what has to be kept of it
+     * @param failure       result of a repository that failed to be synced
+     * @return results of all repositories of the projects, in the order of the projects
+     */
+    public <R> List<R> sync(List<Project> projects, Function<GitInfo, String> loadedCommits,
+                            Function<LoadedInstanceRepository, R> persist, Function<GitInfo, R> failure) {
+        List<InstanceRepositoryWorkingCopy> workingCopies = cloudPassportLoader.workingCopies(projects);
+        List<Callable<List<R>>> tasks = workingCopies.stream()
+                .<Callable<List<R>>>map(workingCopy -> () -> cloudPassportLoader.loadCloudPassports(workingCopy, loadedCommits).stream()
+                        .map(persist)
+                        .toList())
+                .toList();
+        List<Future<List<R>>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sync of instance repositories was interrupted", e);
+        }
+
+        List<R> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            InstanceRepositoryWorkingCopy workingCopy = workingCopies.get(i);
+            try {
+                results.addAll(futures.get(i).get());
+            } catch (ExecutionException e) {
+                Log.error("Sync of Instance Repository=" + workingCopy.instanceRepository().url() + " failed", e.getCause());
+                workingCopy.gitInfos().stream().map(failure).forEach(results::add);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Sync of instance repositories was interrupted", e);
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
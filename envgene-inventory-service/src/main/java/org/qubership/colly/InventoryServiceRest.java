@@ -4,7 +4,10 @@
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -22,6 +25,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Path("/colly/v2/inventory-service")
 @SecurityRequirement(name = "SecurityScheme")
@@ -30,14 +34,23 @@ public class InventoryServiceRest {
     private final CollyStorage collyStorage;
     private final SecurityIdentity securityIdentity;
     private final DtoMapper dtoMapper;
+    private final DataVersion dataVersion;
+    private final ClusterInfoChanges clusterInfoChanges;
+    private final RepositorySyncTracker syncTracker;
 
     @Inject
     public InventoryServiceRest(CollyStorage collyStorage,
                                 SecurityIdentity securityIdentity,
-                                DtoMapper dtoMapper) {
+                                DtoMapper dtoMapper,
+                                DataVersion dataVersion,
+                                ClusterInfoChanges clusterInfoChanges,
+                                RepositorySyncTracker syncTracker) {
         this.collyStorage = collyStorage;
         this.securityIdentity = securityIdentity;
         this.dtoMapper = dtoMapper;
+        this.dataVersion = dataVersion;
+        this.clusterInfoChanges = clusterInfoChanges;
+        this.syncTracker = syncTracker;
     }
 
     @GET
@@ -55,6 +68,10 @@ public InventoryServiceRest(CollyStorage collyStorage,
                     schema = @Schema(implementation = ProjectDto.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -75,8 +92,8 @@ public InventoryServiceRest(CollyStorage collyStorage,
                     )
             )
     )
-    public List<ProjectDto> getProjects() {
-        return dtoMapper.toProjectDtos(collyStorage.getProjects());
+    public Response getProjects(@Context Request request) {
+        return conditionalGet(request, () -> dtoMapper.toProjectDtos(collyStorage.getProjects()));
     }
 
     @GET
@@ -94,6 +111,10 @@ public List<ProjectDto> getProjects() {
                     schema = @Schema(implementation = ProjectDto.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -124,18 +145,21 @@ public List<ProjectDto> getProjects() {
                     )
             )
     )
-    public ProjectDto getProject(
+    public Response getProject(
             @Parameter(
                     description = "ID of the project to retrieve",
                     required = true,
                     example = "project-123"
             )
-            @PathParam("id") String id) {
-        Project project = collyStorage.getProject(id);
-        if (project == null) {
-            throw new NotFoundException("Project with id =" + id + " is not found");
-        }
-        return dtoMapper.toProjectDto(project);
+            @PathParam("id") String id,
+            @Context Request request) {
+        return conditionalGet(request, () -> {
+            Project project = collyStorage.getProject(id);
+            if (project == null) {
+                throw new NotFoundException("Project with id =" + id + " is not found");
+            }
+            return dtoMapper.toProjectDto(project);
+        });
     }
 
     @GET
@@ -178,6 +202,52 @@ public List<InternalClusterInfoDto> getInternalClusterInfo() {
         return dtoMapper.toClusterInfoDtos(collyStorage.getClusters(null));
     }
 
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("/internal/cluster-infos/changes")
+    @Operation(
+            summary = "Get clusters changed since a version. For internal colly usages",
+            description = "Retrieves cluster information of clusters added or changed since the given version together with IDs of removed clusters. " +
+                    "All clusters are returned if the version is not given or was issued by another instance of the service. " +
+                    "This is an internal endpoint for service-to-service communication."
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Successfully retrieved changed clusters",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = InternalClusterInfoChangesDto.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    examples = @ExampleObject(
+                            value = "{\"error\": \"Authentication required\"}"
+                    )
+            )
+    )
+    @APIResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    examples = @ExampleObject(
+                            value = "{\"error\": \"Internal server error occurred\"}"
+                    )
+            )
+    )
+    public InternalClusterInfoChangesDto getInternalClusterInfoChanges(
+            @Parameter(
+                    description = "Version returned by the previous request",
+                    example = "3f2a9c1e-42"
+            )
+            @QueryParam("since") String since) {
+        return clusterInfoChanges.changesSince(since);
+    }
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/clusters")
@@ -214,6 +284,10 @@ public List<InternalClusterInfoDto> getInternalClusterInfo() {
                     )
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -234,13 +308,14 @@ public List<InternalClusterInfoDto> getInternalClusterInfo() {
                     )
             )
     )
-    public List<ClusterDto> getClusters(
+    public Response getClusters(
             @Parameter(
                     description = "Optional project ID to filter clusters by project",
                     example = "project-123"
             )
-            @QueryParam("projectId") String projectId) {
-        return dtoMapper.toClusterDtos(collyStorage.getClusters(projectId));
+            @QueryParam("projectId") String projectId,
+            @Context Request request) {
+        return conditionalGet(request, () -> dtoMapper.toClusterDtos(collyStorage.getClusters(projectId)));
     }
 
     @GET
@@ -258,6 +333,10 @@ public List<ClusterDto> getClusters(
                     schema = @Schema(implementation = ClusterDto.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -288,18 +367,21 @@ public List<ClusterDto> getClusters(
                     )
             )
     )
-    public ClusterDto getCluster(
+    public Response getCluster(
             @Parameter(
                     description = "ID of the cluster to retrieve",
                     required = true,
                     example = "bd75a053-1210-4b9a-9fe1-9af265b006c9"
             )
-            @PathParam("clusterId") String id) {
-        Cluster cluster = collyStorage.getCluster(id);
-        if (cluster == null) {
-            throw new NotFoundException("Cluster with id =" + id + " is not found");
-        }
-        return dtoMapper.toClusterDto(cluster);
+            @PathParam("clusterId") String id,
+            @Context Request request) {
+        return conditionalGet(request, () -> {
+            Cluster cluster = collyStorage.getCluster(id);
+            if (cluster == null) {
+                throw new NotFoundException("Cluster with id =" + id + " is not found");
+            }
+            return dtoMapper.toClusterDto(cluster);
+        });
     }
 
     @GET
@@ -375,6 +457,10 @@ public ClusterDto getCluster(
                     )
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -395,13 +481,14 @@ public ClusterDto getCluster(
                     )
             )
     )
-    public List<EnvironmentDto> getEnvironments(
+    public Response getEnvironments(
             @Parameter(
                     description = "Optional project ID to filter environments by project",
                     example = "project-123"
             )
-            @QueryParam("projectId") String projectId) {
-        return dtoMapper.toDtos(collyStorage.getEnvironments(projectId));
+            @QueryParam("projectId") String projectId,
+            @Context Request request) {
+        return conditionalGet(request, () -> dtoMapper.toDtos(collyStorage.getEnvironments(projectId)));
     }
 
     @GET
@@ -419,6 +506,10 @@ public List<EnvironmentDto> getEnvironments(
                     schema = @Schema(implementation = EnvironmentDto.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+    )
     @APIResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -449,18 +540,21 @@ public List<EnvironmentDto> getEnvironments(
                     )
             )
     )
-    public EnvironmentDto getEnvironmentById(
+    public Response getEnvironmentById(
             @Parameter(
                     description = "ID of the environment to retrieve",
                     required = true,
                     example = "96180fe7-f025-465f-bbbf-5e83f301a614"
             )
-            @PathParam("environmentId") String id) {
-        Environment environment = collyStorage.getEnvironment(id);
-        if (environment == null) {
-            throw new NotFoundException("Environment with id =" + id + " is not found");
-        }
-        return dtoMapper.toDto(environment);
+            @PathParam("environmentId") String id,
+            @Context Request request) {
+        return conditionalGet(request, () -> {
+            Environment environment = collyStorage.getEnvironment(id);
+            if (environment == null) {
+                throw new NotFoundException("Environment with id =" + id + " is not found");
+            }
+            return dtoMapper.toDto(environment);
+        });
     }
 
     @PATCH
@@ -644,6 +738,35 @@ public void syncEnvironmentsWithGit(
         }
     }
 
+    @GET
+    @Path("/internal/sync-statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+            summary = "Get repository sync statistics",
+            description = "Shows for every repository how many syncs parsed it and how many skipped it because its head commit had been loaded already. Counters start from zero after a restart."
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Successfully retrieved sync statistics",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = RepositorySyncStatisticsDto.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    examples = @ExampleObject(
+                            value = "{\"error\": \"Authentication required\"}"
+                    )
+            )
+    )
+    public List<RepositorySyncStatisticsDto> getSyncStatistics() {
+        return syncTracker.statistics();
+    }
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/environments/{environmentId}/ui-parameters")
@@ -761,5 +884,14 @@ public Response getAuthStatus() {
         return Response.ok(userInfo).build();
     }
 
+    /**
+     * Answers with 304 if the client already has the current generation of the data, so the entity is only
+     * loaded and serialized when it may have changed. The tag is taken before loading, so data written
+     * during the load is never tagged with a generation the client could already have.
+     */
+    private Response conditionalGet(Request request, Supplier<Object> entity) {
+        EntityTag tag = dataVersion.entityTag();
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        return (notModified != null ? notModified : Response.ok(entity.get())).tag(tag).build();
+    }
 }
-
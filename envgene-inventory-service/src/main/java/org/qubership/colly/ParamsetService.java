@@ -15,7 +15,6 @@
 import org.qubership.colly.db.data.ParamsetContext;
 import org.qubership.colly.db.data.ParamsetLevel;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -29,6 +28,9 @@ public class ParamsetService {
     @Inject
     YqService yqService;
 
+    @Inject
+    YamlParser yamlParser;
+
     private static Path getPathOfEnvDefinition(Path inventoryDir) {
         return inventoryDir.resolve("env_definition.yml");
     }
@@ -79,9 +81,8 @@ private List<Paramset> parseParamsetFile(String paramsetName, String deployPostf
             Log.warn("Paramset file not found: " + paramsetFilePath);
             return List.of();
         }
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        try (FileInputStream inputStream = new FileInputStream(paramsetFilePath.toFile())) {
-            ParamsetFileData fileData = mapper.readValue(inputStream, ParamsetFileData.class);
+        try {
+            ParamsetFileData fileData = yamlParser.read(paramsetFilePath, ParamsetFileData.class);
             List<Paramset> result = new ArrayList<>();
 
             // Use paramsetName (= entry in env_definition.yml = filename without .yaml),
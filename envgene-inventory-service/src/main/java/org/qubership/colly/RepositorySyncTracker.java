@@ -0,0 +1,101 @@
+package org.qubership.colly;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.qubership.colly.cloudpassport.GitInfo;
+import org.qubership.colly.cloudpassport.LoadedInstanceRepository;
+import org.qubership.colly.db.ProcessedCommitRepository;
+import org.qubership.colly.dto.RepositorySyncStatisticsDto;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the last commit of every repository loaded into the cache, so a sync skips repositories without
+ * new commits instead of parsing and persisting the same content again, and reads only changes of other ones.
+ * Counts how repositories were loaded.
+ */
+@ApplicationScoped
+public class RepositorySyncTracker {
+
+    public static final String PROJECT_REPOSITORY = "project-repository";
+
+    private final ProcessedCommitRepository processedCommitRepository;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Inject
+    public RepositorySyncTracker(ProcessedCommitRepository processedCommitRepository) {
+        this.processedCommitRepository = processedCommitRepository;
+    }
+
+    /**
+     * @param commit head commit of the repository, null if it is unknown
+     * @return true if the commit has been loaded already and the repository can be skipped
+     */
+    public boolean isProcessed(String repository, String commit) {
+        boolean processed = commit != null && commit.equals(processedCommit(repository));
+        count(repository, processed ? LoadedInstanceRepository.Load.SKIPPED : LoadedInstanceRepository.Load.COMPLETE);
+        return processed;
+    }
+
+    /**
+     * @return last commit of the repository loaded into the cache, null if there is none
+     */
+    public String processedCommit(String repository) {
+        return processedCommitRepository.findByRepository(repository);
+    }
+
+    public void count(String repository, LoadedInstanceRepository.Load load) {
+        Counters repositoryCounters = counters.computeIfAbsent(repository, key -> new Counters());
+        switch (load) {
+            case SKIPPED -> repositoryCounters.skipped.incrementAndGet();
+            case COMPLETE -> repositoryCounters.parsed.incrementAndGet();
+            case CHANGES -> repositoryCounters.partiallyParsed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param commit loaded commit, null if it is unknown and the repository has to be parsed by the next sync
+     */
+    public void markProcessed(String repository, String commit) {
+        if (commit == null) {
+            processedCommitRepository.deleteByRepository(repository);
+        } else {
+            processedCommitRepository.persist(repository, commit);
+        }
+    }
+
+    /**
+     * Makes the next sync parse all instance repositories, e.g. because their settings in projects have changed.
+     */
+    public void forgetInstanceRepositories() {
+        processedCommitRepository.findAll().keySet().stream()
+                .filter(repository -> !PROJECT_REPOSITORY.equals(repository))
+                .forEach(processedCommitRepository::deleteByRepository);
+    }
+
+    public List<RepositorySyncStatisticsDto> statistics() {
+        Map<String, String> processedCommits = processedCommitRepository.findAll();
+        return counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new RepositorySyncStatisticsDto(entry.getKey(), processedCommits.get(entry.getKey()),
+                        entry.getValue().parsed.get(), entry.getValue().partiallyParsed.get(), entry.getValue().skipped.get()))
+                .toList();
+    }
+
+    /**
+     * @return key of the instance repository within its project, a repository may be used by several projects
+     */
+    public static String instanceRepositoryKey(GitInfo gitInfo) {
+        return gitInfo.projectId() + "/" + Paths.get(gitInfo.folderName()).getFileName();
+    }
+
+    private static final class Counters {
+        private final AtomicLong parsed = new AtomicLong();
+        private final AtomicLong partiallyParsed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+    }
+}
@@ -0,0 +1,67 @@
+package org.qubership.colly;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses YAML files of project and instance repositories. One mapper is shared by all files, so deserializers
+ * are built once per type instead of once per file, and readers are immutable and may be used by parallel syncs.
+ */
+@ApplicationScoped
+public class YamlParser {
+
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers;
+
+    // used by CDI to create the client proxy of the bean, the proxy delegates every call and needs no state
+    YamlParser() {
+        this.mapper = null;
+        this.readers = null;
+    }
+
+    @Inject
+    public YamlParser(@ConfigProperty(name = "colly.eis.yaml.blackbird.enabled") boolean blackbirdEnabled) {
+        this.mapper = new ObjectMapper(new YAMLFactory());
+        this.readers = new ConcurrentHashMap<>();
+        if (blackbirdEnabled) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+    }
+
+    public <T> T read(Path file, Class<T> type) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return read(inputStream, type);
+        }
+    }
+
+    public <T> T read(InputStream inputStream, Class<T> type) throws IOException {
+        return readerFor(type).readValue(inputStream);
+    }
+
+    public <T> T read(byte[] content, Class<T> type) throws IOException {
+        return readerFor(type).readValue(content);
+    }
+
+    public JsonNode readTree(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return mapper.readTree(inputStream);
+        }
+    }
+
+    private ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+}
@@ -0,0 +1,14 @@
+package org.qubership.colly.cloudpassport;
+
+import java.util.Set;
+
+/**
+ * Environments of a cluster whose folders have changed. Other environments of the cluster stay as they are.
+ *
+ * @param environments             changed environments that still exist
+ * @param previousEnvironmentNames names of changed environments in the previous commit, environments with these
+ *                                 names that are not in {@code environments} have been removed or renamed
+ */
+public record EnvironmentChanges(String clusterName, Set<CloudPassportEnvironment> environments,
+                                 Set<String> previousEnvironmentNames) {
+}
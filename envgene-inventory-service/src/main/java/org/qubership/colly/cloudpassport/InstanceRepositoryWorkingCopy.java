@@ -0,0 +1,15 @@
+package org.qubership.colly.cloudpassport;
+
+import org.qubership.colly.projectrepo.InstanceRepository;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Working copy of an instance repository branch, shared by all projects referring to the branch.
+ *
+ * @param instanceRepository repository as declared by the first of the projects, its token is used to update the copy
+ * @param gitInfos           the repository in every project referring to it
+ */
+public record InstanceRepositoryWorkingCopy(File directory, InstanceRepository instanceRepository, List<GitInfo> gitInfos) {
+}
@@ -0,0 +1,32 @@
+package org.qubership.colly.cloudpassport;
+
+import java.util.List;
+
+/**
+ * Instance repository brought up to date by a sync.
+ *
+ * @param commit             id of the head commit, null if it is unknown or the repository could not be read completely
+ * @param load               how much of the repository has been read
+ * @param cloudPassports     cloud passports of clusters read completely
+ * @param environmentChanges changed environments of other clusters, only when the changes since the previous commit
+ *                           have been read
+ */
+public record LoadedInstanceRepository(GitInfo gitInfo, String commit, Load load,
+                                       List<CloudPassport> cloudPassports,
+                                       List<EnvironmentChanges> environmentChanges) {
+
+    public enum Load {
+        /**
+         * The commit has been loaded already, nothing is read.
+         */
+        SKIPPED,
+        /**
+         * All clusters are read, clusters missing in cloud passports are removed.
+         */
+        COMPLETE,
+        /**
+         * Only clusters and environments changed since the previous commit are read, other ones stay as they are.
+         */
+        CHANGES
+    }
+}
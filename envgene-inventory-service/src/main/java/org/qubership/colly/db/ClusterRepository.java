@@ -2,7 +2,6 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.quarkus.logging.Log;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.hash.HashCommands;
 import io.quarkus.redis.datasource.keys.KeyCommands;
@@ -13,10 +12,8 @@
 import org.qubership.colly.db.data.Cluster;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ClusterRepository {
@@ -28,6 +25,8 @@ public class ClusterRepository {
     RedisDataSource redisDataSource;
     @Inject
     ObjectMapper objectMapper;
+    @Inject
+    RedisBulkReader bulkReader;
 
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
@@ -86,19 +85,7 @@ public Cluster findById(String id) {
 
     public List<Cluster> listAll() {
         try {
-            List<String> keys = keyCommands().keys(CLUSTER_KEY_PREFIX + "*");
-            Log.info("Found " + keys.size() + " cluster keys: " + keys);
-            return keys.stream()
-                    .map(key -> hashCommands().hget(key, "data"))
-                    .filter(Objects::nonNull)
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Cluster.class);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException("Failed to deserialize cluster", e);
-                        }
-                    })
-                    .collect(Collectors.toList());
+            return bulkReader.readAll(CLUSTER_KEY_PREFIX, Cluster.class);
         } catch (Exception e) {
             throw new RuntimeException("Failed to find all clusters", e);
         }
@@ -120,9 +107,7 @@ public Cluster findByName(String name) {
     public List<Cluster> findByProjectId(String projectId) {
         try {
             String projectIndexKey = CLUSTER_PROJECT_ID_INDEX_PREFIX + projectId;
-            return setCommands().smembers(projectIndexKey).stream()
-                    .map(this::findById)
-                    .collect(Collectors.toList());
+            return bulkReader.readByIds(CLUSTER_KEY_PREFIX, setCommands().smembers(projectIndexKey), Cluster.class);
         } catch (Exception e) {
             throw new RuntimeException("Failed to find clusters by project id: " + projectId, e);
         }
@@ -25,6 +25,9 @@ public class EnvironmentRepository {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    RedisBulkReader bulkReader;
+
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
     }
@@ -78,9 +81,7 @@ public Environment findById(String id) {
     public List<Environment> listAll() {
         try {
             Set<String> environmentIds = setCommands().smembers(ALL_ENVIRONMENTS_SET);
-            return environmentIds.stream()
-                    .map(this::findById)
-                    .filter(Objects::nonNull)
+            return bulkReader.readByIds(ENVIRONMENT_KEY_PREFIX, environmentIds, Environment.class).stream()
                     .sorted(Comparator.comparing(Environment::getName))
                     .toList();
         } catch (Exception e) {
@@ -95,9 +96,7 @@ public List<Environment> findByClusterId(String clusterId) {
         try {
             String clusterIndexKey = CLUSTER_ENVIRONMENTS_INDEX_PREFIX + clusterId;
             Set<String> environmentIds = setCommands().smembers(clusterIndexKey);
-            return environmentIds.stream()
-                    .map(this::findById)
-                    .filter(Objects::nonNull)
+            return bulkReader.readByIds(ENVIRONMENT_KEY_PREFIX, environmentIds, Environment.class).stream()
                     .sorted(Comparator.comparing(Environment::getName))
                     .toList();
         } catch (Exception e) {
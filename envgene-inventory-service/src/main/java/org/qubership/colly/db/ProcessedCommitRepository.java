@@ -0,0 +1,41 @@
+package org.qubership.colly.db;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.hash.HashCommands;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Map;
+
+/**
+ * Last commit of every repository whose content has been loaded into the cache. It is kept in Redis next to
+ * the data loaded from the commit, so both are lost together.
+ */
+@ApplicationScoped
+public class ProcessedCommitRepository {
+
+    private static final String PROCESSED_COMMITS_KEY = "inventory:processed-commits";
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    private HashCommands<String, String, String> hashCommands() {
+        return redisDataSource.hash(String.class, String.class, String.class);
+    }
+
+    public String findByRepository(String repository) {
+        return hashCommands().hget(PROCESSED_COMMITS_KEY, repository);
+    }
+
+    public Map<String, String> findAll() {
+        return hashCommands().hgetall(PROCESSED_COMMITS_KEY);
+    }
+
+    public void persist(String repository, String commit) {
+        hashCommands().hset(PROCESSED_COMMITS_KEY, repository, commit);
+    }
+
+    public void deleteByRepository(String repository) {
+        hashCommands().hdel(PROCESSED_COMMITS_KEY, repository);
+    }
+}
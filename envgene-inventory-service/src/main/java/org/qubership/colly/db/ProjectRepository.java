@@ -2,7 +2,6 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.quarkus.logging.Log;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.hash.HashCommands;
 import io.quarkus.redis.datasource.keys.KeyCommands;
@@ -11,9 +10,7 @@
 import org.qubership.colly.projectrepo.Project;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ProjectRepository {
@@ -26,6 +23,9 @@ public class ProjectRepository {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    RedisBulkReader bulkReader;
+
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
     }
@@ -64,19 +64,7 @@ public Project findById(String id) {
 
     public List<Project> listAll() {
         try {
-            List<String> keys = keyCommands().keys(PROJECT_KEY_PREFIX + "*");
-            Log.info("Found " + keys.size() + " project keys: " + keys);
-            return keys.stream()
-                    .map(key -> hashCommands().hget(key, "data"))
-                    .filter(Objects::nonNull)
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Project.class);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException("Failed to deserialize project", e);
-                        }
-                    })
-                    .collect(Collectors.toList());
+            return bulkReader.readAll(PROJECT_KEY_PREFIX, Project.class);
         } catch (Exception e) {
             throw new RuntimeException("Failed to find all projects", e);
         }
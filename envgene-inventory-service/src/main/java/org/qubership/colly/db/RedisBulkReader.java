@@ -0,0 +1,105 @@
+package org.qubership.colly.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyScanArgs;
+import io.quarkus.redis.datasource.keys.KeyScanCursor;
+import io.quarkus.redis.datasource.keys.RedisValueType;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Common bulk-read path of the repositories. Keys are listed with a cursor-based SCAN instead of KEYS,
+ * entities are fetched with pipelined HGET batches and deserialized in parallel.
+ */
+@ApplicationScoped
+public class RedisBulkReader {
+
+    private static final String DATA_FIELD = "data";
+
+    private final RedisDataSource redisDataSource;
+    private final Redis redis;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Inject
+    public RedisBulkReader(RedisDataSource redisDataSource, Redis redis, ObjectMapper objectMapper,
+                           @ConfigProperty(name = "colly.eis.redis.bulk-read.batch-size") int batchSize) {
+        this.redisDataSource = redisDataSource;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads all entities stored in hashes with the given key prefix.
+     */
+    public <T> List<T> readAll(String keyPrefix, Class<T> type) {
+        return read(scanKeys(keyPrefix), type);
+    }
+
+    /**
+     * Reads entities with the given ids. Ids of missing entities are skipped, the order of found ones is kept.
+     */
+    public <T> List<T> readByIds(String keyPrefix, Collection<String> ids, Class<T> type) {
+        return read(ids.stream().map(id -> keyPrefix + id).toList(), type);
+    }
+
+    List<String> scanKeys(String keyPrefix) {
+        KeyScanCursor<String> cursor = redisDataSource.key(String.class)
+                .scan(new KeyScanArgs().match(keyPrefix + "*").count(batchSize).type(RedisValueType.HASH));
+        // SCAN may return a key more than once
+        Set<String> keys = new LinkedHashSet<>();
+        while (cursor.hasNext()) {
+            keys.addAll(cursor.next());
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private <T> List<T> read(List<String> keys, Class<T> type) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<String> jsons = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<Request> requests = keys.subList(from, Math.min(from + batchSize, keys.size())).stream()
+                    .map(key -> Request.cmd(Command.HGET).arg(key).arg(DATA_FIELD))
+                    .toList();
+            for (Response response : redis.batchAndAwait(requests)) {
+                jsons.add(response == null ? null : response.toString());
+            }
+        }
+        Log.debug("Read " + keys.size() + " keys of " + type.getSimpleName() + " in " + (keys.size() + batchSize - 1) / batchSize + " batches");
+        return IntStream.range(0, jsons.size())
+                .parallel()
+                .mapToObj(i -> deserialize(jsons.get(i), type))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private <T> T deserialize(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize " + type.getSimpleName(), e);
+        }
+    }
+}
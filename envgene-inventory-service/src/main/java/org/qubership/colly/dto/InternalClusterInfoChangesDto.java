@@ -0,0 +1,33 @@
+package org.qubership.colly.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Clusters changed since a version returned by a previous request. This is used for service-to-service communication.")
+public record InternalClusterInfoChangesDto(
+        @Schema(
+                description = "Version of the returned data, send it as 'since' in the next request",
+                examples = "3f2a9c1e-42",
+                required = true
+        )
+        String version,
+
+        @Schema(
+                description = "True if 'clusters' holds all clusters and replaces previously received ones, e.g. because 'since' was issued before a restart",
+                required = true
+        )
+        boolean full,
+
+        @Schema(
+                description = "Clusters added or changed since the requested version, all clusters if 'full' is true",
+                required = true
+        )
+        List<InternalClusterInfoDto> clusters,
+
+        @Schema(
+                description = "IDs of clusters removed since the requested version",
+                required = true
+        )
+        List<String> deletedClusterIds) {
+}
@@ -0,0 +1,37 @@
+package org.qubership.colly.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "How a repository was loaded by syncs since the service start")
+public record RepositorySyncStatisticsDto(
+        @Schema(
+                description = "Repository: 'project-repository' or project ID and working copy of an instance repository",
+                examples = "solar_earth/instance-repo-main-4b1f0c2a",
+                required = true
+        )
+        String repository,
+
+        @Schema(
+                description = "Commit whose content is currently in the inventory",
+                examples = "9fceb02d0ae598e95dc970b74767f19372d61af8"
+        )
+        String processedCommit,
+
+        @Schema(
+                description = "Number of syncs that parsed the whole repository",
+                required = true
+        )
+        long parsed,
+
+        @Schema(
+                description = "Number of syncs that parsed only clusters and environments changed since the previously loaded commit",
+                required = true
+        )
+        long partiallyParsed,
+
+        @Schema(
+                description = "Number of syncs that skipped the repository because its commit was already processed",
+                required = true
+        )
+        long skipped) {
+}
@@ -1,17 +1,14 @@
 package org.qubership.colly.projectrepo;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.apache.commons.io.FileUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.qubership.colly.GitService;
+import org.qubership.colly.GitWorkingCopies;
+import org.qubership.colly.YamlParser;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -24,7 +21,10 @@
 @ApplicationScoped
 public class ProjectRepoLoader {
     @Inject
-    GitService gitService;
+    GitWorkingCopies gitWorkingCopies;
+
+    @Inject
+    YamlParser yamlParser;
 
     @ConfigProperty(name = "colly.eis.project.repo.folder")
     String projectRepoFolder;
@@ -33,20 +33,17 @@ public class ProjectRepoLoader {
     String projectGitRepoUrl;
 
 
-    public List<Project> loadProjects() {
-        File directory = new File(projectRepoFolder);
-
-        try {
-            if (directory.exists()) {
-                FileUtils.deleteDirectory(directory);
-            }
-        } catch (IOException e) {
-            Log.error("Impossible to start git cloning. Failed to clean directory: " + projectRepoFolder, e);
-            return null;
-        }
-
-        gitService.cloneRepository(projectGitRepoUrl, null, null, directory);
+    /**
+     * @return id of the commit the project repository has been updated to, null if it is unknown
+     */
+    public String updateRepository() {
+        return gitWorkingCopies.update(projectGitRepoUrl, null, null, new File(projectRepoFolder));
+    }
 
+    /**
+     * Reads projects from the working copy brought up to date by {@link #updateRepository()}.
+     */
+    public List<Project> parseProjects() {
         Path dir = Paths.get(projectRepoFolder);
 
         try (Stream<Path> walk = Files.walk(dir)) {
@@ -60,9 +57,8 @@ public List<Project> loadProjects() {
     Project processProject(Path parametersFilePath, Path projectPath) {
         String projectId = projectPath.getFileName().toString();
         Log.info("processing project: " + projectId + " from file: " + parametersFilePath.toString());
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        try (FileInputStream inputStream = new FileInputStream(parametersFilePath.toFile())) {
-            ProjectEntity projectEntity = mapper.readValue(inputStream, ProjectEntity.class);
+        try {
+            ProjectEntity projectEntity = yamlParser.read(parametersFilePath, ProjectEntity.class);
 
             List<RepositoryEntity> envgeneInstanceRepos = projectEntity.repositories.stream()
                     .filter(repositoryEntity -> "envgeneInstance".equals(repositoryEntity.type()))
@@ -4,6 +4,7 @@
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.security.TestSecurity;
+import io.restassured.response.Response;
 import jakarta.inject.Inject;
 import org.apache.commons.io.FileUtils;
 import org.jetbrains.annotations.NotNull;
@@ -16,13 +17,17 @@
 import org.qubership.colly.db.data.Environment;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
 
 @QuarkusTest
 @TestTransaction
@@ -105,6 +110,117 @@ void get_cluster_internal_infos() {
     }
 
 
+    @Test
+    @TestSecurity(user = "test")
+    void skip_repositories_without_new_commits() {
+        when(gitService.headCommit(any())).thenReturn("9fceb02d0ae598e95dc970b74767f19372d61af8");
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+
+        given()
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(200)
+                .body("name", containsInAnyOrder("test-cluster", "unreachable-cluster"));
+        given()
+                .when().get("/colly/v2/inventory-service/internal/sync-statistics")
+                .then()
+                .statusCode(200)
+                .body("repository", hasItem("project-repository"))
+                .body("skipped", everyItem(greaterThanOrEqualTo(1)))
+                .body("processedCommit", everyItem(equalTo("9fceb02d0ae598e95dc970b74767f19372d61af8")));
+    }
+
+    @Test
+    @TestSecurity(user = "test")
+    void apply_only_environments_changed_since_loaded_commit() {
+        when(gitService.headCommit(any())).thenReturn("old-commit");
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        String envTestId = given()
+                .when().get("/colly/v2/inventory-service/environments")
+                .then()
+                .statusCode(200)
+                .body("name", containsInAnyOrder("env-test", "env-metadata-test", "env-1"))
+                .extract().path("find { it.name == 'env-test' }.id");
+
+        // the new commit removes env-metadata-test from the instance repository of solar_earth
+        doAnswer(invocation -> {
+            File destination = invocation.getArgument(3);
+            FileUtils.copyDirectory(new File("src/test/resources/" + invocation.getArgument(0)), destination);
+            FileUtils.deleteDirectory(new File(destination, "environments/test-cluster/env-metadata-test"));
+            return null;
+        }).when(gitService).cloneRepository(anyString(), any(), any(), any());
+        when(gitService.headCommit(any())).thenAnswer(invocation ->
+                ((File) invocation.getArgument(0)).getName().startsWith("gitrepo_with_cloudpassports") ? "new-commit" : "old-commit");
+        when(gitService.changedPaths(any(), eq("old-commit"), eq("new-commit"))).thenReturn(Set.of(
+                "environments/test-cluster/env-metadata-test/Inventory/env_definition.yml",
+                "environments/test-cluster/env-metadata-test/Namespaces/bss/namespace.yml"));
+        when(gitService.readFile(any(), eq("old-commit"), eq("environments/test-cluster/env-metadata-test/Inventory/env_definition.yml")))
+                .thenReturn("""
+                        inventory:
+                          environmentName: "env-metadata-test"
+                        """.getBytes(StandardCharsets.UTF_8));
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+
+        given()
+                .when().get("/colly/v2/inventory-service/environments")
+                .then()
+                .statusCode(200)
+                .body("name", containsInAnyOrder("env-test", "env-1"))
+                .body("find { it.name == 'env-test' }.id", equalTo(envTestId));
+        given()
+                .when().get("/colly/v2/inventory-service/internal/sync-statistics")
+                .then()
+                .statusCode(200)
+                .body("find { it.repository.startsWith('solar_earth/gitrepo_with_cloudpassports') }.partiallyParsed", equalTo(1))
+                .body("find { it.repository.startsWith('solar_earth/gitrepo_with_cloudpassports') }.processedCommit", equalTo("new-commit"));
+    }
+
+    @Test
+    @TestSecurity(user = "test")
+    void keep_clusters_of_failed_repository_and_sync_other_ones() {
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+
+        // the instance repository of solar_earth is unavailable, the other ones are synced as usual
+        doAnswer(invocation -> {
+            String repositoryUrl = invocation.getArgument(0);
+            if (repositoryUrl.equals("gitrepo_with_cloudpassports")) {
+                throw new IllegalStateException("Repository is unavailable");
+            }
+            File destination = invocation.getArgument(3);
+            FileUtils.copyDirectory(new File("src/test/resources/" + repositoryUrl), destination);
+            FileUtils.deleteDirectory(new File(destination, "environments/unreachable-cluster"));
+            return null;
+        }).when(gitService).cloneRepository(anyString(), any(), any(), any());
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(500);
+
+        given()
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(200)
+                .body("name", contains("test-cluster"))
+                .body("find { it.name == 'test-cluster' }.environments.name",
+                        containsInAnyOrder("env-test", "env-metadata-test"));
+    }
+
     @Test
     @TestSecurity(user = "test")
     void get_clusters() {
@@ -158,6 +274,116 @@ void get_cluster_by_id() {
                 .body("environments", hasSize(2));
     }
 
+    @Test
+    @TestSecurity(user = "test")
+    void get_cluster_internal_info_changes() {
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        Response all = given()
+                .when().get("/colly/v2/inventory-service/internal/cluster-infos/changes");
+        all.then()
+                .statusCode(200)
+                .body("full", equalTo(true))
+                .body("clusters.name", containsInAnyOrder("test-cluster", "unreachable-cluster"))
+                .body("deletedClusterIds", empty());
+        String version = all.jsonPath().getString("version");
+        String testClusterId = all.jsonPath().getString("clusters.find { it.name == 'test-cluster' }.id");
+
+        given()
+                .queryParam("since", version)
+                .when().get("/colly/v2/inventory-service/internal/cluster-infos/changes")
+                .then()
+                .statusCode(200)
+                .body("full", equalTo(false))
+                .body("clusters", empty())
+                .body("deletedClusterIds", empty());
+
+        // mock: clone as usual, but remove solar_earth project folder with test-cluster
+        doAnswer(invocation -> {
+            File dest = invocation.getArgument(3);
+            FileUtils.copyDirectory(new File("src/test/resources/" + invocation.getArgument(0)), dest);
+            FileUtils.deleteDirectory(new File(dest, "projects/solar_earth"));
+            return null;
+        }).when(gitService).cloneRepository(anyString(), any(), any(), any());
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+
+        given()
+                .queryParam("since", version)
+                .when().get("/colly/v2/inventory-service/internal/cluster-infos/changes")
+                .then()
+                .statusCode(200)
+                .body("full", equalTo(false))
+                .body("version", not(version))
+                .body("clusters", empty())
+                .body("deletedClusterIds", contains(testClusterId));
+        given()
+                .queryParam("since", "issued-by-another-instance-1")
+                .when().get("/colly/v2/inventory-service/internal/cluster-infos/changes")
+                .then()
+                .statusCode(200)
+                .body("full", equalTo(true))
+                .body("clusters.name", contains("unreachable-cluster"));
+    }
+
+    @Test
+    @TestSecurity(user = "test")
+    void get_clusters_not_modified_until_sync() {
+        when(gitService.headCommit(any())).thenReturn("old-commit");
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        String tag = given()
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", tag)
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(304)
+                .header("ETag", tag)
+                .body(emptyString());
+        given()
+                .header("If-None-Match", tag)
+                .when().get("/colly/v2/inventory-service/environments")
+                .then()
+                .statusCode(304);
+
+        // all repositories are at the same head commit, so the sync skips them and the tag stays valid
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        given()
+                .header("If-None-Match", tag)
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(304)
+                .header("ETag", tag);
+
+        when(gitService.headCommit(any())).thenReturn("new-commit");
+        given()
+                .when().post("/colly/v2/inventory-service/manual-sync")
+                .then()
+                .statusCode(204);
+        given()
+                .header("If-None-Match", tag)
+                .when().get("/colly/v2/inventory-service/clusters")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(tag))
+                .body("name", containsInAnyOrder("test-cluster", "unreachable-cluster"));
+    }
+
     @Test
     @TestSecurity(user = "test")
     void get_cluster_by_id_not_found() {
@@ -19,6 +19,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
@@ -31,9 +32,11 @@
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
 
-@QuarkusComponentTest
+@QuarkusComponentTest({GitWorkingCopies.class, YamlParser.class})
 class CloudPassportLoaderTest {
 
     private static final CloudPassport TEST_CLUSTER = new CloudPassport("test-cluster",
@@ -96,7 +99,7 @@ class CloudPassportLoaderTest {
                                     new SdApplication("postgres:1.32.6", "postgresql-dbaas")))),
             "http://localhost:8428",
             new GitInfo(new InstanceRepository("gitrepo_with_cloudpassports", "main", "42", "cn"),
-                    "target/test-cloud-passport-folder/1", "1"),
+                    "target/test-cloud-passport-folder/" + GitWorkingCopies.folderName("gitrepo_with_cloudpassports", "main"), "1"),
             "https://dashboard.example.com",
             "https://dbaas.example.com",
             "https://deployer.example.com",
@@ -125,7 +128,8 @@ class CloudPassportLoaderTest {
                     CmApproach.NO_CMDB,
                     List.of())),
             "https://vmsingle-victoria.unreachable.url",
-            new GitInfo(new InstanceRepository("gitrepo_with_unreachable_cluster", "main", "43", "mb"), "target/test-cloud-passport-folder/2", "2"),
+            new GitInfo(new InstanceRepository("gitrepo_with_unreachable_cluster", "main", "43", "mb"),
+                    "target/test-cloud-passport-folder/" + GitWorkingCopies.folderName("gitrepo_with_unreachable_cluster", "main"), "2"),
             null,
             null,
             null,
@@ -187,7 +191,7 @@ void load_cloud_passports_from_test_folder_with_empty_folder() {
                         new CloudPassportEnvironment("env-from-folder-name", "env with name derived from folder", List.of(), List.of(), List.of(), List.of(), EnvironmentStatus.FREE, null, EnvironmentType.ENVIRONMENT, null, List.of(), List.of(), List.of(), false, CmApproach.NO_CMDB, List.of())),
                 "http://localhost:8428",
                 new GitInfo(new InstanceRepository("gitrepo_with_cloudpassports_invalid_cases", "main", "42", "cn"),
-                        "target/test-cloud-passport-folder/1", "1"),
+                        "target/test-cloud-passport-folder/" + GitWorkingCopies.folderName("gitrepo_with_cloudpassports_invalid_cases", "main"), "1"),
                 "https://dashboard.example.com",
                 "https://dbaas.example.com",
                 "https://deployer.example.com",
@@ -266,6 +270,93 @@ void no_environments_folder_in_repo() {
         assertThat(clusterNames, not(hasItem("cluster-outside-environments")));
     }
 
+    @Test
+    @TestConfigProperty(key = "colly.eis.cloud.passport.folder", value = "target/test-cloud-passport-folder")
+    void load_only_environments_changed_since_loaded_commit() {
+        Project project = new Project("1", "project-1",
+                List.of(new InstanceRepository("gitrepo_with_cloudpassports", "main", "42", "cn")),
+                null,
+                List.of());
+        when(gitService.headCommit(any())).thenReturn("new-commit");
+        when(gitService.changedPaths(any(), eq("old-commit"), eq("new-commit"))).thenReturn(Set.of(
+                "README.md",
+                "environments/test-cluster/env-test/Namespaces/bss/namespace.yml",
+                "environments/test-cluster/env-metadata-test/Inventory/env_definition.yml"));
+        when(gitService.readFile(any(), eq("old-commit"), eq("environments/test-cluster/env-metadata-test/Inventory/env_definition.yml")))
+                .thenReturn("""
+                        inventory:
+                          environmentName: "env-renamed"
+                        """.getBytes(StandardCharsets.UTF_8));
+
+        List<LoadedInstanceRepository> result = loader.loadCloudPassports(List.of(project), gitInfo -> "old-commit");
+
+        assertThat(result, hasSize(1));
+        LoadedInstanceRepository repository = result.getFirst();
+        assertThat(repository.load(), is(LoadedInstanceRepository.Load.CHANGES));
+        assertThat(repository.commit(), is("new-commit"));
+        assertThat(repository.cloudPassports(), empty());
+        assertThat(repository.environmentChanges(), hasSize(1));
+        EnvironmentChanges changes = repository.environmentChanges().getFirst();
+        assertThat(changes.clusterName(), is("test-cluster"));
+        assertThat(changes.environments().stream().map(CloudPassportEnvironment::name).toList(),
+                containsInAnyOrder("env-test", "env-metadata-test"));
+        assertThat(changes.previousEnvironmentNames(), contains("env-renamed"));
+    }
+
+    @Test
+    @TestConfigProperty(key = "colly.eis.cloud.passport.folder", value = "target/test-cloud-passport-folder")
+    void load_whole_cluster_if_its_cloud_passport_changed() {
+        Project project = new Project("1", "project-1",
+                List.of(new InstanceRepository("gitrepo_with_cloudpassports", "main", "42", "cn")),
+                null,
+                List.of());
+        when(gitService.headCommit(any())).thenReturn("new-commit");
+        when(gitService.changedPaths(any(), eq("old-commit"), eq("new-commit"))).thenReturn(Set.of(
+                "environments/test-cluster/cloud-passport/test-cluster.yml",
+                "environments/test-cluster/env-test/Inventory/env_definition.yml"));
+
+        List<LoadedInstanceRepository> result = loader.loadCloudPassports(List.of(project), gitInfo -> "old-commit");
+
+        LoadedInstanceRepository repository = result.getFirst();
+        assertThat(repository.load(), is(LoadedInstanceRepository.Load.CHANGES));
+        assertThat(repository.cloudPassports(), contains(TEST_CLUSTER));
+        assertThat(repository.environmentChanges(), empty());
+    }
+
+    @Test
+    @TestConfigProperty(key = "colly.eis.cloud.passport.folder", value = "target/test-cloud-passport-folder")
+    void load_whole_repository_if_changes_are_outside_of_clusters() {
+        Project project = new Project("1", "project-1",
+                List.of(new InstanceRepository("gitrepo_with_cloudpassports", "main", "42", "cn")),
+                null,
+                List.of());
+        when(gitService.headCommit(any())).thenReturn("new-commit");
+        when(gitService.changedPaths(any(), eq("old-commit"), eq("new-commit"))).thenReturn(Set.of(
+                "environments/removed-cluster/cloud-passport/removed-cluster.yml"));
+
+        List<LoadedInstanceRepository> result = loader.loadCloudPassports(List.of(project), gitInfo -> "old-commit");
+
+        LoadedInstanceRepository repository = result.getFirst();
+        assertThat(repository.load(), is(LoadedInstanceRepository.Load.COMPLETE));
+        assertThat(repository.cloudPassports(), contains(TEST_CLUSTER));
+    }
+
+    @Test
+    @TestConfigProperty(key = "colly.eis.cloud.passport.folder", value = "target/test-cloud-passport-folder")
+    void skip_repository_if_head_commit_is_loaded() {
+        Project project = new Project("1", "project-1",
+                List.of(new InstanceRepository("gitrepo_with_cloudpassports", "main", "42", "cn")),
+                null,
+                List.of());
+        when(gitService.headCommit(any())).thenReturn("old-commit");
+
+        List<LoadedInstanceRepository> result = loader.loadCloudPassports(List.of(project), gitInfo -> "old-commit");
+
+        LoadedInstanceRepository repository = result.getFirst();
+        assertThat(repository.load(), is(LoadedInstanceRepository.Load.SKIPPED));
+        assertThat(repository.cloudPassports(), empty());
+    }
+
     @Test
     void test_read_cloud_passport_data(@TempDir Path tempDir) throws IOException {
         String yaml = """
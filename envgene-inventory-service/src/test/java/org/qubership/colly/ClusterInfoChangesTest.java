@@ -0,0 +1,71 @@
+package org.qubership.colly;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.dto.InternalClusterInfoChangesDto;
+import org.qubership.colly.dto.InternalClusterInfoDto;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClusterInfoChangesTest {
+
+    private static final InternalClusterInfoDto CLUSTER_A = clusterInfo("a");
+    private static final InternalClusterInfoDto CLUSTER_B = clusterInfo("b");
+
+    private DataVersion dataVersion;
+    private DtoMapper dtoMapper;
+    private ClusterInfoChanges clusterInfoChanges;
+
+    @BeforeEach
+    void setUp() {
+        dataVersion = new DataVersion();
+        dtoMapper = mock(DtoMapper.class);
+        clusterInfoChanges = new ClusterInfoChanges(mock(CollyStorage.class), dtoMapper, dataVersion, 2);
+    }
+
+    @Test
+    void report_removed_cluster_to_versions_within_retained_generations() {
+        when(dtoMapper.toClusterInfoDtos(any())).thenReturn(List.of(CLUSTER_A, CLUSTER_B));
+        String initial = clusterInfoChanges.changesSince(null).version();
+
+        when(dtoMapper.toClusterInfoDtos(any())).thenReturn(List.of(CLUSTER_A));
+        dataVersion.increment();
+        dataVersion.increment();
+        InternalClusterInfoChangesDto changes = clusterInfoChanges.changesSince(initial);
+
+        assertThat(changes.full(), is(false));
+        assertThat(changes.clusters(), empty());
+        assertThat(changes.deletedClusterIds(), contains("b"));
+    }
+
+    @Test
+    void return_all_cluster_infos_to_versions_older_than_retained_generations() {
+        when(dtoMapper.toClusterInfoDtos(any())).thenReturn(List.of(CLUSTER_A, CLUSTER_B));
+        String initial = clusterInfoChanges.changesSince(null).version();
+
+        when(dtoMapper.toClusterInfoDtos(any())).thenReturn(List.of(CLUSTER_A));
+        dataVersion.increment();
+        String afterRemoval = clusterInfoChanges.changesSince(initial).version();
+        dataVersion.increment();
+        dataVersion.increment();
+
+        InternalClusterInfoChangesDto fromInitial = clusterInfoChanges.changesSince(initial);
+        assertThat(fromInitial.full(), is(true));
+        assertThat(fromInitial.clusters(), contains(CLUSTER_A));
+        InternalClusterInfoChangesDto fromRemoval = clusterInfoChanges.changesSince(afterRemoval);
+        assertThat(fromRemoval.full(), is(false));
+        assertThat(fromRemoval.clusters(), empty());
+        assertThat(fromRemoval.deletedClusterIds(), empty());
+    }
+
+    private static InternalClusterInfoDto clusterInfo(String id) {
+        return new InternalClusterInfoDto(id, "cluster-" + id, "token", "https://api." + id, "https://" + id,
+                List.of(), null, null);
+    }
+}
@@ -10,9 +10,11 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,6 +86,54 @@ void cloneRepository_shouldThrowOnInvalidUrl() {
                 gitService.cloneRepository("https://invalid.invalid/repo.git", "main", "", dest.toFile()));
     }
 
+    @Test
+    void fetchAndReset_shouldDropLocalChangesAndApplyNewCommits() throws Exception {
+        Path localRepo = tempDir.resolve("working-copy");
+        gitService.cloneRepository(bareRepoUri, "main", "", localRepo.toFile());
+        Path otherRepo = tempDir.resolve("other");
+        gitService.cloneRepository(bareRepoUri, "main", "", otherRepo.toFile());
+        Files.writeString(otherRepo.resolve("README.md"), "pushed content");
+        gitService.commitAndPush(otherRepo.toFile(), "update README", "", "User", "user@test.com");
+
+        Files.writeString(localRepo.resolve("README.md"), "local change");
+        Files.writeString(localRepo.resolve("untracked.txt"), "untracked");
+        gitService.fetchAndReset(localRepo.toFile(), "main", "");
+
+        assertEquals("pushed content", Files.readString(localRepo.resolve("README.md")));
+        assertFalse(Files.exists(localRepo.resolve("untracked.txt")));
+    }
+
+    @Test
+    void isWorkingCopyOf_shouldMatchOriginUrl() throws Exception {
+        Path localRepo = tempDir.resolve("working-copy-origin");
+        gitService.cloneRepository(bareRepoUri, "main", "", localRepo.toFile());
+
+        assertTrue(gitService.isWorkingCopyOf(localRepo.toFile(), bareRepoUri));
+        assertFalse(gitService.isWorkingCopyOf(localRepo.toFile(), "https://example.com/other.git"));
+        assertFalse(gitService.isWorkingCopyOf(tempDir.resolve("not-a-repo").toFile(), bareRepoUri));
+    }
+
+    @Test
+    void changedPaths_shouldListFilesChangedBetweenCommits() throws Exception {
+        Path localRepo = tempDir.resolve("working-copy-diff");
+        gitService.cloneRepository(bareRepoUri, "main", "", localRepo.toFile());
+        String oldCommit = gitService.headCommit(localRepo.toFile());
+        Files.createDirectories(localRepo.resolve("environments/cluster"));
+        Files.writeString(localRepo.resolve("environments/cluster/env_definition.yml"), "inventory: {}");
+        try (Git git = Git.open(localRepo.toFile())) {
+            git.rm().addFilepattern("README.md").call();
+        }
+        gitService.commitAndPush(localRepo.toFile(), "add environment", "", "User", "user@test.com");
+        String newCommit = gitService.headCommit(localRepo.toFile());
+
+        assertNotEquals(oldCommit, newCommit);
+        assertEquals(Set.of("README.md", "environments/cluster/env_definition.yml"),
+                gitService.changedPaths(localRepo.toFile(), oldCommit, newCommit));
+        assertEquals("initial content", new String(gitService.readFile(localRepo.toFile(), oldCommit, "README.md"), StandardCharsets.UTF_8));
+        assertNull(gitService.readFile(localRepo.toFile(), newCommit, "README.md"));
+        assertThrows(IllegalStateException.class, () -> gitService.changedPaths(localRepo.toFile(), "0000000000000000000000000000000000000000", newCommit));
+    }
+
     @Test
     void commitAndPush_shouldPushNewFile() throws Exception {
         Path localRepo = tempDir.resolve("local");
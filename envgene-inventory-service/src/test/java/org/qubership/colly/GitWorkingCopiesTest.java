@@ -0,0 +1,111 @@
+package org.qubership.colly;
+
+import io.quarkus.test.component.QuarkusComponentTest;
+import io.quarkus.test.component.TestConfigProperty;
+import jakarta.inject.Inject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusComponentTest({GitWorkingCopies.class, GitService.class})
+@TestConfigProperty(key = "colly.eis.project.repo.git.token", value = "test-token")
+class GitWorkingCopiesTest {
+
+    @Inject
+    GitWorkingCopies gitWorkingCopies;
+
+    @Inject
+    GitService gitService;
+
+    @TempDir
+    Path tempDir;
+
+    private String bareRepoUri;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path bareRepo = tempDir.resolve("remote.git");
+        Path initialWork = tempDir.resolve("init-work");
+
+        Git.init().setBare(true).setDirectory(bareRepo.toFile()).call().close();
+        bareRepoUri = bareRepo.toUri().toString();
+
+        try (Git git = Git.init()
+                .setDirectory(initialWork.toFile())
+                .setInitialBranch("main")
+                .call()) {
+            Files.writeString(initialWork.resolve("README.md"), "initial content");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("initial commit").setAuthor("setup", "setup@test.com").call();
+            git.remoteAdd().setName("origin").setUri(new URIish(bareRepoUri)).call();
+            git.push().setRemote("origin").setPushAll().call();
+        }
+    }
+
+    @Test
+    void update_should_keep_working_copy_between_updates() throws Exception {
+        Path workingCopy = tempDir.resolve("copies").resolve(GitWorkingCopies.folderName(bareRepoUri, "main"));
+        gitWorkingCopies.update(bareRepoUri, "main", "", workingCopy.toFile());
+        Path marker = workingCopy.resolve(".git").resolve("marker");
+        Files.writeString(marker, "kept while the working copy is fetched");
+
+        pushReadme("second content");
+        gitWorkingCopies.update(bareRepoUri, "main", "", workingCopy.toFile());
+
+        assertEquals("second content", Files.readString(workingCopy.resolve("README.md")));
+        assertTrue(Files.exists(marker));
+    }
+
+    @Test
+    void update_should_clone_again_when_working_copy_is_broken() throws Exception {
+        Path workingCopy = tempDir.resolve("broken");
+        gitWorkingCopies.update(bareRepoUri, "main", "", workingCopy.toFile());
+        Files.writeString(workingCopy.resolve(".git").resolve("HEAD"), "garbage");
+
+        pushReadme("after corruption");
+        gitWorkingCopies.update(bareRepoUri, "main", "", workingCopy.toFile());
+
+        assertEquals("after corruption", Files.readString(workingCopy.resolve("README.md")));
+        assertTrue(gitService.isWorkingCopyOf(workingCopy.toFile(), bareRepoUri));
+    }
+
+    @Test
+    void retain_should_delete_unused_working_copies() throws Exception {
+        Path folder = tempDir.resolve("retain");
+        Files.createDirectories(folder.resolve("used"));
+        Files.createDirectories(folder.resolve("unused"));
+
+        gitWorkingCopies.retain(folder.toFile(), Set.of("used"));
+
+        assertTrue(Files.exists(folder.resolve("used")));
+        assertFalse(Files.exists(folder.resolve("unused")));
+    }
+
+    @Test
+    void folder_name_should_be_stable_and_distinct_per_branch() {
+        String main = GitWorkingCopies.folderName("https://git.example.com/group/instance-repo.git", "main");
+
+        assertThat(main, startsWith("instance-repo-main-"));
+        assertThat(GitWorkingCopies.folderName("https://git.example.com/group/instance-repo.git", "main"), equalTo(main));
+        assertThat(GitWorkingCopies.folderName("https://git.example.com/group/instance-repo.git", "feature/x"),
+                allOf(startsWith("instance-repo-feature_x-"), not(equalTo(main))));
+        assertThat(GitWorkingCopies.folderName("https://git.example.com/other/instance-repo.git", "main"), not(equalTo(main)));
+    }
+
+    private void pushReadme(String content) throws Exception {
+        Path pusher = tempDir.resolve("pusher-" + System.nanoTime());
+        gitService.cloneRepository(bareRepoUri, "main", "", pusher.toFile());
+        Files.writeString(pusher.resolve("README.md"), content);
+        gitService.commitAndPush(pusher.toFile(), "update README", "", "User", "user@test.com");
+    }
+}
@@ -0,0 +1,38 @@
+package org.qubership.colly;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.cloudpassport.envgen.CloudPassportData;
+import org.qubership.colly.cloudpassport.envgen.EnvDefinition;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class YamlParserTest {
+
+    private static final Path TEST_CLUSTER = Path.of("src/test/resources/gitrepo_with_cloudpassports/environments/test-cluster");
+
+    @Test
+    void read_files_of_different_types_with_one_parser() throws IOException {
+        assertReadsTestCluster(new YamlParser(false));
+    }
+
+    @Test
+    void read_files_of_different_types_with_blackbird() throws IOException {
+        assertReadsTestCluster(new YamlParser(true));
+    }
+
+    private static void assertReadsTestCluster(YamlParser parser) throws IOException {
+        EnvDefinition envDefinition = parser.read(TEST_CLUSTER.resolve("env-metadata-test/Inventory/env_definition.yml"), EnvDefinition.class);
+        CloudPassportData cloudPassportData = parser.read(TEST_CLUSTER.resolve("cloud-passport/test-cluster.yml"), CloudPassportData.class);
+        EnvDefinition sameTypeAgain = parser.read(TEST_CLUSTER.resolve("env-test/Inventory/env_definition.yml"), EnvDefinition.class);
+
+        assertThat(envDefinition.inventory().environmentName(), equalTo("env-metadata-test"));
+        assertThat(envDefinition.metadata().teams(), contains("team-from-metadata"));
+        assertThat(cloudPassportData.cloud().cloudApiHost(), equalTo("1E4A399FCB54F505BBA05320EADF0DB3.gr7.eu-west-1.eks.amazonaws.com"));
+        assertThat(sameTypeAgain.inventory().environmentName(), equalTo("env-test"));
+    }
+}
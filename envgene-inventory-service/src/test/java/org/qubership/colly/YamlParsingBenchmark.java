@@ -0,0 +1,120 @@
+package org.qubership.colly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.qubership.colly.cloudpassport.envgen.EnvDefinition;
+import org.qubership.colly.cloudpassport.envgen.Namespace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing of env_definition.yml and namespace.yml files of a synthetic instance repository with a new
+ * mapper per file, as the loaders did before, with the shared readers of {@link YamlParser}. Not a test, run it
+ * from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.qubership.colly.YamlParsingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YamlParsingBenchmark {
+
+    @Param({"5000"})
+    int environments;
+
+    @Param({"2"})
+    int namespacesPerEnvironment;
+
+    @Param({"false", "true"})
+    boolean blackbird;
+
+    private YamlParser yamlParser;
+    private List<byte[]> envDefinitions;
+    private List<byte[]> namespaces;
+
+    @Setup
+    public void setUp() {
+        yamlParser = new YamlParser(blackbird);
+        envDefinitions = new ArrayList<>(environments);
+        namespaces = new ArrayList<>(environments * namespacesPerEnvironment);
+        for (int env = 0; env < environments; env++) {
+            envDefinitions.add(envDefinition(env).getBytes(StandardCharsets.UTF_8));
+            for (int ns = 0; ns < namespacesPerEnvironment; ns++) {
+                namespaces.add(("name: \"env-" + env + "-ns-" + ns + "\"\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Benchmark
+    public int mapperPerFile() throws IOException {
+        int parsed = 0;
+        for (byte[] envDefinition : envDefinitions) {
+            parsed += new ObjectMapper(new YAMLFactory()).readValue(envDefinition, EnvDefinition.class).inventory() != null ? 1 : 0;
+        }
+        for (byte[] namespace : namespaces) {
+            parsed += new ObjectMapper(new YAMLFactory()).readValue(namespace, Namespace.class).getName() != null ? 1 : 0;
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public int sharedReaders() throws IOException {
+        int parsed = 0;
+        for (byte[] envDefinition : envDefinitions) {
+            parsed += yamlParser.read(envDefinition, EnvDefinition.class).inventory() != null ? 1 : 0;
+        }
+        for (byte[] namespace : namespaces) {
+            parsed += yamlParser.read(namespace, Namespace.class).getName() != null ? 1 : 0;
+        }
+        return parsed;
+    }
+
+    private static String envDefinition(int env) {
+        return """
+                metadata:
+                  description: "environment %1$d"
+                  owners: [ "owner-%2$d" ]
+                  labels: [ "label-a", "label-b" ]
+                  teams: [ "team-%2$d" ]
+                  status: "IN_USE"
+                  expirationDate: "2026-12-31"
+                  type: "ENVIRONMENT"
+                  accessGroups: [ "group-%2$d" ]
+                inventory:
+                  environmentName: "env-%1$d"
+                  tenantName: "Applications"
+                  deployer: "https://deployer.example.com"
+                envTemplate:
+                  name: "template-%2$d"
+                  envSpecificParamsets:
+                    core:
+                      - core-deploy-ui-override
+                    cloud:
+                      - deploy-ui-override
+                """.formatted(env, env % 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(YamlParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -10,6 +10,8 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.qubership.colly.GitService;
+import org.qubership.colly.GitWorkingCopies;
+import org.qubership.colly.YamlParser;
 
 import java.io.File;
 import java.io.IOException;
@@ -24,7 +26,7 @@
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 
-@QuarkusComponentTest
+@QuarkusComponentTest({GitWorkingCopies.class, YamlParser.class})
 class ProjectRepoLoaderTest {
 
     public static final Project TEST_PROJECT_1 = new Project(
@@ -66,7 +68,8 @@ void setUp() {
     @TestConfigProperty(key = "colly.eis.project.repo.folder", value = "target/test-project-repo-folder")
     @TestConfigProperty(key = "colly.eis.project.repo.url", value = "test-project-repo")
     void load_projects_from_test_folder() {
-        List<Project> result = loader.loadProjects();
+        loader.updateRepository();
+        List<Project> result = loader.parseProjects();
 
         assertThat(result, containsInAnyOrder(TEST_PROJECT_1, TEST_PROJECT_2));
     }
@@ -77,7 +80,8 @@ void load_projects_from_test_folder() {
     @TestConfigProperty(key = "colly.eis.project.repo.folder", value = "/nonexistent/path")
     @TestConfigProperty(key = "colly.eis.project.repo.url", value = "test-project-repo")
     void load_projects_from_nonexistent_folder_returns_empty_list() {
-        List<Project> result = loader.loadProjects();
+        loader.updateRepository();
+        List<Project> result = loader.parseProjects();
         assertTrue(result.isEmpty());
     }
 
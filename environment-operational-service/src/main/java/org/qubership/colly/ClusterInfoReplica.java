@@ -0,0 +1,74 @@
+package org.qubership.colly;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.cloudpassport.ClusterInfoChanges;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local copy of the inventory cluster infos. Every refresh asks the inventory service only for clusters changed
+ * since the previous one, instead of pulling all clusters with their environments. Falls back to the full list
+ * if deltas are disabled or the inventory service does not support them yet.
+ */
+@ApplicationScoped
+public class ClusterInfoReplica {
+
+    private final EnvgeneInventoryServiceRest envgeneInventoryServiceRest;
+    private final boolean deltasEnabled;
+
+    // cluster id -> cluster info, in the order of the inventory
+    private final Map<String, ClusterInfo> clusterInfos = new LinkedHashMap<>();
+    private String version;
+    private boolean deltasSupported = true;
+
+    @Inject
+    public ClusterInfoReplica(@RestClient EnvgeneInventoryServiceRest envgeneInventoryServiceRest,
+                              @ConfigProperty(name = "colly.environment-operational-service.inventory.cluster-infos.deltas.enabled") boolean deltasEnabled) {
+        this.envgeneInventoryServiceRest = envgeneInventoryServiceRest;
+        this.deltasEnabled = deltasEnabled;
+    }
+
+    /**
+     * Applies changes made in the inventory since the previous refresh.
+     *
+     * @return all cluster infos of the inventory
+     */
+    public synchronized List<ClusterInfo> refresh() {
+        if (!deltasEnabled || !deltasSupported) {
+            return envgeneInventoryServiceRest.getClusterInfos();
+        }
+        ClusterInfoChanges changes;
+        try {
+            changes = envgeneInventoryServiceRest.getClusterInfoChanges(version);
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() != Response.Status.NOT_FOUND.getStatusCode()) {
+                throw e;
+            }
+            Log.warn("Inventory service does not provide cluster info changes, all cluster infos are fetched on every refresh");
+            deltasSupported = false;
+            return envgeneInventoryServiceRest.getClusterInfos();
+        }
+        apply(changes);
+        return List.copyOf(clusterInfos.values());
+    }
+
+    private void apply(ClusterInfoChanges changes) {
+        if (changes.full()) {
+            clusterInfos.clear();
+        }
+        changes.clusters().forEach(clusterInfo -> clusterInfos.put(clusterInfo.id(), clusterInfo));
+        changes.deletedClusterIds().forEach(clusterInfos::remove);
+        version = changes.version();
+        Log.debugf("Cluster infos replica updated to version %s: %d changed, %d deleted, full=%s",
+                version, changes.clusters().size(), changes.deletedClusterIds().size(), changes.full());
+    }
+}
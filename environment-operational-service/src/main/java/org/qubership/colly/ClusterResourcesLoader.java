@@ -4,8 +4,6 @@
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.ClientBuilder;
-import io.kubernetes.client.util.credentials.AccessTokenAuthentication;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -15,19 +13,27 @@
 import org.qubership.colly.cloudpassport.CloudPassportNamespace;
 import org.qubership.colly.cloudpassport.ClusterInfo;
 import org.qubership.colly.db.data.Cluster;
+import org.qubership.colly.db.data.DeploymentOperation;
 import org.qubership.colly.db.data.Environment;
 import org.qubership.colly.db.data.Namespace;
 import org.qubership.colly.db.repository.ClusterRepository;
+import org.qubership.colly.db.repository.DeploymentOperationRepository;
 import org.qubership.colly.db.repository.EnvironmentRepository;
 import org.qubership.colly.db.repository.NamespaceRepository;
+import org.qubership.colly.db.repository.RedisBatchWriter;
+import org.qubership.colly.db.repository.RedisWriteBatch;
+import org.qubership.colly.kubernetes.KubernetesClientRegistry;
+import org.qubership.colly.kubernetes.NamespaceWatcher;
 import org.qubership.colly.monitoring.MonitoringService;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,53 +44,78 @@ public class ClusterResourcesLoader {
     private final NamespaceRepository namespaceRepository;
     private final ClusterRepository clusterRepository;
     private final EnvironmentRepository environmentRepository;
+    private final DeploymentOperationRepository deploymentOperationRepository;
     private final MonitoringService monitoringService;
     private final AchKubernetesAgentService achKubernetesAgentService;
+    private final NamespaceWatcher namespaceWatcher;
+    private final KubernetesClientRegistry kubernetesClientRegistry;
+    private final RedisBatchWriter redisBatchWriter;
 
     @ConfigProperty(name = "colly.environment-operational-service.config-map.versions.name")
     String versionsConfigMapName;
 
+    @ConfigProperty(name = "colly.environment-operational-service.config-map.versions.cluster-wide-lookup")
+    boolean clusterWideVersionsLookup;
+
+    @ConfigProperty(name = "colly.environment-operational-service.config-map.versions.page-size")
+    int versionsConfigMapPageSize;
+
     @Inject
     public ClusterResourcesLoader(NamespaceRepository namespaceRepository,
                                   ClusterRepository clusterRepository,
                                   EnvironmentRepository environmentRepository,
-                                  MonitoringService monitoringService, AchKubernetesAgentService achKubernetesAgentService) {
+                                  DeploymentOperationRepository deploymentOperationRepository,
+                                  MonitoringService monitoringService, AchKubernetesAgentService achKubernetesAgentService,
+                                  NamespaceWatcher namespaceWatcher,
+                                  KubernetesClientRegistry kubernetesClientRegistry,
+                                  RedisBatchWriter redisBatchWriter) {
         this.namespaceRepository = namespaceRepository;
         this.clusterRepository = clusterRepository;
         this.environmentRepository = environmentRepository;
+        this.deploymentOperationRepository = deploymentOperationRepository;
         this.monitoringService = monitoringService;
         this.achKubernetesAgentService = achKubernetesAgentService;
+        this.namespaceWatcher = namespaceWatcher;
+        this.kubernetesClientRegistry = kubernetesClientRegistry;
+        this.redisBatchWriter = redisBatchWriter;
     }
 
 
     //@Transactional - removed for Redis
-    public void loadClusterResources(ClusterInfo clusterInfo) {
-        AccessTokenAuthentication authentication = new AccessTokenAuthentication(clusterInfo.token());
+    /**
+     * @return digest of the stable state of the cluster, see {@link ClusterStateDigest}, or null if the cluster could not be loaded
+     */
+    public String loadClusterResources(ClusterInfo clusterInfo) {
         try {
-            ApiClient client = ClientBuilder.standard()
-                    .setAuthentication(authentication)
-                    .setBasePath(clusterInfo.cloudApiHost())
-                    .setVerifyingSsl(false)
-                    .build();
+            ApiClient client = kubernetesClientRegistry.getClient(clusterInfo);
             CoreV1Api coreV1Api = new CoreV1Api(client);
-            loadClusterResources(coreV1Api, clusterInfo);
+            return loadClusterResources(coreV1Api, clusterInfo);
         } catch (RuntimeException | IOException e) {
             Log.error("Can't load resources from cluster " + clusterInfo.name(), e);
+            return null;
         }
     }
 
+    /**
+     * Stops requests of a sync of the cluster that has exceeded its deadline.
+     */
+    public void cancelRequests(ClusterInfo clusterInfo) {
+        kubernetesClientRegistry.cancelCalls(clusterInfo.id());
+    }
+
     //package-private for testing purposes
-    void loadClusterResources(CoreV1Api coreV1Api, ClusterInfo clusterInfo) {
+    String loadClusterResources(CoreV1Api coreV1Api, ClusterInfo clusterInfo) {
         Log.info("Start Loading cluster resources for: " + clusterInfo.name());
+        // all changes of the cluster are collected and written at once, so readers never see a partially synced cluster
+        RedisWriteBatch writeBatch = new RedisWriteBatch();
+        ClusterStateDigest stateDigest = new ClusterStateDigest();
         Cluster cluster = clusterRepository.findByName(clusterInfo.name());
         if (cluster == null) {
             cluster = Cluster.builder().id(clusterInfo.id()).name(clusterInfo.name()).build();
             Log.info("Cluster " + clusterInfo.name() + " not found in db. Creating new one.");
-            clusterRepository.save(cluster);
         }
 
-        //it is required to set links to cluster only if it was saved to db. so need to invoke persist two
-        List<Environment> environments = loadEnvironments(coreV1Api, cluster, clusterInfo);
+        List<Environment> environments = loadEnvironments(coreV1Api, cluster, clusterInfo, writeBatch, stateDigest);
         try {
             V1NodeList execute = coreV1Api.listNode().execute();
             int numberOfNodes = execute.getItems().size();
@@ -94,62 +125,73 @@ void loadClusterResources(CoreV1Api coreV1Api, ClusterInfo clusterInfo) {
             Log.error("Can't load nodes from cluster " + cluster.getName() + ". " + e.getMessage());
         }
         cluster.setEnvironmentIds(environments.stream().map(Environment::getId).collect(Collectors.toList()));
-        clusterRepository.save(cluster);
-        Log.info("Cluster " + clusterInfo.name() + " loaded successfully.");
+        clusterRepository.save(cluster, writeBatch);
+        // an interrupt in the middle of MULTI/EXEC would leave the connection half-used
+        ClusterSyncExecutor.withoutInterrupts(() -> redisBatchWriter.write(writeBatch));
+        Log.info("Cluster " + clusterInfo.name() + " loaded successfully. Redis commands written: " + writeBatch.size());
+        return stateDigest.value();
     }
 
-    private List<Environment> loadEnvironments(CoreV1Api coreV1Api, Cluster cluster, ClusterInfo clusterInfo) {
+    private List<Environment> loadEnvironments(CoreV1Api coreV1Api, Cluster cluster, ClusterInfo clusterInfo, RedisWriteBatch writeBatch,
+                                               ClusterStateDigest stateDigest) {
         Log.info("Start loading environments for cluster " + cluster.getName());
-        CoreV1Api.APIlistNamespaceRequest apilistNamespaceRequest = coreV1Api.listNamespace();
-        Map<String, V1Namespace> k8sNamespaces;
-        try {
-            V1NamespaceList list = apilistNamespaceRequest.execute();
-            k8sNamespaces = list.getItems().stream().collect(Collectors.toMap(v1Namespace -> getNameSafely(v1Namespace.getMetadata()), Function.identity()));
-            cluster.setLastSuccessfulSyncAt(Instant.now());
-        } catch (ApiException e) {
-            k8sNamespaces = new HashMap<>();
-            Log.error("Can't load namespaces from cluster " + cluster.getName() + ". " + e.getMessage());
-        }
+        Map<String, V1Namespace> k8sNamespaces = loadK8sNamespaces(coreV1Api, cluster, clusterInfo);
+        Function<String, Instant> versionsCreationTimes = createVersionsCreationTimeLookup(coreV1Api, cluster);
+        Map<String, Namespace> clusterNamespaces = namespaceRepository.findByClusterId(cluster.getId()).stream()
+                .collect(Collectors.toMap(Namespace::getName, Function.identity(), (first, second) -> first));
+        List<Environment> clusterEnvironments = environmentRepository.findByClusterId(cluster.getId());
+        Map<String, Environment> environmentsById = clusterEnvironments.stream()
+                .collect(Collectors.toMap(Environment::getId, Function.identity()));
+        Map<String, Environment> environmentsByName = clusterEnvironments.stream()
+                .collect(Collectors.toMap(Environment::getName, Function.identity(), (first, second) -> first));
 
-        List<Environment> envs = new ArrayList<>();
+        List<LoadedEnvironment> loadedEnvironments = new ArrayList<>();
         Log.info("Namespaces are loaded for " + cluster.getName() + ". Count is " + k8sNamespaces.size() + ". Environments count = " + clusterInfo.environments().size());
         for (CloudPassportEnvironment cloudPassportEnvironment : clusterInfo.environments()) {
-            List<Environment> envList = environmentRepository.findByName(cloudPassportEnvironment.name());
-            Environment environment = envList.stream()
-                    .filter(env -> cluster.getId().equals(env.getClusterId()))
-                    .findFirst().orElse(null);
+            Environment environment = environmentsByName.get(cloudPassportEnvironment.name());
+            // a copy of the stored state, the repository writes only fields that differ from it
+            Environment previousEnvironment = environment != null ? new Environment(environment) : null;
+            if (environment == null) {
+                // stored state is needed to keep indexes consistent; environments saved before the cluster index was introduced are found here as well
+                previousEnvironment = environmentsById.containsKey(cloudPassportEnvironment.id())
+                        ? environmentsById.get(cloudPassportEnvironment.id())
+                        : environmentRepository.findById(cloudPassportEnvironment.id()).orElse(null);
+                if (previousEnvironment != null && cluster.getId().equals(previousEnvironment.getClusterId())
+                        && cloudPassportEnvironment.name().equals(previousEnvironment.getName())) {
+                    environment = new Environment(previousEnvironment);
+                }
+            }
             Log.info("Start working with env = " + cloudPassportEnvironment.name() + " Cluster=" + cluster.getName() + ". Env exists in db? " + (environment != null));
             if (environment == null) {
                 environment = new Environment(cloudPassportEnvironment.id(), cloudPassportEnvironment.name());
                 environment.setClusterId(cluster.getId());
-                environmentRepository.save(environment);
-                Log.info("env created in db: " + environment.getName());
+                Log.info("env created: " + environment.getName());
             } else {
                 Log.info("environment " + environment.getName() + " exists");
             }
             for (CloudPassportNamespace cloudPassportNamespace : cloudPassportEnvironment.namespaces()) {
                 Log.info("Start working with namespace = " + cloudPassportNamespace.name());
                 V1Namespace v1Namespace = k8sNamespaces.get(cloudPassportNamespace.name());
-                List<Namespace> namespaces = namespaceRepository.findByClusterId(cluster.getId());
-                Namespace namespace = namespaces.stream()
-                        .filter(ns -> cloudPassportNamespace.name().equals(ns.getName()))
-                        .findFirst().orElse(null);
+                Namespace namespace = clusterNamespaces.get(cloudPassportNamespace.name());
+                Namespace previousNamespace = namespace;
 
                 if (namespace == null) {
+                    previousNamespace = namespaceRepository.findByUid(cloudPassportNamespace.id()).orElse(null);
                     namespace = createNamespace(cloudPassportNamespace, cluster, environment);
+                    clusterNamespaces.put(namespace.getName(), namespace);
                 }
                 namespace.setExistsInK8s(v1Namespace != null);
-                namespaceRepository.save(namespace);
+                namespaceRepository.save(namespace, previousNamespace, writeBatch);
+                stateDigest.add("namespace", namespace.getId(), namespace.getName(), namespace.getExistsInK8s());
                 if (!namespace.getExistsInK8s()) {
                     Log.warn("Namespace " + namespace.getName() + " does not exist in k8s. Skipping it.");
                     continue;
                 }
-                V1ConfigMap versionsConfigMap = loadVersionsConfigMap(coreV1Api, cloudPassportNamespace.name());
-                if (versionsConfigMap == null) {
+                Instant configMapCreationTime = versionsCreationTimes.apply(cloudPassportNamespace.name());
+                if (configMapCreationTime == null) {
                     Log.warn("Versions config map not found in namespace " + cloudPassportNamespace.name() + ". Skipping it.");
                     continue;
                 }
-                Instant configMapCreationTime = versionsConfigMap.getMetadata().getCreationTimestamp().toInstant();
                 if (environment.getCleanInstallationDate() == null || environment.getCleanInstallationDate().isBefore(configMapCreationTime)) {
                     Log.info("Setting clean installation date for environment " + environment.getName() + " to " + configMapCreationTime);
                     environment.setCleanInstallationDate(configMapCreationTime);
@@ -157,23 +199,81 @@ private List<Environment> loadEnvironments(CoreV1Api coreV1Api, Cluster cluster,
 
                 Log.info("Namespace " + namespace.getName() + " was loaded successfully.");
             }
-            // Get namespace names from environment's namespace IDs
-            List<String> namespaceNames = new ArrayList<>();
-            if (environment.getNamespaceIds() != null) {
-                for (String nsId : environment.getNamespaceIds()) {
-                    namespaceRepository.findByUid(nsId).ifPresent(ns -> namespaceNames.add(ns.getName()));
-                }
-            }
-            environment.setMonitoringData(monitoringService.loadMonitoringData(clusterInfo.monitoringUrl(), environment.getName(), cluster.getName(), namespaceNames));
-            environment.setDeploymentOperations(achKubernetesAgentService.getDeploymentOperations(clusterInfo.achkaUrl(), namespaceNames));
-            environmentRepository.save(environment);
+            loadedEnvironments.add(new LoadedEnvironment(environment, previousEnvironment));
+        }
 
+        // monitoring and achka are queried once for the whole cluster, so environments are saved after all of them are loaded
+        Map<String, List<String>> namespacesByEnvironment = getNamespaceNames(loadedEnvironments, clusterNamespaces);
+        Map<String, Map<String, DeploymentOperation>> deploymentOperations = achKubernetesAgentService.getDeploymentOperations(clusterInfo.achkaUrl(), namespacesByEnvironment);
+        Map<String, Map<String, Instant>> storedSessions = deploymentOperationRepository.findSessionTimes(
+                loadedEnvironments.stream().map(loaded -> loaded.environment().getId()).toList());
+        Map<String, Map<String, String>> monitoringData = monitoringService.loadMonitoringData(clusterInfo.monitoringUrl(), cluster.getName(), namespacesByEnvironment);
+        List<Environment> envs = new ArrayList<>();
+        for (LoadedEnvironment loaded : loadedEnvironments) {
+            Environment environment = loaded.environment();
+            // only sessions that are not stored yet are written, so the history survives achka being unavailable
+            Map<String, DeploymentOperation> environmentOperations = deploymentOperations.getOrDefault(environment.getName(), Map.of());
+            deploymentOperationRepository.save(environment.getId(), environmentOperations,
+                    storedSessions.getOrDefault(environment.getId(), Map.of()), writeBatch);
+            stateDigest.add("environment", environment.getId(), environment.getName(), environment.getCleanInstallationDate(), environment.getNamespaceIds());
+            environmentOperations.keySet().stream().sorted()
+                    .forEach(sessionId -> stateDigest.add("session", sessionId, environmentOperations.get(sessionId).createdAt()));
+            environment.setMonitoringData(monitoringData.getOrDefault(environment.getName(), Map.of()));
+            environmentRepository.save(environment, loaded.previousEnvironment(), writeBatch);
             envs.add(environment);
             Log.info("Environment " + environment.getName() + " loaded successfully.");
         }
         return envs;
     }
 
+    /**
+     * Resolves names of namespaces of the environments, keyed by environment name. Namespaces of the cluster are taken
+     * from memory because changes of the current sync are not written to Redis yet, the rest are read with one request.
+     */
+    private Map<String, List<String>> getNamespaceNames(List<LoadedEnvironment> loadedEnvironments, Map<String, Namespace> clusterNamespaces) {
+        Map<String, String> clusterNamespaceNames = clusterNamespaces.values().stream()
+                .collect(Collectors.toMap(Namespace::getId, Namespace::getName, (first, second) -> first));
+        List<String> foreignNamespaceIds = loadedEnvironments.stream()
+                .flatMap(loaded -> loaded.environment().getNamespaceIds().stream())
+                .filter(id -> !clusterNamespaceNames.containsKey(id))
+                .distinct()
+                .toList();
+        Map<String, String> foreignNamespaceNames = namespaceRepository.findByUids(foreignNamespaceIds).stream()
+                .collect(Collectors.toMap(Namespace::getId, Namespace::getName, (first, second) -> first));
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        for (LoadedEnvironment loaded : loadedEnvironments) {
+            List<String> namespaceNames = new ArrayList<>();
+            for (String namespaceId : loaded.environment().getNamespaceIds()) {
+                String name = clusterNamespaceNames.getOrDefault(namespaceId, foreignNamespaceNames.get(namespaceId));
+                if (name != null) {
+                    namespaceNames.add(name);
+                }
+            }
+            namespacesByEnvironment.put(loaded.environment().getName(), namespaceNames);
+        }
+        return namespacesByEnvironment;
+    }
+
+    private Map<String, V1Namespace> loadK8sNamespaces(CoreV1Api coreV1Api, Cluster cluster, ClusterInfo clusterInfo) {
+        if (namespaceWatcher.isEnabled()) {
+            Optional<Map<String, V1Namespace>> watchedNamespaces = namespaceWatcher.getNamespaces(clusterInfo);
+            if (watchedNamespaces.isPresent()) {
+                cluster.setLastSuccessfulSyncAt(Instant.now());
+                return watchedNamespaces.get();
+            }
+            Log.warn("Namespace watch is not available for cluster " + cluster.getName() + ". Listing namespaces instead.");
+        }
+        try {
+            V1NamespaceList list = coreV1Api.listNamespace().execute();
+            Map<String, V1Namespace> k8sNamespaces = list.getItems().stream().collect(Collectors.toMap(v1Namespace -> getNameSafely(v1Namespace.getMetadata()), Function.identity()));
+            cluster.setLastSuccessfulSyncAt(Instant.now());
+            return k8sNamespaces;
+        } catch (ApiException e) {
+            Log.error("Can't load namespaces from cluster " + cluster.getName() + ". " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
     private Namespace createNamespace(CloudPassportNamespace cloudPassportNamespace, Cluster cluster, Environment environment) {
         Namespace namespace;
         namespace = new Namespace();
@@ -185,6 +285,48 @@ private Namespace createNamespace(CloudPassportNamespace cloudPassportNamespace,
         return namespace;
     }
 
+    /**
+     * Returns lookup of the versions config map creation time by namespace name.
+     * In cluster-wide mode all versions config maps of the cluster are fetched with one paginated list request,
+     * otherwise (or if the cluster-wide request is rejected) each namespace is queried separately.
+     */
+    private Function<String, Instant> createVersionsCreationTimeLookup(CoreV1Api coreV1Api, Cluster cluster) {
+        if (clusterWideVersionsLookup) {
+            try {
+                Map<String, Instant> creationTimes = loadVersionsCreationTimes(coreV1Api);
+                Log.info("Versions config maps are loaded for cluster " + cluster.getName() + ". Count is " + creationTimes.size());
+                return creationTimes::get;
+            } catch (ApiException e) {
+                Log.warn("Can't list config maps with name=" + versionsConfigMapName + " in all namespaces of cluster " + cluster.getName()
+                        + ". Loading them per namespace. " + e.getMessage());
+            }
+        }
+        return namespaceName -> {
+            V1ConfigMap versionsConfigMap = loadVersionsConfigMap(coreV1Api, namespaceName);
+            return versionsConfigMap == null ? null : versionsConfigMap.getMetadata().getCreationTimestamp().toInstant();
+        };
+    }
+
+    private Map<String, Instant> loadVersionsCreationTimes(CoreV1Api coreV1Api) throws ApiException {
+        Map<String, Instant> creationTimes = new HashMap<>();
+        String continueToken = null;
+        do {
+            V1ConfigMapList configMapList = coreV1Api.listConfigMapForAllNamespaces()
+                    .fieldSelector("metadata.name=" + versionsConfigMapName)
+                    .limit(versionsConfigMapPageSize)
+                    ._continue(continueToken)
+                    .execute();
+            for (V1ConfigMap configMap : configMapList.getItems()) {
+                V1ObjectMeta metadata = configMap.getMetadata();
+                if (metadata != null && metadata.getNamespace() != null && metadata.getCreationTimestamp() != null) {
+                    creationTimes.put(metadata.getNamespace(), metadata.getCreationTimestamp().toInstant());
+                }
+            }
+            continueToken = configMapList.getMetadata() == null ? null : configMapList.getMetadata().getContinue();
+        } while (continueToken != null && !continueToken.isEmpty());
+        return creationTimes;
+    }
+
     private V1ConfigMap loadVersionsConfigMap(CoreV1Api coreV1Api, String namespaceName) {
         CoreV1Api.APIlistNamespacedConfigMapRequest request = coreV1Api.listNamespacedConfigMap(namespaceName).fieldSelector("metadata.name=" + versionsConfigMapName);
         V1ConfigMapList configMapList;
@@ -208,4 +350,6 @@ private String getNameSafely(V1ObjectMeta meta) {
         return meta.getName();
     }
 
+    private record LoadedEnvironment(Environment environment, Environment previousEnvironment) {
+    }
 }
@@ -4,10 +4,14 @@
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -19,20 +23,30 @@
 import org.qubership.colly.db.data.Environment;
 import org.qubership.colly.dto.ApplicationMetadata;
 import org.qubership.colly.dto.ClusterDTO;
+import org.qubership.colly.dto.DeploymentOperationDto;
 import org.qubership.colly.dto.EnvironmentDTO;
 import org.qubership.colly.mapper.ClusterMapper;
 import org.qubership.colly.mapper.EnvironmentMapper;
 import org.qubership.colly.monitoring.MonitoringService;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Path("/colly/v2/operational-service")
 @SecurityRequirement(name = "SecurityScheme")
 public class ClusterResourcesRest {
 
+    static final String SNAPSHOT_VERSION_HEADER = "X-Snapshot-Version";
+    static final String SNAPSHOT_BUILT_AT_HEADER = "X-Snapshot-Built-At";
+    static final String SNAPSHOT_STALE_HEADER = "X-Snapshot-Stale";
+
     private final CollyStorage collyStorage;
+    private final ReadModel readModel;
+    private final DataVersion dataVersion;
     private final SecurityIdentity securityIdentity;
     private final MonitoringService monitoringService;
     private final ClusterMapper clusterMapper;
@@ -41,11 +55,15 @@ public class ClusterResourcesRest {
 
     @Inject
     public ClusterResourcesRest(CollyStorage collyStorage,
+                                ReadModel readModel,
+                                DataVersion dataVersion,
                                 SecurityIdentity securityIdentity,
                                 MonitoringService monitoringService,
                                 ClusterMapper clusterMapper, EnvironmentMapper environmentMapper,
                                 @ConfigProperty(name = "colly.environment-operational-service.cron.schedule") String syncCronSchedule) {
         this.collyStorage = collyStorage;
+        this.readModel = readModel;
+        this.dataVersion = dataVersion;
         this.securityIdentity = securityIdentity;
         this.monitoringService = monitoringService;
         this.clusterMapper = clusterMapper;
@@ -69,6 +87,10 @@ public ClusterResourcesRest(CollyStorage collyStorage,
                             schema = @Schema(implementation = ClusterDTO.class)
                     )
             ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+            ),
             @APIResponse(
                     responseCode = "401",
                     description = "Unauthorized - authentication required",
@@ -90,9 +112,10 @@ public ClusterResourcesRest(CollyStorage collyStorage,
                     )
             )
     })
-    public List<ClusterDTO> getClusters() {
-        List<Cluster> clusters = collyStorage.getClusters();
-        return clusterMapper.toDTOs(clusters);
+    public Response getClusters(@Context Request request) {
+        ReadModelSnapshot snapshot = readModel.current();
+        return withSnapshotHeaders(conditionalGet(request, dataVersion.entityTag(snapshot.version()),
+                () -> Response.ok(snapshot.clusters())), snapshot).build();
     }
 
     @GET
@@ -111,6 +134,10 @@ public List<ClusterDTO> getClusters() {
                             schema = @Schema(implementation = ClusterDTO.class)
                     )
             ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+            ),
             @APIResponse(
                     responseCode = "401",
                     description = "Unauthorized - authentication required",
@@ -142,18 +169,21 @@ public List<ClusterDTO> getClusters() {
                     )
             )
     })
-    public ClusterDTO getClusterById(
+    public Response getClusterById(
             @Parameter(
                     description = "ID of the cluster to retrieve",
                     required = true,
                     example = "995f5292-5725-42b6-ad28-0e8629e0f791"
             )
-            @PathParam("clusterId") String clusterId) {
-        Cluster cluster = collyStorage.getCluster(clusterId);
-        if (cluster == null) {
-            throw new NotFoundException("Cluster with id =" + clusterId + " is not found");
-        }
-        return clusterMapper.toDTO(cluster);
+            @PathParam("clusterId") String clusterId,
+            @Context Request request) {
+        return conditionalGet(request, dataVersion.entityTag(), () -> {
+            Cluster cluster = collyStorage.getCluster(clusterId);
+            if (cluster == null) {
+                throw new NotFoundException("Cluster with id =" + clusterId + " is not found");
+            }
+            return Response.ok(clusterMapper.toDTO(cluster));
+        }).build();
     }
 
     @GET
@@ -172,6 +202,10 @@ public ClusterDTO getClusterById(
                             schema = @Schema(implementation = EnvironmentDTO.class)
                     )
             ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+            ),
             @APIResponse(
                     responseCode = "401",
                     description = "Unauthorized - authentication required",
@@ -193,8 +227,10 @@ public ClusterDTO getClusterById(
                     )
             )
     })
-    public List<EnvironmentDTO> getEnvironments() {
-        return collyStorage.getEnvironments();
+    public Response getEnvironments(@Context Request request) {
+        ReadModelSnapshot snapshot = readModel.current();
+        return withSnapshotHeaders(conditionalGet(request, dataVersion.entityTag(snapshot.version()),
+                () -> Response.ok(snapshot.environments())), snapshot).build();
     }
 
     @GET
@@ -213,6 +249,10 @@ public List<EnvironmentDTO> getEnvironments() {
                             schema = @Schema(implementation = EnvironmentDTO.class)
                     )
             ),
+            @APIResponse(
+                    responseCode = "304",
+                    description = "Not modified - data has not changed since the entity tag sent in If-None-Match"
+            ),
             @APIResponse(
                     responseCode = "401",
                     description = "Unauthorized - authentication required",
@@ -244,19 +284,96 @@ public List<EnvironmentDTO> getEnvironments() {
                     )
             )
     })
-    public EnvironmentDTO getEnvironmentById(
+    public Response getEnvironmentById(
             @Parameter(
                     description = "ID of the environment to retrieve",
                     required = true,
                     example = "96180fe7-f025-465f-bbbf-5e83f301a614"
             )
-            @PathParam("environmentId") String environmentId) {
-        Environment environment = collyStorage.getEnvironment(environmentId);
-        if (environment == null) {
-            throw new NotFoundException("Environment with id =" + environmentId + " is not found");
+            @PathParam("environmentId") String environmentId,
+            @Context Request request) {
+        return conditionalGet(request, dataVersion.entityTag(), () -> {
+            Environment environment = collyStorage.getEnvironment(environmentId);
+            if (environment == null) {
+                throw new NotFoundException("Environment with id =" + environmentId + " is not found");
+            }
+            return Response.ok(environmentMapper.toDTO(environment));
+        }).build();
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("/environments/{environmentId}/deployment-operations")
+    @Operation(
+            summary = "Get deployment history of environment",
+            description = "Retrieves deployment operations of the environment completed within the given time range, newest first. Requires authentication."
+    )
+    @APIResponses({
+            @APIResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved deployment operations",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = DeploymentOperationDto.class, type = SchemaType.ARRAY)
+                    )
+            ),
+            @APIResponse(
+                    responseCode = "400",
+                    description = "Invalid time range or limit"
+            ),
+            @APIResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - authentication required"
+            ),
+            @APIResponse(
+                    responseCode = "404",
+                    description = "Environment not found"
+            )
+    })
+    public List<DeploymentOperationDto> getDeploymentOperations(
+            @Parameter(description = "ID of the environment", required = true, example = "96180fe7-f025-465f-bbbf-5e83f301a614")
+            @PathParam("environmentId") String environmentId,
+            @Parameter(description = "Inclusive lower bound of the completion time in ISO-8601 format", example = "2025-01-01T00:00:00Z")
+            @QueryParam("from") String from,
+            @Parameter(description = "Inclusive upper bound of the completion time in ISO-8601 format", example = "2025-02-01T00:00:00Z")
+            @QueryParam("to") String to,
+            @Parameter(description = "Maximum number of operations to return", example = "20")
+            @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be positive");
         }
+        return collyStorage.getDeploymentOperations(environmentId, parseInstant(from), parseInstant(to), limit).stream()
+                .map(environmentMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * List endpoints are served from the read model snapshot; clients can tell how fresh it is from these headers.
+     */
+    private Response.ResponseBuilder withSnapshotHeaders(Response.ResponseBuilder builder, ReadModelSnapshot snapshot) {
+        return builder.header(SNAPSHOT_VERSION_HEADER, snapshot.version())
+                .header(SNAPSHOT_BUILT_AT_HEADER, snapshot.builtAt().toString())
+                .header(SNAPSHOT_STALE_HEADER, readModel.isStale(snapshot));
+    }
 
-        return environmentMapper.toDTO(environment);
+    /**
+     * Answers with 304 if the client already has the representation tagged with {@code tag}, so the entity is only
+     * loaded and serialized when it may have changed. The tag of a resource must change whenever its data does.
+     */
+    private static Response.ResponseBuilder conditionalGet(Request request, EntityTag tag, Supplier<Response.ResponseBuilder> response) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        return (notModified != null ? notModified : response.get()).tag(tag);
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid time: " + value);
+        }
     }
 
     @POST
@@ -306,10 +423,11 @@ public void syncClustersAndEnvironmentsWithK8s(
                     example = "995f5292-5725-42b6-ad28-0e8629e0f791"
             )
             @QueryParam("clusterId") String clusterId) {
+        // the response is sent once the read model snapshot reflects the sync
         if (clusterId == null || clusterId.isEmpty()) {
-            collyStorage.syncAllClusters();
+            collyStorage.syncAllClusters().toCompletableFuture().join();
         } else {
-            collyStorage.syncCluster(clusterId);
+            collyStorage.syncCluster(clusterId).toCompletableFuture().join();
         }
 
     }
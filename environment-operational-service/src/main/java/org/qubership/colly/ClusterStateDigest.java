@@ -0,0 +1,35 @@
+package org.qubership.colly;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digest of the cluster state that stays the same while nothing changes in the cluster: namespaces, environments
+ * with their namespaces and deployment sessions. Sync times and monitoring values are not part of it.
+ */
+final class ClusterStateDigest {
+
+    private final MessageDigest digest;
+
+    ClusterStateDigest() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void add(Object... values) {
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) '\n');
+    }
+
+    String value() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
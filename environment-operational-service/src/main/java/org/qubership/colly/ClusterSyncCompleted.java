@@ -0,0 +1,13 @@
+package org.qubership.colly;
+
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.util.List;
+
+/**
+ * Fired asynchronously by {@link CollyStorage} when a sync run has written its results.
+ *
+ * @param clusterInfos all clusters of the inventory as fetched for the run, not only the synced ones
+ */
+public record ClusterSyncCompleted(List<ClusterInfo> clusterInfos) {
+}
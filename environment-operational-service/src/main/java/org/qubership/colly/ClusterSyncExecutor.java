@@ -0,0 +1,311 @@
+package org.qubership.colly;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs cluster syncs in parallel. Every cluster gets its own deadline: when it expires, in-flight k8s requests of the
+ * cluster are cancelled and its worker is interrupted; the whole run is bounded by a global budget after which
+ * unfinished syncs are cancelled. The budget grows by the cluster timeout for every wave of clusters that has to wait
+ * for a free worker, so that clusters at the end of the queue are not cancelled before they start.
+ * A cluster is never synced by two workers at once.
+ * In virtual-thread mode every sync runs in its own virtual thread, so a hung cluster does not hold a platform thread,
+ * and interrupting a virtual thread blocked on a socket closes that socket.
+ */
+@ApplicationScoped
+public class ClusterSyncExecutor {
+
+    /**
+     * {@code CANCELLED} is a sync that has not started before the run budget was exhausted.
+     */
+    public enum Outcome {COMPLETED, FAILED, TIMED_OUT, SKIPPED, CANCELLED}
+
+    /**
+     * @param stateDigest digest of the stable cluster state, see {@link ClusterResourcesLoader#loadClusterResources(ClusterInfo)}, set for completed syncs only
+     */
+    public record ClusterSyncResult(String clusterId, String clusterName, Outcome outcome,
+                                    Instant startedAt, Duration duration, String stateDigest) {
+    }
+
+    private static final ThreadLocal<Deadline> CURRENT_DEADLINE = new ThreadLocal<>();
+
+    private final ClusterResourcesLoader clusterResourcesLoader;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Semaphore concurrencyLimit;
+    private final int parallelism;
+    private final Map<String, Semaphore> clusterPermits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-sync-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Duration clusterTimeout;
+    private final Duration runTimeout;
+
+    @Inject
+    public ClusterSyncExecutor(ClusterResourcesLoader clusterResourcesLoader,
+                               MeterRegistry meterRegistry,
+                               @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.thread-pool-size") int threadPoolSize,
+                               @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.virtual-threads.enabled") boolean virtualThreads,
+                               @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.virtual-threads.max-concurrency") int maxConcurrency,
+                               @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.cluster-timeout") Duration clusterTimeout,
+                               @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.run-timeout") Duration runTimeout) {
+        this.clusterResourcesLoader = clusterResourcesLoader;
+        this.meterRegistry = meterRegistry;
+        this.clusterTimeout = clusterTimeout;
+        this.runTimeout = runTimeout;
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cluster-sync-", 0).factory());
+            this.concurrencyLimit = new Semaphore(maxConcurrency);
+            this.parallelism = maxConcurrency;
+        } else {
+            this.executor = Executors.newFixedThreadPool(threadPoolSize);
+            this.concurrencyLimit = null;
+            this.parallelism = threadPoolSize;
+        }
+    }
+
+    /**
+     * Syncs the given clusters in parallel. Clusters that are being synced at the moment are skipped.
+     */
+    public List<ClusterSyncResult> syncAll(List<ClusterInfo> clusterInfos) {
+        Set<String> startedClusterIds = ConcurrentHashMap.newKeySet();
+        List<Callable<ClusterSyncResult>> tasks = clusterInfos.stream()
+                .<Callable<ClusterSyncResult>>map(clusterInfo -> () -> syncExclusively(clusterInfo, false, startedClusterIds))
+                .toList();
+        Duration budget = runBudget(clusterInfos.size());
+        List<Future<ClusterSyncResult>> futures;
+        try {
+            futures = executor.invokeAll(tasks, budget.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.error("Sync of clusters was interrupted");
+            return List.of();
+        }
+
+        List<ClusterSyncResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            ClusterInfo clusterInfo = clusterInfos.get(i);
+            ClusterSyncResult result;
+            try {
+                result = futures.get(i).get();
+            } catch (CancellationException e) {
+                if (!startedClusterIds.contains(clusterInfo.id())) {
+                    Log.warn("Sync of cluster " + clusterInfo.name() + " was not started: run budget of " + budget + " is exhausted");
+                    result = new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.CANCELLED, Instant.now(), Duration.ZERO, null);
+                } else {
+                    Log.error("Sync of cluster " + clusterInfo.name() + " was cancelled: run budget of " + budget + " is exhausted");
+                    result = new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.TIMED_OUT, Instant.now().minus(budget), budget, null);
+                }
+            } catch (ExecutionException e) {
+                Log.error("Sync of cluster " + clusterInfo.name() + " failed", e.getCause());
+                result = new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.FAILED, Instant.now(), Duration.ZERO, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            count(result);
+            results.add(result);
+        }
+        Map<Outcome, Long> outcomes = new EnumMap<>(Outcome.class);
+        results.forEach(result -> outcomes.merge(result.outcome(), 1L, Long::sum));
+        Log.info("Clusters synced: " + outcomes.getOrDefault(Outcome.COMPLETED, 0L) + " completed, "
+                + outcomes.getOrDefault(Outcome.FAILED, 0L) + " failed, "
+                + outcomes.getOrDefault(Outcome.TIMED_OUT, 0L) + " timed out, "
+                + outcomes.getOrDefault(Outcome.SKIPPED, 0L) + " skipped as already running, "
+                + outcomes.getOrDefault(Outcome.CANCELLED, 0L) + " not started");
+        return results;
+    }
+
+    /**
+     * Syncs one cluster in the calling thread, bypassing the queue of the executor.
+     * If the cluster is being synced at the moment, waits for that sync to finish first.
+     */
+    public ClusterSyncResult syncNow(ClusterInfo clusterInfo) {
+        ClusterSyncResult result;
+        try {
+            result = syncExclusively(clusterInfo, true, ConcurrentHashMap.newKeySet());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for running sync of cluster " + clusterInfo.name(), e);
+        } catch (RuntimeException e) {
+            count(new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.FAILED, Instant.now(), Duration.ZERO, null));
+            throw e;
+        }
+        count(result);
+        return result;
+    }
+
+    /**
+     * Runs the action with the interrupt flag cleared. An interrupt of the deadline of the current sync that expires
+     * meanwhile is delivered once the action has finished.
+     */
+    public static void withoutInterrupts(Runnable action) {
+        Deadline deadline = CURRENT_DEADLINE.get();
+        if (deadline != null) {
+            deadline.deferInterrupts();
+        }
+        boolean interrupted = Thread.interrupted();
+        try {
+            action.run();
+        } finally {
+            if (deadline != null) {
+                interrupted |= deadline.allowInterrupts();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * @param startedClusterIds collects ids of clusters whose sync has got a worker
+     */
+    private ClusterSyncResult syncExclusively(ClusterInfo clusterInfo, boolean waitForRunningSync, Set<String> startedClusterIds) throws InterruptedException {
+        Semaphore permit = clusterPermits.computeIfAbsent(clusterInfo.id(), id -> new Semaphore(1));
+        boolean acquired = waitForRunningSync
+                ? permit.tryAcquire(clusterTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                : permit.tryAcquire();
+        if (!acquired) {
+            Log.info("Cluster " + clusterInfo.name() + " is being synced at the moment. Skipping.");
+            return new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.SKIPPED, Instant.now(), Duration.ZERO, null);
+        }
+        try {
+            if (waitForRunningSync || concurrencyLimit == null) {
+                startedClusterIds.add(clusterInfo.id());
+                return syncWithDeadline(clusterInfo);
+            }
+            concurrencyLimit.acquire();
+            try {
+                startedClusterIds.add(clusterInfo.id());
+                return syncWithDeadline(clusterInfo);
+            } finally {
+                concurrencyLimit.release();
+            }
+        } finally {
+            permit.release();
+        }
+    }
+
+    private ClusterSyncResult syncWithDeadline(ClusterInfo clusterInfo) {
+        Deadline deadline = new Deadline(Thread.currentThread(), () -> clusterResourcesLoader.cancelRequests(clusterInfo));
+        ScheduledFuture<?> expiration = watchdog.schedule(deadline::expire, clusterTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        CURRENT_DEADLINE.set(deadline);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        String stateDigest;
+        try {
+            Log.info("Starting to load resources for cluster: " + clusterInfo.name());
+            stateDigest = clusterResourcesLoader.loadClusterResources(clusterInfo);
+        } finally {
+            expiration.cancel(false);
+            deadline.finish();
+            CURRENT_DEADLINE.remove();
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        if (deadline.isExpired()) {
+            Log.error("Loading resources for cluster " + clusterInfo.name() + " exceeded deadline of " + clusterTimeout + " and was interrupted");
+            return new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.TIMED_OUT, startedAt, duration, null);
+        }
+        if (stateDigest == null) {
+            return new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.FAILED, startedAt, duration, null);
+        }
+        Log.info("Completed loading resources for cluster: " + clusterInfo.name() + " in " + duration.toMillis() + " ms");
+        return new ClusterSyncResult(clusterInfo.id(), clusterInfo.name(), Outcome.COMPLETED, startedAt, duration, stateDigest);
+    }
+
+    /**
+     * Run timeout covers the first wave of clusters, every further wave that waits for a free worker adds a cluster timeout.
+     */
+    private Duration runBudget(int clusters) {
+        int waves = Math.max(1, (clusters + parallelism - 1) / parallelism);
+        return runTimeout.plus(clusterTimeout.multipliedBy(waves - 1L));
+    }
+
+    private void count(ClusterSyncResult result) {
+        meterRegistry.counter("colly.cluster.sync", "cluster", result.clusterName(), "outcome", result.outcome().name().toLowerCase()).increment();
+    }
+
+    /**
+     * Cancels requests of the sync and interrupts the worker once the deadline expires, unless the sync has already
+     * finished. The interrupt flag is cleared on finish so that it never leaks into the next task of a pooled thread.
+     */
+    private static final class Deadline {
+        private final Thread worker;
+        private final Runnable cancelRequests;
+        private boolean finished;
+        private boolean expired;
+        private boolean interruptsDeferred;
+
+        Deadline(Thread worker, Runnable cancelRequests) {
+            this.worker = worker;
+            this.cancelRequests = cancelRequests;
+        }
+
+        synchronized void expire() {
+            if (!finished) {
+                expired = true;
+                try {
+                    cancelRequests.run();
+                } catch (RuntimeException e) {
+                    Log.warn("Can't cancel requests of expired sync. " + e.getMessage());
+                }
+                if (!interruptsDeferred) {
+                    worker.interrupt();
+                }
+            }
+        }
+
+        synchronized void deferInterrupts() {
+            interruptsDeferred = true;
+        }
+
+        /**
+         * @return true if the deadline has expired while interrupts were deferred
+         */
+        synchronized boolean allowInterrupts() {
+            interruptsDeferred = false;
+            return expired;
+        }
+
+        synchronized void finish() {
+            finished = true;
+            Thread.interrupted();
+        }
+
+        synchronized boolean isExpired() {
+            return expired;
+        }
+    }
+}
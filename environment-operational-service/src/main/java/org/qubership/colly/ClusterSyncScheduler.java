@@ -0,0 +1,150 @@
+package org.qubership.colly;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.ClusterSyncExecutor.ClusterSyncResult;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decides when each cluster is synced next. A cluster whose state has changed is synced again after the minimal interval;
+ * while its state stays the same, the interval doubles up to the maximal one. Failed syncs back off exponentially.
+ * The interval is never shorter than twice the last sync duration, and is shortened by a random jitter,
+ * so that clusters with the same interval do not hit the cluster apis and Redis at the same moment.
+ */
+@ApplicationScoped
+public class ClusterSyncScheduler {
+
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double jitter;
+    private final Clock clock;
+    private final Map<String, ClusterSyncState> states = new ConcurrentHashMap<>();
+
+    @Inject
+    public ClusterSyncScheduler(@ConfigProperty(name = "colly.environment-operational-service.sync.min-interval") Duration minInterval,
+                                @ConfigProperty(name = "colly.environment-operational-service.sync.max-interval") Duration maxInterval,
+                                @ConfigProperty(name = "colly.environment-operational-service.sync.jitter") double jitter) {
+        this(minInterval, maxInterval, jitter, Clock.systemUTC());
+    }
+
+    //package-private for testing purposes
+    ClusterSyncScheduler(Duration minInterval, Duration maxInterval, double jitter, Clock clock) {
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.jitter = jitter;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns clusters whose next sync is due. Clusters that have never been synced are always due.
+     * State of clusters missing from the given list is dropped.
+     */
+    public List<ClusterInfo> dueClusters(List<ClusterInfo> clusterInfos) {
+        Set<String> clusterIds = clusterInfos.stream().map(ClusterInfo::id).collect(Collectors.toSet());
+        states.keySet().retainAll(clusterIds);
+        Instant now = clock.instant();
+        return clusterInfos.stream()
+                .filter(clusterInfo -> {
+                    ClusterSyncState state = states.get(clusterInfo.id());
+                    return state == null || !state.nextSyncAt().isAfter(now);
+                })
+                .toList();
+    }
+
+    public void record(List<ClusterSyncResult> results) {
+        results.forEach(this::record);
+    }
+
+    public void record(ClusterSyncResult result) {
+        ClusterSyncState state = states.compute(result.clusterId(), (id, previous) -> nextState(previous, result));
+        if (state != null) {
+            Log.debug("Next sync of cluster " + result.clusterName() + " is at " + state.nextSyncAt()
+                    + " (interval " + state.interval() + ", failure streak " + state.failureStreak() + ")");
+        }
+    }
+
+    /**
+     * Makes a cluster that has been synced before due at the next tick, e.g. because one of its namespaces has been
+     * created or deleted.
+     */
+    public void markDue(String clusterId) {
+        states.computeIfPresent(clusterId, (id, state) -> {
+            Instant now = clock.instant();
+            return state.nextSyncAt().isAfter(now)
+                    ? new ClusterSyncState(state.interval(), state.lastDuration(), state.lastChangedAt(), state.stateDigest(), state.failureStreak(), now)
+                    : state;
+        });
+    }
+
+    public Optional<ClusterSyncState> getState(String clusterId) {
+        return Optional.ofNullable(states.get(clusterId));
+    }
+
+    private ClusterSyncState nextState(ClusterSyncState previous, ClusterSyncResult result) {
+        Duration interval;
+        int failureStreak;
+        String stateDigest;
+        Instant lastChangedAt;
+        switch (result.outcome()) {
+            case SKIPPED, CANCELLED -> {
+                // the cluster was not synced, so it stays due
+                return previous;
+            }
+            case COMPLETED -> {
+                boolean changed = previous == null
+                        || previous.failureStreak() > 0
+                        || !Objects.equals(previous.stateDigest(), result.stateDigest());
+                interval = changed ? minInterval : previous.interval().multipliedBy(2);
+                failureStreak = 0;
+                stateDigest = result.stateDigest();
+                lastChangedAt = changed ? result.startedAt() : previous.lastChangedAt();
+            }
+            default -> {
+                failureStreak = previous == null ? 1 : previous.failureStreak() + 1;
+                interval = minInterval.multipliedBy(1L << Math.min(failureStreak, MAX_BACKOFF_EXPONENT));
+                stateDigest = previous == null ? null : previous.stateDigest();
+                lastChangedAt = previous == null ? null : previous.lastChangedAt();
+            }
+        }
+        interval = clamp(max(interval, result.duration().multipliedBy(2)));
+        Duration jittered = interval.minusMillis((long) (interval.toMillis() * jitter * ThreadLocalRandom.current().nextDouble()));
+        return new ClusterSyncState(interval, result.duration(), lastChangedAt, stateDigest, failureStreak,
+                result.startedAt().plus(jittered));
+    }
+
+    private Duration clamp(Duration interval) {
+        return max(minInterval, interval.compareTo(maxInterval) > 0 ? maxInterval : interval);
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+
+    /**
+     * @param interval      interval before the next sync without jitter
+     * @param lastDuration  duration of the last sync
+     * @param lastChangedAt start of the last sync that changed the cluster state
+     * @param stateDigest   digest of the stable cluster state of the last completed sync
+     * @param failureStreak number of failed or timed out syncs in a row
+     * @param nextSyncAt    moment from which the cluster is due for the next sync
+     */
+    public record ClusterSyncState(Duration interval, Duration lastDuration, Instant lastChangedAt, String stateDigest,
+                                   int failureStreak, Instant nextSyncAt) {
+    }
+}
@@ -3,116 +3,196 @@
 import io.quarkus.logging.Log;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.qubership.colly.cloudpassport.CloudPassportEnvironment;
 import org.qubership.colly.cloudpassport.ClusterInfo;
 import org.qubership.colly.db.data.Cluster;
 import org.qubership.colly.db.data.Environment;
+import org.qubership.colly.db.data.DeploymentOperation;
 import org.qubership.colly.db.repository.ClusterRepository;
+import org.qubership.colly.db.repository.DeploymentOperationRepository;
 import org.qubership.colly.db.repository.EnvironmentRepository;
 import org.qubership.colly.dto.EnvironmentDTO;
+import org.qubership.colly.kubernetes.KubernetesClientRegistry;
+import org.qubership.colly.kubernetes.NamespaceWatcher;
 import org.qubership.colly.mapper.EnvironmentMapper;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class CollyStorage {
 
-    private final ClusterResourcesLoader clusterResourcesLoader;
     private final ClusterRepository clusterRepository;
     private final EnvironmentRepository environmentRepository;
-    private final EnvgeneInventoryServiceRest envgeneInventoryServiceRest;
-    private final Executor executor;
+    private final DeploymentOperationRepository deploymentOperationRepository;
+    private final ClusterInfoReplica clusterInfoReplica;
+    private final ClusterSyncExecutor clusterSyncExecutor;
+    private final ClusterSyncScheduler clusterSyncScheduler;
     private final EnvironmentMapper environmentMapper;
+    private final NamespaceWatcher namespaceWatcher;
+    private final KubernetesClientRegistry kubernetesClientRegistry;
+    private final Duration clusterInfosMaxAge;
+    private final Event<ClusterSyncCompleted> syncCompleted;
+    private volatile FetchedClusterInfos fetchedClusterInfos;
 
     @Inject
-    public CollyStorage(ClusterResourcesLoader clusterResourcesLoader,
-                        ClusterRepository clusterRepository,
+    public CollyStorage(ClusterRepository clusterRepository,
                         EnvironmentRepository environmentRepository,
+                        DeploymentOperationRepository deploymentOperationRepository,
                         EnvironmentMapper environmentMapper,
-                        @RestClient EnvgeneInventoryServiceRest envgeneInventoryServiceRest,
-                        @ConfigProperty(name = "colly.environment-operational-service.cluster-resource-loader.thread-pool-size") int threadPoolSize) {
-        this.clusterResourcesLoader = clusterResourcesLoader;
+                        NamespaceWatcher namespaceWatcher,
+                        KubernetesClientRegistry kubernetesClientRegistry,
+                        ClusterSyncExecutor clusterSyncExecutor,
+                        ClusterSyncScheduler clusterSyncScheduler,
+                        ClusterInfoReplica clusterInfoReplica,
+                        @ConfigProperty(name = "colly.environment-operational-service.inventory.cluster-infos.max-age") Duration clusterInfosMaxAge,
+                        Event<ClusterSyncCompleted> syncCompleted) {
         this.clusterRepository = clusterRepository;
         this.environmentRepository = environmentRepository;
-        this.envgeneInventoryServiceRest = envgeneInventoryServiceRest;
-        this.executor = Executors.newFixedThreadPool(threadPoolSize);
+        this.deploymentOperationRepository = deploymentOperationRepository;
+        this.clusterInfoReplica = clusterInfoReplica;
+        this.clusterSyncExecutor = clusterSyncExecutor;
+        this.clusterSyncScheduler = clusterSyncScheduler;
         this.environmentMapper = environmentMapper;
+        this.namespaceWatcher = namespaceWatcher;
+        this.kubernetesClientRegistry = kubernetesClientRegistry;
+        this.clusterInfosMaxAge = clusterInfosMaxAge;
+        this.syncCompleted = syncCompleted;
     }
 
-    @Scheduled(cron = "{colly.environment-operational-service.cron.schedule}")
-    void syncAllClusters() {
-        Log.info("Task for loading resources from clusters has started");
-        Date startTime = new Date();
-        List<ClusterInfo> clusterInfos = envgeneInventoryServiceRest.getClusterInfos();
-        List<String> clusterNames = clusterInfos.stream().map(ClusterInfo::name).toList();
-        Log.info("Cloud passports loaded for clusters: " + clusterNames);
-
-        List<CompletableFuture<Void>> futures = clusterInfos.stream()
-                .map(clusterInfo -> CompletableFuture.runAsync(
-                        () -> {
-                            Log.info("Starting to load resources for cluster: " + clusterInfo.name());
-                            clusterResourcesLoader.loadClusterResources(clusterInfo);
-                            Log.info("Completed loading resources for cluster: " + clusterInfo.name());
-                        }, executor))
-                .toList();
-
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-        try {
-            allFutures.join(); // Wait for all to complete
-        } catch (Exception e) {
-            Log.error("Error occurred while loading cluster resources in parallel", e);
+    /**
+     * Syncs only clusters whose next sync is due according to {@link ClusterSyncScheduler}.
+     * A tick is skipped while the previous one is still running.
+     */
+    @Scheduled(cron = "{colly.environment-operational-service.cron.schedule}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void syncDueClusters() {
+        List<ClusterInfo> clusterInfos = loadClusterInfos();
+        List<ClusterInfo> dueClusters = clusterSyncScheduler.dueClusters(clusterInfos);
+        if (dueClusters.isEmpty()) {
+            Log.debug("No clusters are due for sync");
+            return;
         }
+        syncClusters(dueClusters);
+        syncCompleted.fireAsync(new ClusterSyncCompleted(clusterInfos));
+    }
 
-        Date loadCompleteTime = new Date();
-        long loadingDuration = loadCompleteTime.getTime() - startTime.getTime();
-        Log.info("Task for loading resources from clusters has completed.");
-        Log.info("Loading Duration =" + loadingDuration + " ms");
+    /**
+     * @return completes when observers of {@link ClusterSyncCompleted} have processed the results of the sync
+     */
+    CompletionStage<ClusterSyncCompleted> syncAllClusters() {
+        List<ClusterInfo> clusterInfos = loadClusterInfos();
+        syncClusters(clusterInfos);
+        return syncCompleted.fireAsync(new ClusterSyncCompleted(clusterInfos));
     }
 
-    void syncCluster(String clusterId) {
+    /**
+     * @return completes when observers of {@link ClusterSyncCompleted} have processed the results of the sync
+     */
+    CompletionStage<ClusterSyncCompleted> syncCluster(String clusterId) {
         if (clusterId == null || clusterId.isEmpty()) {
             throw new IllegalArgumentException("Cluster id is null");
         }
-        List<ClusterInfo> clusterInfos = envgeneInventoryServiceRest.getClusterInfos();
+        List<ClusterInfo> clusterInfos = fetchClusterInfos();
         ClusterInfo clusterToSync = clusterInfos.stream().filter(clusterInfo -> clusterId.equals(clusterInfo.id())).findFirst().orElse(null);
         if (clusterToSync == null) {
             throw new NotFoundException("Cannot sync cluster. Not found cluster with id=" + clusterId);
         }
-        clusterResourcesLoader.loadClusterResources(clusterToSync);
+        clusterSyncScheduler.record(clusterSyncExecutor.syncNow(clusterToSync));
+        return syncCompleted.fireAsync(new ClusterSyncCompleted(clusterInfos));
     }
 
-    public List<EnvironmentDTO> getEnvironments() {
-        List<ClusterInfo> clusterInfos = envgeneInventoryServiceRest.getClusterInfos();
+    private List<ClusterInfo> loadClusterInfos() {
+        List<ClusterInfo> clusterInfos = fetchClusterInfos();
+        Set<String> clusterIds = clusterInfos.stream().map(ClusterInfo::id).collect(Collectors.toSet());
+        namespaceWatcher.retainClusters(clusterIds);
+        kubernetesClientRegistry.retainClusters(clusterIds);
+        return clusterInfos;
+    }
+
+    private List<ClusterInfo> fetchClusterInfos() {
+        List<ClusterInfo> clusterInfos = clusterInfoReplica.refresh();
+        fetchedClusterInfos = new FetchedClusterInfos(clusterInfos, System.nanoTime());
+        return clusterInfos;
+    }
+
+    /**
+     * Returns cluster infos fetched by a sync or a previous read if they are younger than {@code inventory.cluster-infos.max-age},
+     * otherwise fetches them from the inventory service.
+     */
+    private List<ClusterInfo> recentClusterInfos() {
+        FetchedClusterInfos fetched = fetchedClusterInfos;
+        if (fetched != null && System.nanoTime() - fetched.fetchedAtNanos() < clusterInfosMaxAge.toNanos()) {
+            return fetched.clusterInfos();
+        }
+        return fetchClusterInfos();
+    }
+
+    private void syncClusters(List<ClusterInfo> clusterInfos) {
+        Log.info("Task for loading resources from clusters has started");
+        Date startTime = new Date();
+        List<String> clusterNames = clusterInfos.stream().map(ClusterInfo::name).toList();
+        Log.info("Clusters to sync: " + clusterNames);
 
-        List<Environment> operationalEnvironments = environmentRepository.findAll();
-        List<EnvironmentDTO> result = new ArrayList<>();
+        clusterSyncScheduler.record(clusterSyncExecutor.syncAll(clusterInfos));
 
+        Date loadCompleteTime = new Date();
+        long loadingDuration = loadCompleteTime.getTime() - startTime.getTime();
+        Log.info("Task for loading resources from clusters has completed.");
+        Log.info("Loading Duration =" + loadingDuration + " ms");
+    }
+
+    public List<EnvironmentDTO> getEnvironments() {
+        return getEnvironments(recentClusterInfos());
+    }
+
+    /**
+     * Maps operational environments that belong to the given inventory clusters.
+     */
+    public List<EnvironmentDTO> getEnvironments(List<ClusterInfo> clusterInfos) {
+        // core fields are enough to match environments, the rest is read only for matched ones
+        Map<EnvironmentKey, Environment> operationalEnvironments = new HashMap<>();
+        for (Environment environment : environmentRepository.findAll(EnvironmentRepository.CORE_FIELDS)) {
+            operationalEnvironments.putIfAbsent(new EnvironmentKey(environment.getClusterId(), environment.getName()), environment);
+        }
+        List<String> matchedIds = new ArrayList<>();
         for (ClusterInfo clusterInfo : clusterInfos) {
             for (CloudPassportEnvironment inventoryEnv : clusterInfo.environments()) {
-                Environment operationalEnv = operationalEnvironments.stream()
-                        .filter(env -> env.getName().equals(inventoryEnv.name()) &&
-                                clusterInfo.id().equals(env.getClusterId()))
-                        .findFirst()
-                        .orElse(null);
+                Environment operationalEnv = operationalEnvironments.get(new EnvironmentKey(clusterInfo.id(), inventoryEnv.name()));
                 if (operationalEnv == null) {
                     Log.error("Inconsistent state: envgene-inventory-storage has environment: " + inventoryEnv.name() + " in cluster: " + clusterInfo.name() + " but environment-operational-service does not have it");
                     continue;
                 }
-                result.add(environmentMapper.toDTO(operationalEnv));
+                matchedIds.add(operationalEnv.getId());
             }
         }
+        Map<String, Environment> environmentsById = environmentRepository.findByIds(matchedIds).stream()
+                .collect(Collectors.toMap(Environment::getId, Function.identity(), (first, second) -> first));
+        Map<String, List<DeploymentOperation>> deploymentOperations = deploymentOperationRepository.findByEnvironmentIds(matchedIds);
+        List<Environment> environments = new ArrayList<>();
+        for (String id : matchedIds) {
+            Environment environment = environmentsById.get(id);
+            if (environment == null) {
+                continue;
+            }
+            environment.setDeploymentOperations(deploymentOperations.get(id));
+            environments.add(environment);
+        }
 
-        return result.stream()
+        return environmentMapper.toDTOs(environments).stream()
                 .sorted(Comparator.comparing((EnvironmentDTO e) -> e.cluster().name() != null ? e.cluster().name() : "")
                         .thenComparing(EnvironmentDTO::name))
                 .toList();
@@ -127,6 +207,26 @@ public Cluster getCluster(String clusterId) {
     }
 
     public Environment getEnvironment(String environmentId) {
-        return environmentRepository.findById(environmentId).orElse(null);
+        Environment environment = environmentRepository.findById(environmentId).orElse(null);
+        if (environment != null) {
+            environment.setDeploymentOperations(deploymentOperationRepository.findByEnvironmentIds(List.of(environmentId)).get(environmentId));
+        }
+        return environment;
+    }
+
+    /**
+     * Returns deployment operations of the environment completed within the given range, newest first.
+     */
+    public List<DeploymentOperation> getDeploymentOperations(String environmentId, Instant from, Instant to, int limit) {
+        if (!environmentRepository.existsById(environmentId)) {
+            throw new NotFoundException("Environment with id =" + environmentId + " is not found");
+        }
+        return deploymentOperationRepository.findByEnvironmentId(environmentId, from, to, limit);
+    }
+
+    private record EnvironmentKey(String clusterId, String name) {
+    }
+
+    private record FetchedClusterInfos(List<ClusterInfo> clusterInfos, long fetchedAtNanos) {
     }
 }
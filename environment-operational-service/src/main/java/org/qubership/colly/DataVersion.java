@@ -0,0 +1,40 @@
+package org.qubership.colly;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation of the data served by the REST API, increased after every sync. Entity tags are built from it
+ * instead of hashing response bodies, so a conditional GET of unchanged data is answered without reading it.
+ * Tags carry an id of this instance because generations start from zero again after a restart. The generation
+ * is not shared between replicas, so a tag of one replica is not recognized by another and gets the full body.
+ */
+@ApplicationScoped
+public class DataVersion {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong generation = new AtomicLong();
+
+    void onSyncCompleted(@ObservesAsync ClusterSyncCompleted event) {
+        generation.incrementAndGet();
+    }
+
+    public long current() {
+        return generation.get();
+    }
+
+    public EntityTag entityTag() {
+        return entityTag(current());
+    }
+
+    /**
+     * @param version generation or any other counter that is increased whenever the tagged resource changes
+     */
+    public EntityTag entityTag(long version) {
+        return new EntityTag(instanceId + "-" + version);
+    }
+}
@@ -5,6 +5,7 @@
 import org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.cloudpassport.ClusterInfoChanges;
 
 import java.util.List;
 
@@ -18,4 +19,9 @@ public interface EnvgeneInventoryServiceRest {
     @Path("/internal/cluster-infos")
     List<ClusterInfo> getClusterInfos();
 
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("/internal/cluster-infos/changes")
+    ClusterInfoChanges getClusterInfoChanges(@QueryParam("since") String since);
+
 }
@@ -0,0 +1,105 @@
+package org.qubership.colly;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.dto.EnvironmentDTO;
+import org.qubership.colly.mapper.ClusterMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves environments and clusters from a snapshot that is rebuilt from Redis and the inventory service when
+ * a sync completes, instead of on every request. The snapshot is built on startup and swapped atomically,
+ * so readers always see a complete one.
+ */
+@ApplicationScoped
+public class ReadModel {
+
+    private final CollyStorage collyStorage;
+    private final ClusterMapper clusterMapper;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final AtomicReference<ReadModelSnapshot> snapshot = new AtomicReference<>();
+
+    @Inject
+    public ReadModel(CollyStorage collyStorage, ClusterMapper clusterMapper,
+                     @ConfigProperty(name = "colly.environment-operational-service.read-model.max-staleness") Duration maxStaleness) {
+        this(collyStorage, clusterMapper, maxStaleness, Clock.systemUTC());
+    }
+
+    //package-private for testing purposes
+    ReadModel(CollyStorage collyStorage, ClusterMapper clusterMapper, Duration maxStaleness, Clock clock) {
+        this.collyStorage = collyStorage;
+        this.clusterMapper = clusterMapper;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            Log.warn("Failed to build read model snapshot on startup, it will be built on first request: " + e.getMessage());
+        }
+    }
+
+    void onSyncCompleted(@ObservesAsync ClusterSyncCompleted event) {
+        try {
+            rebuild(event.clusterInfos());
+        } catch (Exception e) {
+            Log.error("Failed to rebuild read model snapshot after sync, previous snapshot is kept", e);
+        }
+    }
+
+    /**
+     * Returns the current snapshot, building it if none was built yet.
+     */
+    public ReadModelSnapshot current() {
+        ReadModelSnapshot current = snapshot.get();
+        return current != null ? current : buildIfAbsent();
+    }
+
+    /**
+     * @return true if the snapshot is older than {@code read-model.max-staleness}, e.g. because syncs fail
+     */
+    public boolean isStale(ReadModelSnapshot snapshot) {
+        return snapshot.builtAt().plus(maxStaleness).isBefore(clock.instant());
+    }
+
+    /**
+     * Builds a new snapshot and publishes it. Rebuilds are serialized, so a slow rebuild never replaces a newer snapshot.
+     */
+    ReadModelSnapshot rebuild() {
+        return rebuild(null);
+    }
+
+    // requests that find no snapshot wait for the first of them to build it instead of building one each
+    private synchronized ReadModelSnapshot buildIfAbsent() {
+        ReadModelSnapshot current = snapshot.get();
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * @param clusterInfos clusters of the inventory, null to fetch them
+     */
+    private synchronized ReadModelSnapshot rebuild(List<ClusterInfo> clusterInfos) {
+        long started = System.currentTimeMillis();
+        ReadModelSnapshot previous = snapshot.get();
+        List<EnvironmentDTO> environments = clusterInfos != null ? collyStorage.getEnvironments(clusterInfos) : collyStorage.getEnvironments();
+        ReadModelSnapshot rebuilt = new ReadModelSnapshot(previous != null ? previous.version() + 1 : 1, clock.instant(),
+                environments, clusterMapper.toDTOs(collyStorage.getClusters()));
+        snapshot.set(rebuilt);
+        Log.info("Read model snapshot " + rebuilt.version() + " built in " + (System.currentTimeMillis() - started) + " ms: "
+                + rebuilt.environments().size() + " environments, " + rebuilt.clusters().size() + " clusters");
+        return rebuilt;
+    }
+}
@@ -0,0 +1,21 @@
+package org.qubership.colly;
+
+import org.qubership.colly.dto.ClusterDTO;
+import org.qubership.colly.dto.EnvironmentDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable result of mapping all environments and clusters, published by {@link ReadModel} after a sync.
+ *
+ * @param version increases with every published snapshot
+ * @param builtAt time the snapshot was built at
+ */
+public record ReadModelSnapshot(long version, Instant builtAt, List<EnvironmentDTO> environments, List<ClusterDTO> clusters) {
+
+    public ReadModelSnapshot {
+        environments = List.copyOf(environments);
+        clusters = List.copyOf(clusters);
+    }
+}
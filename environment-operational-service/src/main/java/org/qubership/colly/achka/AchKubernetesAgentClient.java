@@ -8,12 +8,14 @@
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+import java.io.Closeable;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 @Path("/v2/public")
 @RegisterRestClient(configKey = "achka-api")
-public interface AchKubernetesAgentClient {
+public interface AchKubernetesAgentClient extends Closeable {
 
     @GET
     @Path("/versions")
@@ -21,6 +23,15 @@ public interface AchKubernetesAgentClient {
     AchkaResponse versions(@QueryParam("namespace") List<String> namespaces,
                            @QueryParam("group_by") String groupBy);
 
+    /**
+     * Same as {@link #versions} but returns the response body as is, so it can be parsed as a stream.
+     */
+    @GET
+    @Path("/versions")
+    @Produces(MediaType.APPLICATION_JSON)
+    InputStream versionsStream(@QueryParam("namespace") List<String> namespaces,
+                               @QueryParam("group_by") String groupBy);
+
     record AchkaResponse(
             @JsonProperty("versions")
             Map<String, List<ApplicationsVersion>> deploymentSessionIdToApplicationVersions) {
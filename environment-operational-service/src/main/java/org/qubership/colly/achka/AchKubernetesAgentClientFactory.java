@@ -1,14 +1,41 @@
 package org.qubership.colly.achka;
 
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps one {@link AchKubernetesAgentClient} per achka url, so connections to the agent are reused between syncs.
+ */
 @ApplicationScoped
 public class AchKubernetesAgentClientFactory {
 
+    private final Map<String, AchKubernetesAgentClient> clients = new ConcurrentHashMap<>();
+
     public AchKubernetesAgentClient create(String achkaUrl) {
+        return clients.computeIfAbsent(achkaUrl, this::createClient);
+    }
+
+    @PreDestroy
+    void closeAll() {
+        clients.forEach((achkaUrl, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                Log.warn("Unable to close achka client for " + achkaUrl, e);
+            }
+        });
+        clients.clear();
+    }
+
+    private AchKubernetesAgentClient createClient(String achkaUrl) {
+        Log.info("Achka client created for " + achkaUrl);
         return RestClientBuilder.newBuilder()
                 .baseUri(URI.create(achkaUrl))
                 .build(AchKubernetesAgentClient.class);
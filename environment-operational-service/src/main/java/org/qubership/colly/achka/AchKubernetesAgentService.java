@@ -1,5 +1,7 @@
 package org.qubership.colly.achka;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -10,90 +12,181 @@
 import org.qubership.colly.db.data.DeploymentOperation;
 import org.qubership.colly.db.data.DeploymentStatus;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import static org.apache.commons.lang3.compare.ComparableUtils.max;
 
 @ApplicationScoped
 public class AchKubernetesAgentService {
 
+    private static final String GROUP_BY_SESSION = "deployment_session_id";
+
     private final AchKubernetesAgentClientFactory clientFactory;
     private final Pattern productPattern;
     private final Pattern projectPattern;
+    private final boolean batchEnabled;
+    private final int batchMaxNamespaces;
+    private final boolean streamingEnabled;
+    private final JsonFactory jsonFactory;
+    private final Duration recheckInterval;
+    // achka urls that have not reported namespaces, with System.nanoTime() of the check
+    private final Map<String, Long> namespacesNotReportedAt = new ConcurrentHashMap<>();
 
 
     @Inject
-    public AchKubernetesAgentService(AchKubernetesAgentClientFactory clientFactory,
+    public AchKubernetesAgentService(AchKubernetesAgentClientFactory clientFactory, ObjectMapper objectMapper,
                                      @ConfigProperty(name = "colly.environment-operational-service.sd.product.pattern") String sdProductPattern,
-                                     @ConfigProperty(name = "colly.environment-operational-service.sd.project.pattern") String sdProjectPattern) {
+                                     @ConfigProperty(name = "colly.environment-operational-service.sd.project.pattern") String sdProjectPattern,
+                                     @ConfigProperty(name = "colly.environment-operational-service.achka-batch.enabled") boolean batchEnabled,
+                                     @ConfigProperty(name = "colly.environment-operational-service.achka-batch.max-namespaces") int batchMaxNamespaces,
+                                     @ConfigProperty(name = "colly.environment-operational-service.achka-batch.recheck-interval") Duration recheckInterval,
+                                     @ConfigProperty(name = "colly.environment-operational-service.achka-streaming.enabled") boolean streamingEnabled) {
         this.clientFactory = clientFactory;
         this.productPattern = Pattern.compile(sdProductPattern);
         this.projectPattern = Pattern.compile(sdProjectPattern);
+        this.batchEnabled = batchEnabled;
+        this.batchMaxNamespaces = batchMaxNamespaces;
+        this.recheckInterval = recheckInterval;
+        this.streamingEnabled = streamingEnabled;
+        this.jsonFactory = objectMapper.getFactory();
     }
 
     public List<DeploymentOperation> getDeploymentOperations(String achkaUrl, List<String> namespaceNames) {
-        List<DeploymentOperation> deploymentOperations = new ArrayList<>();
-        AchKubernetesAgentClient.AchkaResponse achkaResponse;
+        return new ArrayList<>(getDeploymentOperationsBySession(achkaUrl, namespaceNames).values());
+    }
+
+    /**
+     * Loads deployment operations of all environments of a cluster. Namespaces of the cluster are requested from achka
+     * in one call per {@code max-namespaces} namespaces and deployment sessions are divided among environments by namespace.
+     * If achka does not report namespaces of application versions, environments are requested one by one, and this achka
+     * is requested per environment until {@code achka-batch.recheck-interval} passes. Sessions of chunks that could not be loaded are missing from the result.
+     *
+     * @param namespacesByEnvironment names of namespaces of each environment, keyed by environment name
+     * @return deployment operations keyed by environment name and then by deployment session id
+     */
+    public Map<String, Map<String, DeploymentOperation>> getDeploymentOperations(String achkaUrl, Map<String, List<String>> namespacesByEnvironment) {
+        Map<String, Map<String, DeploymentOperation>> result = new HashMap<>();
+        if (!batchEnabled || namespacesByEnvironment.size() <= 1 || !reportsNamespaces(achkaUrl)) {
+            namespacesByEnvironment.forEach((environmentName, namespaceNames) ->
+                    result.put(environmentName, getDeploymentOperationsBySession(achkaUrl, namespaceNames)));
+            return result;
+        }
+        List<String> namespaceNames = new ArrayList<>(namespacesByEnvironment.values().stream()
+                .flatMap(List::stream)
+                .collect(LinkedHashSet::new, LinkedHashSet::add, LinkedHashSet::addAll));
+        DeploymentSessions sessions = new DeploymentSessions();
+        List<List<String>> failedChunks = new ArrayList<>();
+        int chunks = 0;
+        for (int from = 0; from < namespaceNames.size(); from += batchMaxNamespaces, chunks++) {
+            List<String> chunk = namespaceNames.subList(from, Math.min(from + batchMaxNamespaces, namespaceNames.size()));
+            DeploymentSessions chunkSessions = loadSessions(achkaUrl, chunk);
+            if (chunkSessions == null) {
+                failedChunks.add(chunk);
+            } else {
+                sessions.addAll(chunkSessions);
+            }
+        }
+        if (failedChunks.size() == chunks) {
+            return result;
+        }
+        if (!failedChunks.isEmpty()) {
+            Log.errorf("Deployment operations of namespaces %s are not loaded from achka %s", failedChunks, achkaUrl);
+        }
+        if (!sessions.namespacesReported()) {
+            Log.warnf("Achka %s does not report namespaces of application versions. Loading deployment operations per environment", achkaUrl);
+            namespacesNotReportedAt.put(achkaUrl, System.nanoTime());
+            namespacesByEnvironment.forEach((environmentName, environmentNamespaces) ->
+                    result.put(environmentName, getDeploymentOperationsBySession(achkaUrl, environmentNamespaces)));
+            return result;
+        }
+        namespacesByEnvironment.forEach((environmentName, environmentNamespaces) ->
+                result.put(environmentName, toDeploymentOperations(sessions.forNamespaces(new HashSet<>(environmentNamespaces)))));
+        Log.infof("Deployment operations are loaded from achka %s for %d environments with %d requests",
+                achkaUrl, namespacesByEnvironment.size(), chunks);
+        return result;
+    }
+
+    private boolean reportsNamespaces(String achkaUrl) {
+        Long notReportedAt = namespacesNotReportedAt.get(achkaUrl);
+        if (notReportedAt == null) {
+            return true;
+        }
+        if (System.nanoTime() - notReportedAt < recheckInterval.toNanos()) {
+            return false;
+        }
+        // the agent may have been upgraded meanwhile
+        namespacesNotReportedAt.remove(achkaUrl, notReportedAt);
+        return true;
+    }
+
+    private Map<String, DeploymentOperation> getDeploymentOperationsBySession(String achkaUrl, List<String> namespaceNames) {
+        DeploymentSessions sessions = loadSessions(achkaUrl, namespaceNames);
+        return sessions == null ? new LinkedHashMap<>() : toDeploymentOperations(sessions.forNamespaces(null));
+    }
+
+    /**
+     * In streaming mode the response is aggregated while it is parsed, otherwise it is bound to {@link AchKubernetesAgentClient.AchkaResponse} first.
+     *
+     * @return deployment sessions of the namespaces, or null if achka could not be queried
+     */
+    private DeploymentSessions loadSessions(String achkaUrl, List<String> namespaceNames) {
         try {
             AchKubernetesAgentClient achkaClient = clientFactory.create(achkaUrl);
-            achkaResponse = achkaClient.versions(namespaceNames, "deployment_session_id");
+            if (streamingEnabled) {
+                try (InputStream response = achkaClient.versionsStream(namespaceNames, GROUP_BY_SESSION)) {
+                    if (response == null) {
+                        Log.warnf("Achka %s returned null for namespaces: %s", achkaUrl, namespaceNames);
+                        return null;
+                    }
+                    return DeploymentSessions.parse(response, jsonFactory);
+                }
+            }
+            AchKubernetesAgentClient.AchkaResponse achkaResponse = achkaClient.versions(namespaceNames, GROUP_BY_SESSION);
+            if (achkaResponse == null) {
+                Log.warnf("Achka %s returned null for namespaces: %s", achkaUrl, namespaceNames);
+                return null;
+            }
+            return DeploymentSessions.of(achkaResponse);
         } catch (Exception e) {
             Log.errorf(e, "Unable to load data from achka: %s and namespaceNames: %s", achkaUrl, namespaceNames);
-            return deploymentOperations;
+            return null;
         }
-        if (achkaResponse == null) {
-            Log.warnf("Achka %s returned null for namespaces: %s", achkaUrl, namespaceNames);
-            return deploymentOperations;
-        }
-        for (Map.Entry<String, List<ApplicationsVersion>> entry : achkaResponse.deploymentSessionIdToApplicationVersions().entrySet()) {
-            if (entry.getKey().equals("None")) {
-                Log.error("Invalid deployment session id: " + entry);
-                continue;
-            }
-            List<ApplicationsVersion> applicationsVersions = entry.getValue();
-
-            Instant completedAt = Instant.MIN;
-            List<DeploymentItem> deploymentItems = new ArrayList<>();
-            Map<String, List<ApplicationsVersion>> sdToApplications = applicationsVersions.stream()
-                    .filter(appVer -> appVer.source() != null)
-                    .collect(Collectors.groupingBy(ApplicationsVersion::source));
-            for (Map.Entry<String, List<ApplicationsVersion>> sdNameToAppVers : sdToApplications.entrySet()) {
-                List<ApplicationsVersion> sdApplicationsVersions = sdNameToAppVers.getValue();
-                if (sdApplicationsVersions.isEmpty()) {
-                    Log.warn("No applications versions found for SD: " + sdNameToAppVers.getKey());
-                    continue;
-                }
+    }
 
-                ApplicationsVersion latest = sdApplicationsVersions.stream()
-                        .max(Comparator.comparing(appVer -> Instant.ofEpochMilli(Long.parseLong(appVer.deployDate()))))
-                        .orElseThrow();
-                completedAt = max(completedAt, Instant.ofEpochMilli(Long.parseLong(latest.deployDate())));
-                long failedApps = sdApplicationsVersions.stream().filter(appVer -> appVer.deployStatus().equals("FAILED")).count();
-                DeploymentStatus status = failedApps > 0 ? DeploymentStatus.FAILED : DeploymentStatus.SUCCESS;
-                DeploymentItemType type = calculateSdType(sdNameToAppVers);
-                deploymentItems.add(new DeploymentItem(sdNameToAppVers.getKey(), status, type));
+    private Map<String, DeploymentOperation> toDeploymentOperations(Map<String, Map<String, DeploymentSessions.SdState>> sessions) {
+        Map<String, DeploymentOperation> deploymentOperations = new LinkedHashMap<>();
+        Map<String, DeploymentItemType> sdTypes = new HashMap<>();
+        sessions.forEach((sessionId, sds) -> {
+            long completedAt = Long.MIN_VALUE;
+            List<DeploymentItem> deploymentItems = new ArrayList<>(sds.size());
+            for (Map.Entry<String, DeploymentSessions.SdState> sd : sds.entrySet()) {
+                completedAt = Math.max(completedAt, sd.getValue().lastDeployDate());
+                DeploymentStatus status = sd.getValue().failed() ? DeploymentStatus.FAILED : DeploymentStatus.SUCCESS;
+                deploymentItems.add(new DeploymentItem(sd.getKey(), status, sdTypes.computeIfAbsent(sd.getKey(), this::calculateSdType)));
             }
-            if (!deploymentItems.isEmpty())
-                deploymentOperations.add(new DeploymentOperation(completedAt, deploymentItems));
-        }
+            deploymentOperations.put(sessionId, new DeploymentOperation(Instant.ofEpochMilli(completedAt), deploymentItems));
+        });
         return deploymentOperations;
     }
 
-    private @NotNull DeploymentItemType calculateSdType(Map.Entry<String, List<ApplicationsVersion>> sdNameToAppVers) {
+    private @NotNull DeploymentItemType calculateSdType(String sdName) {
         DeploymentItemType type;
 
-        if (productPattern.matcher(sdNameToAppVers.getKey()).find()) {
+        if (productPattern.matcher(sdName).find()) {
             type = DeploymentItemType.PRODUCT;
-        } else if (projectPattern.matcher(sdNameToAppVers.getKey()).find()) {
+        } else if (projectPattern.matcher(sdName).find()) {
             type = DeploymentItemType.PROJECT;
         } else {
-            Log.warn("SD name " + sdNameToAppVers.getKey() + " does not match neither product nor project pattern, defaulting to UNKNOWN");
+            Log.warn("SD name " + sdName + " does not match neither product nor project pattern, defaulting to UNKNOWN");
             type = DeploymentItemType.UNKNOWN;
         }
         return type;
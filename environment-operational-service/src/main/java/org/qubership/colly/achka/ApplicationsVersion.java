@@ -12,6 +12,12 @@ public record ApplicationsVersion(
         @JsonProperty("deploy_date")
         String deployDate,
         @JsonProperty("ticket_id")
-        String ticketId
+        String ticketId,
+        @JsonProperty("namespace")
+        String namespace
 ) {
+
+    public ApplicationsVersion(String source, String deployStatus, String deployDate, String ticketId) {
+        this(source, deployStatus, deployDate, ticketId, null);
+    }
 }
@@ -0,0 +1,203 @@
+package org.qubership.colly.achka;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.quarkus.logging.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Application versions of the achka versions response aggregated per deployment session, namespace and SD.
+ * Only the latest deploy date and the number of failed applications are kept for every SD,
+ * so the response can be parsed as a stream without keeping its application versions in memory.
+ */
+final class DeploymentSessions {
+
+    static final String INVALID_SESSION_ID = "None";
+    private static final String FAILED_STATUS = "FAILED";
+
+    // session id -> namespace -> SD name -> state, sessions in the order of the response
+    private final Map<String, Map<String, Map<String, SdState>>> sessions = new LinkedHashMap<>();
+    private boolean namespacesReported = true;
+
+    /**
+     * Aggregates a response that was bound to {@link AchKubernetesAgentClient.AchkaResponse}.
+     */
+    static DeploymentSessions of(AchKubernetesAgentClient.AchkaResponse response) {
+        DeploymentSessions deploymentSessions = new DeploymentSessions();
+        if (response.deploymentSessionIdToApplicationVersions() == null) {
+            return deploymentSessions;
+        }
+        response.deploymentSessionIdToApplicationVersions().forEach((sessionId, applicationsVersions) -> {
+            if (deploymentSessions.skipInvalidSession(sessionId)) {
+                return;
+            }
+            for (ApplicationsVersion appVer : applicationsVersions) {
+                if (appVer.deployDate() != null) {
+                    deploymentSessions.add(sessionId, appVer.namespace(), appVer.source(), appVer.deployStatus(), Long.parseLong(appVer.deployDate()));
+                }
+            }
+        });
+        return deploymentSessions;
+    }
+
+    /**
+     * Aggregates the response in one pass over its tokens. Fields other than {@code source}, {@code deploy_status},
+     * {@code deploy_date} and {@code namespace} are skipped without being read into objects.
+     */
+    static DeploymentSessions parse(InputStream response, JsonFactory jsonFactory) throws IOException {
+        DeploymentSessions deploymentSessions = new DeploymentSessions();
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Achka response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("versions".equals(field) && value == JsonToken.START_OBJECT) {
+                    deploymentSessions.parseSessions(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return deploymentSessions;
+    }
+
+    void addAll(DeploymentSessions other) {
+        other.sessions.forEach((sessionId, namespaces) -> namespaces.forEach((namespace, sds) -> {
+            Map<String, SdState> target = sessions.computeIfAbsent(sessionId, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(namespace, key -> new HashMap<>());
+            sds.forEach((sdName, state) -> target.computeIfAbsent(sdName, key -> new SdState()).merge(state));
+        }));
+        namespacesReported &= other.namespacesReported;
+    }
+
+    /**
+     * @return false if some application version has no namespace, so sessions can't be divided among environments
+     */
+    boolean namespacesReported() {
+        return namespacesReported;
+    }
+
+    /**
+     * Combines states of SDs deployed to the given namespaces.
+     *
+     * @param namespaceNames namespaces to take into account, null for all namespaces
+     * @return state of every SD keyed by session id and SD name; sessions without SDs in the namespaces are omitted
+     */
+    Map<String, Map<String, SdState>> forNamespaces(Collection<String> namespaceNames) {
+        Map<String, Map<String, SdState>> result = new LinkedHashMap<>();
+        sessions.forEach((sessionId, namespaces) -> {
+            Map<String, SdState> sds = new HashMap<>();
+            namespaces.forEach((namespace, namespaceSds) -> {
+                if (namespaceNames == null || namespaceNames.contains(namespace)) {
+                    namespaceSds.forEach((sdName, state) -> sds.computeIfAbsent(sdName, key -> new SdState()).merge(state));
+                }
+            });
+            if (!sds.isEmpty()) {
+                result.put(sessionId, sds);
+            }
+        });
+        return result;
+    }
+
+    private void parseSessions(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String sessionId = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.START_ARRAY || skipInvalidSession(sessionId)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                parseApplicationVersion(parser, sessionId);
+            }
+        }
+    }
+
+    private void parseApplicationVersion(JsonParser parser, String sessionId) throws IOException {
+        String source = null;
+        String deployStatus = null;
+        String namespace = null;
+        long deployDate = 0;
+        boolean hasDeployDate = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "source" -> source = parser.getValueAsString();
+                case "deploy_status" -> deployStatus = parser.getValueAsString();
+                case "namespace" -> namespace = parser.getValueAsString();
+                case "deploy_date" -> {
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        deployDate = parser.getLongValue();
+                        hasDeployDate = true;
+                    } else if (value == JsonToken.VALUE_STRING) {
+                        deployDate = Long.parseLong(parser.getText());
+                        hasDeployDate = true;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (hasDeployDate) {
+            add(sessionId, namespace, source, deployStatus, deployDate);
+        }
+    }
+
+    private boolean skipInvalidSession(String sessionId) {
+        if (INVALID_SESSION_ID.equals(sessionId)) {
+            Log.error("Invalid deployment session id: " + sessionId);
+            return true;
+        }
+        return false;
+    }
+
+    private void add(String sessionId, String namespace, String source, String deployStatus, long deployDate) {
+        if (source == null) {
+            return;
+        }
+        if (namespace == null) {
+            namespacesReported = false;
+        }
+        sessions.computeIfAbsent(sessionId, key -> new LinkedHashMap<>())
+                .computeIfAbsent(namespace, key -> new HashMap<>())
+                .computeIfAbsent(source, key -> new SdState())
+                .add(deployDate, FAILED_STATUS.equals(deployStatus));
+    }
+
+    /**
+     * Latest deploy date and number of failed applications of one SD.
+     */
+    static final class SdState {
+        private long lastDeployDate = Long.MIN_VALUE;
+        private int failedApplications;
+
+        long lastDeployDate() {
+            return lastDeployDate;
+        }
+
+        boolean failed() {
+            return failedApplications > 0;
+        }
+
+        private void add(long deployDate, boolean failed) {
+            lastDeployDate = Math.max(lastDeployDate, deployDate);
+            if (failed) {
+                failedApplications++;
+            }
+        }
+
+        private void merge(SdState other) {
+            lastDeployDate = Math.max(lastDeployDate, other.lastDeployDate);
+            failedApplications += other.failedApplications;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.qubership.colly.cloudpassport;
+
+import java.util.List;
+
+/**
+ * Clusters changed in the inventory since the version sent with the request.
+ *
+ * @param version  version to send with the next request
+ * @param full     true if {@code clusters} holds all clusters and replaces the ones received before
+ */
+public record ClusterInfoChanges(String version, boolean full, List<ClusterInfo> clusters, List<String> deletedClusterIds) {
+}
@@ -1,5 +1,6 @@
 package org.qubership.colly.db.data;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -7,6 +8,7 @@
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +22,8 @@ public class Environment {
     private Instant cleanInstallationDate;
     private String clusterId;
     private Map<String, String> monitoringData;
+    // stored separately by DeploymentOperationRepository, filled in on read
+    @JsonIgnore
     private List<DeploymentOperation> deploymentOperations;
     private List<String> namespaceIds;
 
@@ -29,6 +33,19 @@ public Environment(String id, String name) {
         this.namespaceIds = new ArrayList<>();
     }
 
+    /**
+     * Copies the environment, e.g. to keep its stored state while the copy is being changed.
+     */
+    public Environment(Environment other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.cleanInstallationDate = other.cleanInstallationDate;
+        this.clusterId = other.clusterId;
+        this.monitoringData = other.monitoringData != null ? new HashMap<>(other.monitoringData) : null;
+        this.deploymentOperations = other.deploymentOperations != null ? new ArrayList<>(other.deploymentOperations) : null;
+        this.namespaceIds = other.namespaceIds != null ? new ArrayList<>(other.namespaceIds) : null;
+    }
+
     public List<String> getNamespaceIds() {
         return namespaceIds != null ? Collections.unmodifiableList(namespaceIds) : Collections.emptyList();
     }
@@ -37,7 +54,9 @@ public void addNamespaceId(String namespaceId) {
         if (this.namespaceIds == null) {
             this.namespaceIds = new ArrayList<>();
         }
-        this.namespaceIds.add(namespaceId);
+        if (!this.namespaceIds.contains(namespaceId)) {
+            this.namespaceIds.add(namespaceId);
+        }
     }
 
     public List<DeploymentOperation> getDeploymentOperations() {
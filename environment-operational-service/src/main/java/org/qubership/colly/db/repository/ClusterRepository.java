@@ -4,14 +4,13 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.hash.HashCommands;
-import io.quarkus.redis.datasource.keys.KeyCommands;
 import io.quarkus.redis.datasource.value.ValueCommands;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.qubership.colly.db.data.Cluster;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ClusterRepository {
@@ -22,32 +21,37 @@ public class ClusterRepository {
     RedisDataSource redisDataSource;
     @Inject
     ObjectMapper objectMapper;
+    @Inject
+    RedisBulkReader bulkReader;
+    @Inject
+    RedisBatchWriter batchWriter;
 
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
     }
 
-    private KeyCommands<String> keyCommands() {
-        return redisDataSource.key(String.class);
-    }
-
     private ValueCommands<String, String> valueCommands() {
         return redisDataSource.value(String.class, String.class);
     }
 
 
     public Cluster save(Cluster cluster) {
-        try {
-            String key = CLUSTER_KEY_PREFIX + cluster.getId();
-            String json = objectMapper.writeValueAsString(cluster);
-            hashCommands().hset(key, "data", json);
+        RedisWriteBatch batch = new RedisWriteBatch();
+        save(cluster, batch);
+        batchWriter.write(batch);
+        return cluster;
+    }
 
-            String nameIndexKey = CLUSTER_NAME_INDEX_PREFIX + cluster.getName();
-            valueCommands().set(nameIndexKey, cluster.getId());
-            return cluster;
+    /**
+     * Adds writes of the cluster and its name index entry to the batch.
+     */
+    public void save(Cluster cluster, RedisWriteBatch batch) {
+        try {
+            batch.hset(CLUSTER_KEY_PREFIX + cluster.getId(), "data", objectMapper.writeValueAsString(cluster));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize cluster", e);
         }
+        batch.set(CLUSTER_NAME_INDEX_PREFIX + cluster.getName(), cluster.getId());
     }
 
     public Cluster findByName(String name) {
@@ -65,23 +69,19 @@ public Cluster findByName(String name) {
 
     public List<Cluster> findAll() {
         try {
-            List<String> keys = keyCommands().keys(CLUSTER_KEY_PREFIX + "*");
-            return keys.stream()
-                    .map(key -> hashCommands().hget(key, "data"))
-                    .filter(json -> json != null)
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Cluster.class);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException("Failed to deserialize cluster", e);
-                        }
-                    })
-                    .collect(Collectors.toList());
+            return bulkReader.readAll(CLUSTER_KEY_PREFIX, Cluster.class);
         } catch (Exception e) {
             throw new RuntimeException("Failed to find all clusters", e);
         }
     }
 
+    /**
+     * Loads clusters with given ids in pipelined batches. Ids of missing clusters are skipped.
+     */
+    public List<Cluster> findByIds(Collection<String> ids) {
+        return bulkReader.readByIds(CLUSTER_KEY_PREFIX, ids, Cluster.class);
+    }
+
     public Cluster findById(String id) {
         try {
             String key = CLUSTER_KEY_PREFIX + id;
@@ -0,0 +1,226 @@
+package org.qubership.colly.db.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.db.data.DeploymentOperation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Deployment history of environments. Every environment has a sorted set of deployment session ids scored by
+ * the completion time of the session and a hash with the operation of every session, so the history is
+ * deduplicated by session id and can be read by time range without loading the whole environment.
+ */
+@ApplicationScoped
+public class DeploymentOperationRepository {
+
+    private static final String OPERATIONS_KEY_PREFIX = "operations:deployment-operations:by-environment:";
+    private static final String OPERATION_DATA_KEY_PREFIX = "operations:deployment-operations:data:";
+
+    private final Redis redis;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxCount;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    @Inject
+    public DeploymentOperationRepository(Redis redis, ObjectMapper objectMapper,
+                                         @ConfigProperty(name = "colly.environment-operational-service.redis.bulk-read.batch-size") int batchSize,
+                                         @ConfigProperty(name = "colly.environment-operational-service.deployment-operations.max-count") int maxCount,
+                                         @ConfigProperty(name = "colly.environment-operational-service.deployment-operations.max-age") Duration maxAge) {
+        this(redis, objectMapper, batchSize, maxCount, maxAge, Clock.systemUTC());
+    }
+
+    //package-private for testing purposes
+    DeploymentOperationRepository(Redis redis, ObjectMapper objectMapper, int batchSize, int maxCount, Duration maxAge, Clock clock) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxCount = maxCount;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /**
+     * Loads ids and completion times of stored sessions of the given environments with pipelined requests.
+     *
+     * @return completion time of every stored session keyed by environment id and session id
+     */
+    public Map<String, Map<String, Instant>> findSessionTimes(Collection<String> environmentIds) {
+        List<String> ids = List.copyOf(environmentIds);
+        List<Response> responses = batch(ids, id -> Request.cmd(Command.ZRANGE).arg(OPERATIONS_KEY_PREFIX + id).arg(0).arg(-1).arg("WITHSCORES"));
+        Map<String, Map<String, Instant>> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            result.put(ids.get(i), toSessionTimes(responses.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Adds writes of new or changed sessions of the environment to the batch and drops sessions beyond the retention.
+     * Sessions that are already stored with the same completion time are not written again.
+     *
+     * @param operations   deployment operations reported for the environment, keyed by session id
+     * @param storedSessions completion times of sessions already stored for the environment, see {@link #findSessionTimes}
+     */
+    public void save(String environmentId, Map<String, DeploymentOperation> operations, Map<String, Instant> storedSessions, RedisWriteBatch batch) {
+        Map<String, Instant> sessions = new HashMap<>(storedSessions);
+        operations.forEach((sessionId, operation) -> sessions.put(sessionId, operation.createdAt()));
+        Set<String> retainedSessions = retain(sessions);
+        String operationsKey = OPERATIONS_KEY_PREFIX + environmentId;
+        String dataKey = OPERATION_DATA_KEY_PREFIX + environmentId;
+        operations.forEach((sessionId, operation) -> {
+            if (!retainedSessions.contains(sessionId) || operation.createdAt().equals(storedSessions.get(sessionId))) {
+                return;
+            }
+            batch.zadd(operationsKey, operation.createdAt().toEpochMilli(), sessionId);
+            batch.hset(dataKey, sessionId, serialize(operation));
+        });
+        storedSessions.keySet().stream()
+                .filter(sessionId -> !retainedSessions.contains(sessionId))
+                .sorted()
+                .forEach(sessionId -> {
+                    batch.zrem(operationsKey, sessionId);
+                    batch.hdel(dataKey, sessionId);
+                });
+    }
+
+    public void delete(String environmentId, RedisWriteBatch batch) {
+        batch.del(OPERATIONS_KEY_PREFIX + environmentId);
+        batch.del(OPERATION_DATA_KEY_PREFIX + environmentId);
+    }
+
+    /**
+     * Loads deployment operations of the environment completed within the given range, newest first.
+     *
+     * @param from  inclusive lower bound of the completion time, null for no bound
+     * @param to    inclusive upper bound of the completion time, null for no bound
+     * @param limit maximum number of operations to return
+     */
+    public List<DeploymentOperation> findByEnvironmentId(String environmentId, Instant from, Instant to, int limit) {
+        Response sessionIds = redis.sendAndAwait(Request.cmd(Command.ZREVRANGEBYSCORE).arg(OPERATIONS_KEY_PREFIX + environmentId)
+                .arg(to == null ? "+inf" : Long.toString(to.toEpochMilli()))
+                .arg(from == null ? "-inf" : Long.toString(from.toEpochMilli()))
+                .arg("LIMIT").arg(0).arg(limit));
+        return findOperations(List.of(environmentId), List.of(toStrings(sessionIds))).get(environmentId);
+    }
+
+    /**
+     * Loads all stored deployment operations of the given environments with pipelined requests, newest first.
+     *
+     * @return deployment operations keyed by environment id
+     */
+    public Map<String, List<DeploymentOperation>> findByEnvironmentIds(Collection<String> environmentIds) {
+        List<String> ids = List.copyOf(environmentIds);
+        List<List<String>> sessionIds = batch(ids, id -> Request.cmd(Command.ZREVRANGE).arg(OPERATIONS_KEY_PREFIX + id).arg(0).arg(-1)).stream()
+                .map(DeploymentOperationRepository::toStrings)
+                .toList();
+        return findOperations(ids, sessionIds);
+    }
+
+    private Map<String, List<DeploymentOperation>> findOperations(List<String> environmentIds, List<List<String>> sessionIds) {
+        List<Integer> withSessions = new ArrayList<>();
+        for (int i = 0; i < environmentIds.size(); i++) {
+            if (!sessionIds.get(i).isEmpty()) {
+                withSessions.add(i);
+            }
+        }
+        List<Response> responses = batch(withSessions, i -> {
+            Request request = Request.cmd(Command.HMGET).arg(OPERATION_DATA_KEY_PREFIX + environmentIds.get(i));
+            sessionIds.get(i).forEach(request::arg);
+            return request;
+        });
+        Map<String, List<DeploymentOperation>> result = new HashMap<>();
+        environmentIds.forEach(id -> result.put(id, List.of()));
+        for (int i = 0; i < withSessions.size(); i++) {
+            result.put(environmentIds.get(withSessions.get(i)), toStrings(responses.get(i)).stream()
+                    .filter(Objects::nonNull)
+                    .map(this::deserialize)
+                    .toList());
+        }
+        return result;
+    }
+
+    /**
+     * @return ids of sessions that are within {@code max-age} (if set) and among the {@code max-count} newest ones
+     */
+    private Set<String> retain(Map<String, Instant> sessions) {
+        Instant oldest = maxAge.isZero() ? Instant.MIN : clock.instant().minus(maxAge);
+        return sessions.entrySet().stream()
+                .filter(session -> !session.getValue().isBefore(oldest))
+                .sorted(Map.Entry.<String, Instant>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxCount)
+                .map(Map.Entry::getKey)
+                .collect(HashSet::new, HashSet::add, HashSet::addAll);
+    }
+
+    private <T> List<Response> batch(List<T> items, Function<T, Request> toRequest) {
+        List<Response> responses = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += batchSize) {
+            responses.addAll(redis.batchAndAwait(items.subList(from, Math.min(from + batchSize, items.size())).stream().map(toRequest).toList()));
+        }
+        return responses;
+    }
+
+    // RESP2 returns scores as a flat list of member, score pairs, RESP3 as a list of [member, score] arrays
+    private static Map<String, Instant> toSessionTimes(Response response) {
+        Map<String, Instant> sessionTimes = new LinkedHashMap<>();
+        if (response == null) {
+            return sessionTimes;
+        }
+        for (int i = 0; i < response.size(); i++) {
+            Response item = response.get(i);
+            if (item.type() == ResponseType.MULTI) {
+                sessionTimes.put(item.get(0).toString(), Instant.ofEpochMilli((long) item.get(1).toDouble().doubleValue()));
+            } else {
+                sessionTimes.put(item.toString(), Instant.ofEpochMilli((long) Double.parseDouble(response.get(++i).toString())));
+            }
+        }
+        return sessionTimes;
+    }
+
+    private static List<String> toStrings(Response response) {
+        List<String> values = new ArrayList<>();
+        if (response != null) {
+            response.forEach(item -> values.add(item == null ? null : item.toString()));
+        }
+        return values;
+    }
+
+    private String serialize(DeploymentOperation operation) {
+        try {
+            return objectMapper.writeValueAsString(operation);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize deployment operation", e);
+        }
+    }
+
+    private DeploymentOperation deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, DeploymentOperation.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize deployment operation", e);
+        }
+    }
+}
@@ -1,82 +1,265 @@
 package org.qubership.colly.db.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.hash.HashCommands;
-import io.quarkus.redis.datasource.keys.KeyCommands;
+import io.quarkus.redis.datasource.set.SetCommands;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.qubership.colly.db.data.Environment;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+/**
+ * Environments are stored in hashes with core fields, monitoring data and namespace ids in separate hash fields,
+ * so a sync rewrites only the parts that changed and reads can skip the parts a response does not need.
+ * Deployment history is stored separately by {@link DeploymentOperationRepository}.
+ */
 @ApplicationScoped
 public class EnvironmentRepository {
 
+    /**
+     * Parts of the environment that can be read on demand. Core fields are always read.
+     */
+    public enum Field {
+        MONITORING_DATA("monitoringData"),
+        NAMESPACE_IDS("namespaceIds");
+
+        private final String hashField;
+
+        Field(String hashField) {
+            this.hashField = hashField;
+        }
+    }
+
+    public static final Set<Field> ALL_FIELDS = EnumSet.allOf(Field.class);
+    public static final Set<Field> CORE_FIELDS = EnumSet.noneOf(Field.class);
+
     private static final String ENVIRONMENT_KEY_PREFIX = "operations:environment:";
+    private static final String CLUSTER_ENVIRONMENTS_INDEX_PREFIX = "operations:idx:environments:by-cluster:";
+    private static final String CLUSTER_ENVIRONMENT_NAMES_INDEX_PREFIX = "operations:idx:environments:by-cluster-and-name:";
+    private static final String NAME_ENVIRONMENTS_INDEX_PREFIX = "operations:idx:environments:by-name:";
+    private static final String CORE_FIELD = "data";
+    private static final TypeReference<Map<String, String>> MONITORING_DATA_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> NAMESPACE_IDS_TYPE = new TypeReference<>() {
+    };
     @Inject
     RedisDataSource redisDataSource;
     @Inject
+    RedisBulkReader bulkReader;
+    @Inject
+    RedisBatchWriter batchWriter;
+    @Inject
     ObjectMapper objectMapper;
+    @Inject
+    DeploymentOperationRepository deploymentOperationRepository;
 
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
     }
 
-    private KeyCommands<String> keyCommands() {
-        return redisDataSource.key(String.class);
+    private SetCommands<String, String> setCommands() {
+        return redisDataSource.set(String.class, String.class);
     }
 
     public Environment save(Environment environment) {
-        try {
-            String key = ENVIRONMENT_KEY_PREFIX + environment.getId();
-            String json = objectMapper.writeValueAsString(environment);
-            hashCommands().hset(key, "data", json);
-            return environment;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize environment", e);
+        RedisWriteBatch batch = new RedisWriteBatch();
+        save(environment, findById(environment.getId()).orElse(null), batch);
+        batchWriter.write(batch);
+        return environment;
+    }
+
+    /**
+     * Adds writes of the environment and its index entries to the batch. Only hash fields that differ from the
+     * previously stored state are written. The previously stored state is also required to drop stale index entries
+     * if the environment was renamed or moved to another cluster, so it must be read with {@link #ALL_FIELDS}
+     * and must not be the same instance as the environment.
+     */
+    public void save(Environment environment, Environment previous, RedisWriteBatch batch) {
+        String key = ENVIRONMENT_KEY_PREFIX + environment.getId();
+        String core = serialize(EnvironmentCore.of(environment));
+        boolean coreChanged = previous == null || !core.equals(serialize(EnvironmentCore.of(previous)));
+        if (coreChanged) {
+            batch.hset(key, CORE_FIELD, core);
+        }
+        writeField(batch, key, Field.MONITORING_DATA, environment.getMonitoringData(),
+                previous == null || !Objects.equals(environment.getMonitoringData(), previous.getMonitoringData()), coreChanged);
+        writeField(batch, key, Field.NAMESPACE_IDS, environment.getNamespaceIds(),
+                previous == null || !environment.getNamespaceIds().equals(previous.getNamespaceIds()), coreChanged);
+        if (previous != null) {
+            removeFromIndexes(batch, previous, environment);
+        }
+        if (environment.getName() != null) {
+            batch.sadd(NAME_ENVIRONMENTS_INDEX_PREFIX + environment.getName(), environment.getId());
+        }
+        if (environment.getClusterId() != null) {
+            batch.sadd(CLUSTER_ENVIRONMENTS_INDEX_PREFIX + environment.getClusterId(), environment.getId());
+            if (environment.getName() != null) {
+                batch.hset(CLUSTER_ENVIRONMENT_NAMES_INDEX_PREFIX + environment.getClusterId(), environment.getName(), environment.getId());
+            }
         }
     }
 
+    public void deleteById(String id) {
+        findById(id).ifPresent(environment -> {
+            RedisWriteBatch batch = new RedisWriteBatch();
+            batch.del(ENVIRONMENT_KEY_PREFIX + id);
+            deploymentOperationRepository.delete(id, batch);
+            removeFromIndexes(batch, environment, null);
+            batchWriter.write(batch);
+        });
+    }
+
     public Optional<Environment> findById(String id) {
+        return findById(id, ALL_FIELDS);
+    }
+
+    public Optional<Environment> findById(String id, Set<Field> fields) {
+        List<String> hashFields = hashFields(fields);
+        Map<String, String> values = hashCommands().hmget(ENVIRONMENT_KEY_PREFIX + id, hashFields.toArray(String[]::new));
+        return Optional.ofNullable(toEnvironment(hashFields.stream().map(values::get).toList(), fields));
+    }
+
+    public boolean existsById(String id) {
+        return redisDataSource.key(String.class).exists(ENVIRONMENT_KEY_PREFIX + id);
+    }
+
+    /**
+     * Loads environments with given ids in pipelined batches. Ids of missing environments are skipped.
+     */
+    public List<Environment> findByIds(Collection<String> ids) {
+        return findByIds(ids, ALL_FIELDS);
+    }
+
+    public List<Environment> findByIds(Collection<String> ids, Set<Field> fields) {
+        return bulkReader.readByIds(ENVIRONMENT_KEY_PREFIX, ids, hashFields(fields), values -> toEnvironment(values, fields), Environment.class);
+    }
+
+    public List<Environment> findAll() {
+        return findAll(ALL_FIELDS);
+    }
+
+    public List<Environment> findAll(Set<Field> fields) {
+        try {
+            return bulkReader.readAll(ENVIRONMENT_KEY_PREFIX, hashFields(fields), values -> toEnvironment(values, fields), Environment.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to find all environments", e);
+        }
+    }
+
+    public List<Environment> findByName(String name) {
+        return findByIds(setCommands().smembers(NAME_ENVIRONMENTS_INDEX_PREFIX + name));
+    }
+
+    public List<Environment> findByClusterId(String clusterId) {
+        if (clusterId == null) {
+            return List.of();
+        }
+        return findByIds(setCommands().smembers(CLUSTER_ENVIRONMENTS_INDEX_PREFIX + clusterId));
+    }
+
+    public Optional<Environment> findByClusterIdAndName(String clusterId, String name) {
+        if (clusterId == null) {
+            return Optional.empty();
+        }
+        String id = hashCommands().hget(CLUSTER_ENVIRONMENT_NAMES_INDEX_PREFIX + clusterId, name);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return findById(id);
+    }
+
+    private void removeFromIndexes(RedisWriteBatch batch, Environment environment, Environment replacement) {
+        String name = replacement != null ? replacement.getName() : null;
+        String clusterId = replacement != null ? replacement.getClusterId() : null;
+        if (environment.getName() != null && !environment.getName().equals(name)) {
+            batch.srem(NAME_ENVIRONMENTS_INDEX_PREFIX + environment.getName(), environment.getId());
+        }
+        if (environment.getClusterId() == null) {
+            return;
+        }
+        if (!environment.getClusterId().equals(clusterId)) {
+            batch.srem(CLUSTER_ENVIRONMENTS_INDEX_PREFIX + environment.getClusterId(), environment.getId());
+        }
+        if (environment.getName() != null && !(Objects.equals(environment.getClusterId(), clusterId) && environment.getName().equals(name))) {
+            batch.hdel(CLUSTER_ENVIRONMENT_NAMES_INDEX_PREFIX + environment.getClusterId(), environment.getName());
+        }
+    }
+
+    /**
+     * Environments written before the fields were split keep all parts in the core field only, so fields that are not
+     * stored yet are added when the core field is rewritten.
+     */
+    private void writeField(RedisWriteBatch batch, String key, Field field, Object value, boolean changed, boolean coreChanged) {
+        if (changed) {
+            batch.hset(key, field.hashField, serialize(value));
+        } else if (coreChanged) {
+            batch.hsetnx(key, field.hashField, serialize(value));
+        }
+    }
+
+    private static List<String> hashFields(Set<Field> fields) {
+        List<String> hashFields = new ArrayList<>();
+        hashFields.add(CORE_FIELD);
+        fields.stream().sorted().forEach(field -> hashFields.add(field.hashField));
+        return hashFields;
+    }
+
+    /**
+     * @param values values of {@link #hashFields} in the same order
+     */
+    private Environment toEnvironment(List<String> values, Set<Field> fields) {
+        if (values.getFirst() == null) {
+            return null;
+        }
         try {
-            String key = ENVIRONMENT_KEY_PREFIX + id;
-            String json = hashCommands().hget(key, "data");
-            if (json == null) {
-                return Optional.empty();
+            // legacy hashes keep monitoring data and namespace ids in the core field, split fields take precedence
+            Environment environment = objectMapper.readValue(values.getFirst(), Environment.class);
+            int index = 1;
+            for (Field field : fields.stream().sorted().toList()) {
+                String value = values.get(index++);
+                if (value == null) {
+                    continue;
+                }
+                switch (field) {
+                    case MONITORING_DATA -> environment.setMonitoringData(objectMapper.readValue(value, MONITORING_DATA_TYPE));
+                    case NAMESPACE_IDS -> environment.setNamespaceIds(new ArrayList<>(objectMapper.readValue(value, NAMESPACE_IDS_TYPE)));
+                }
+            }
+            if (!fields.contains(Field.MONITORING_DATA)) {
+                environment.setMonitoringData(null);
             }
-            Environment environment = objectMapper.readValue(json, Environment.class);
-            return Optional.of(environment);
+            if (!fields.contains(Field.NAMESPACE_IDS)) {
+                environment.setNamespaceIds(null);
+            }
+            return environment;
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to deserialize environment", e);
         }
     }
 
-    public List<Environment> findAll() {
+    private String serialize(Object value) {
         try {
-            List<String> keys = keyCommands().keys(ENVIRONMENT_KEY_PREFIX + "*");
-            return keys.stream()
-                    .map(key -> hashCommands().hget(key, "data"))
-                    .filter(json -> json != null)
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Environment.class);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException("Failed to deserialize environment", e);
-                        }
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to find all environments", e);
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize environment", e);
         }
     }
 
-    public List<Environment> findByName(String name) {
-        return findAll().stream()
-                .filter(env -> name.equals(env.getName()))
-                .collect(Collectors.toList());
+    private record EnvironmentCore(String id, String name, Instant cleanInstallationDate, String clusterId) {
+        static EnvironmentCore of(Environment environment) {
+            return new EnvironmentCore(environment.getId(), environment.getName(), environment.getCleanInstallationDate(), environment.getClusterId());
+        }
     }
 }
@@ -4,15 +4,14 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.hash.HashCommands;
-import io.quarkus.redis.datasource.keys.KeyCommands;
+import io.quarkus.redis.datasource.set.SetCommands;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.qubership.colly.db.data.Namespace;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class NamespaceRepository {
@@ -20,28 +19,62 @@ public class NamespaceRepository {
     @Inject
     RedisDataSource redisDataSource;
 
+    @Inject
+    RedisBulkReader bulkReader;
+
+    @Inject
+    RedisBatchWriter batchWriter;
+
     @Inject
     ObjectMapper objectMapper;
 
     private static final String NAMESPACE_KEY_PREFIX = "operations:namespace:";
+    private static final String CLUSTER_NAMESPACES_INDEX_PREFIX = "operations:idx:namespaces:by-cluster:";
+    private static final String ENVIRONMENT_NAMESPACES_INDEX_PREFIX = "operations:idx:namespaces:by-environment:";
 
     private HashCommands<String, String, String> hashCommands() {
         return redisDataSource.hash(String.class, String.class, String.class);
     }
 
-    private KeyCommands<String> keyCommands() {
-        return redisDataSource.key(String.class);
+    private SetCommands<String, String> setCommands() {
+        return redisDataSource.set(String.class, String.class);
     }
 
     public Namespace save(Namespace namespace) {
+        RedisWriteBatch batch = new RedisWriteBatch();
+        save(namespace, findByUid(namespace.getId()).orElse(null), batch);
+        batchWriter.write(batch);
+        return namespace;
+    }
+
+    /**
+     * Adds writes of the namespace and its index entries to the batch.
+     * The previously stored state is required to move the namespace between indexes if it was reassigned.
+     */
+    public void save(Namespace namespace, Namespace previous, RedisWriteBatch batch) {
         try {
-            String key = NAMESPACE_KEY_PREFIX + namespace.getId();
-            String json = objectMapper.writeValueAsString(namespace);
-            hashCommands().hset(key, "data", json);
-            return namespace;
+            batch.hset(NAMESPACE_KEY_PREFIX + namespace.getId(), "data", objectMapper.writeValueAsString(namespace));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize namespace", e);
         }
+        if (previous != null) {
+            removeFromIndexes(batch, previous, namespace);
+        }
+        if (namespace.getClusterId() != null) {
+            batch.sadd(CLUSTER_NAMESPACES_INDEX_PREFIX + namespace.getClusterId(), namespace.getId());
+        }
+        if (namespace.getEnvironmentId() != null) {
+            batch.sadd(ENVIRONMENT_NAMESPACES_INDEX_PREFIX + namespace.getEnvironmentId(), namespace.getId());
+        }
+    }
+
+    public void deleteByUid(String uid) {
+        findByUid(uid).ifPresent(namespace -> {
+            RedisWriteBatch batch = new RedisWriteBatch();
+            batch.del(NAMESPACE_KEY_PREFIX + uid);
+            removeFromIndexes(batch, namespace, null);
+            batchWriter.write(batch);
+        });
     }
 
     public Optional<Namespace> findByUid(String uid) {
@@ -58,20 +91,16 @@ public Optional<Namespace> findByUid(String uid) {
         }
     }
 
+    /**
+     * Loads namespaces with given ids in pipelined batches. Ids of missing namespaces are skipped.
+     */
+    public List<Namespace> findByUids(Collection<String> uids) {
+        return bulkReader.readByIds(NAMESPACE_KEY_PREFIX, uids, Namespace.class);
+    }
+
     public List<Namespace> findAll() {
         try {
-            List<String> keys = keyCommands().keys(NAMESPACE_KEY_PREFIX + "*");
-            return keys.stream()
-                    .map(key -> hashCommands().hget(key, "data"))
-                    .filter(Objects::nonNull)
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, Namespace.class);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException("Failed to deserialize namespace", e);
-                        }
-                    })
-                    .collect(Collectors.toList());
+            return bulkReader.readAll(NAMESPACE_KEY_PREFIX, Namespace.class);
         } catch (Exception e) {
             throw new RuntimeException("Failed to find all namespaces", e);
         }
@@ -79,14 +108,27 @@ public List<Namespace> findAll() {
 
 
     public List<Namespace> findByClusterId(String clusterId) {
-        return findAll().stream()
-                .filter(ns -> clusterId.equals(ns.getClusterId()))
-                .collect(Collectors.toList());
+        if (clusterId == null) {
+            return List.of();
+        }
+        return findByUids(setCommands().smembers(CLUSTER_NAMESPACES_INDEX_PREFIX + clusterId));
     }
 
     public List<Namespace> findByEnvironmentId(String environmentId) {
-        return findAll().stream()
-                .filter(ns -> environmentId.equals(ns.getEnvironmentId()))
-                .collect(Collectors.toList());
+        if (environmentId == null) {
+            return List.of();
+        }
+        return findByUids(setCommands().smembers(ENVIRONMENT_NAMESPACES_INDEX_PREFIX + environmentId));
+    }
+
+    private void removeFromIndexes(RedisWriteBatch batch, Namespace namespace, Namespace replacement) {
+        String clusterId = replacement != null ? replacement.getClusterId() : null;
+        if (namespace.getClusterId() != null && !namespace.getClusterId().equals(clusterId)) {
+            batch.srem(CLUSTER_NAMESPACES_INDEX_PREFIX + namespace.getClusterId(), namespace.getId());
+        }
+        String environmentId = replacement != null ? replacement.getEnvironmentId() : null;
+        if (namespace.getEnvironmentId() != null && !namespace.getEnvironmentId().equals(environmentId)) {
+            batch.srem(ENVIRONMENT_NAMESPACES_INDEX_PREFIX + namespace.getEnvironmentId(), namespace.getId());
+        }
     }
 }
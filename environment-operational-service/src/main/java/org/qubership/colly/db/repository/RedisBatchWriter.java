@@ -0,0 +1,73 @@
+package org.qubership.colly.db.repository;
+
+import io.quarkus.logging.Log;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisConnection;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Sends a {@link RedisWriteBatch} as pipelined chunks. In transactional mode all chunks are sent over one connection
+ * inside MULTI/EXEC, so readers see either none or all of the batch.
+ */
+@ApplicationScoped
+public class RedisBatchWriter {
+
+    private final Redis redis;
+    private final int chunkSize;
+    private final boolean transactional;
+
+    @Inject
+    public RedisBatchWriter(Redis redis,
+                            @ConfigProperty(name = "colly.environment-operational-service.redis.write.batch-size") int chunkSize,
+                            @ConfigProperty(name = "colly.environment-operational-service.redis.write.transactional") boolean transactional) {
+        this.redis = redis;
+        this.chunkSize = chunkSize;
+        this.transactional = transactional;
+    }
+
+    public void write(RedisWriteBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Request> requests = batch.requests();
+        if (!transactional) {
+            for (int from = 0; from < requests.size(); from += chunkSize) {
+                redis.batchAndAwait(requests.subList(from, Math.min(from + chunkSize, requests.size())));
+            }
+            return;
+        }
+        RedisConnection connection = redis.connectAndAwait();
+        try {
+            connection.sendAndAwait(Request.cmd(Command.MULTI));
+            try {
+                for (int from = 0; from < requests.size(); from += chunkSize) {
+                    connection.batchAndAwait(requests.subList(from, Math.min(from + chunkSize, requests.size())));
+                }
+            } catch (RuntimeException e) {
+                discard(connection);
+                throw e;
+            }
+            Response result = connection.sendAndAwait(Request.cmd(Command.EXEC));
+            if (result == null) {
+                throw new IllegalStateException("Redis transaction with " + requests.size() + " commands was aborted");
+            }
+        } finally {
+            connection.closeAndAwait();
+        }
+    }
+
+    private void discard(RedisConnection connection) {
+        try {
+            connection.sendAndAwait(Request.cmd(Command.DISCARD));
+        } catch (RuntimeException e) {
+            Log.warn("Can't discard Redis transaction. " + e.getMessage());
+        }
+    }
+}
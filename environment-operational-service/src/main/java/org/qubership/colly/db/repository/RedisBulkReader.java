@@ -0,0 +1,135 @@
+package org.qubership.colly.db.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyScanArgs;
+import io.quarkus.redis.datasource.keys.KeyScanCursor;
+import io.quarkus.redis.datasource.keys.RedisValueType;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Common bulk-read path of the repositories. Keys are listed with a cursor-based SCAN instead of KEYS,
+ * entities are fetched with pipelined HMGET batches and deserialized in parallel.
+ */
+@ApplicationScoped
+public class RedisBulkReader {
+
+    private static final String DATA_FIELD = "data";
+
+    private final RedisDataSource redisDataSource;
+    private final Redis redis;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Inject
+    public RedisBulkReader(RedisDataSource redisDataSource, Redis redis, ObjectMapper objectMapper,
+                           @ConfigProperty(name = "colly.environment-operational-service.redis.bulk-read.batch-size") int batchSize) {
+        this.redisDataSource = redisDataSource;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads all entities stored in hashes with the given key prefix.
+     */
+    public <T> List<T> readAll(String keyPrefix, Class<T> type) {
+        return read(scanKeys(keyPrefix), List.of(DATA_FIELD), values -> deserialize(values.getFirst(), type), type);
+    }
+
+    /**
+     * Reads entities with the given ids. Ids of missing entities are skipped, the order of found ones is kept.
+     */
+    public <T> List<T> readByIds(String keyPrefix, Collection<String> ids, Class<T> type) {
+        return read(ids.stream().map(id -> keyPrefix + id).toList(), List.of(DATA_FIELD), values -> deserialize(values.getFirst(), type), type);
+    }
+
+    /**
+     * Reads the given fields of all hashes with the given key prefix with pipelined HMGET batches.
+     *
+     * @param toEntity builds an entity from the values of the fields in the requested order, returns null to skip the hash
+     */
+    public <T> List<T> readAll(String keyPrefix, List<String> fields, Function<List<String>, T> toEntity, Class<T> type) {
+        return read(scanKeys(keyPrefix), fields, toEntity, type);
+    }
+
+    /**
+     * Reads the given fields of hashes with the given ids, see {@link #readAll(String, List, Function, Class)}.
+     */
+    public <T> List<T> readByIds(String keyPrefix, Collection<String> ids, List<String> fields, Function<List<String>, T> toEntity, Class<T> type) {
+        return read(ids.stream().map(id -> keyPrefix + id).toList(), fields, toEntity, type);
+    }
+
+    List<String> scanKeys(String keyPrefix) {
+        KeyScanCursor<String> cursor = redisDataSource.key(String.class)
+                .scan(new KeyScanArgs().match(keyPrefix + "*").count(batchSize).type(RedisValueType.HASH));
+        // SCAN may return a key more than once
+        Set<String> keys = new LinkedHashSet<>();
+        while (cursor.hasNext()) {
+            keys.addAll(cursor.next());
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private <T> List<T> read(List<String> keys, List<String> fields, Function<List<String>, T> toEntity, Class<T> type) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<List<String>> values = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<Request> requests = keys.subList(from, Math.min(from + batchSize, keys.size())).stream()
+                    .map(key -> {
+                        Request request = Request.cmd(Command.HMGET).arg(key);
+                        fields.forEach(request::arg);
+                        return request;
+                    })
+                    .toList();
+            for (Response response : redis.batchAndAwait(requests)) {
+                values.add(toStrings(response, fields.size()));
+            }
+        }
+        Log.debug("Read " + keys.size() + " keys of " + type.getSimpleName() + " in " + (keys.size() + batchSize - 1) / batchSize + " batches");
+        return IntStream.range(0, values.size())
+                .parallel()
+                .mapToObj(i -> toEntity.apply(values.get(i)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static List<String> toStrings(Response response, int size) {
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Response value = response == null ? null : response.get(i);
+            values.add(value == null ? null : value.toString());
+        }
+        return values;
+    }
+
+    private <T> T deserialize(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.qubership.colly.db.repository;
+
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects entity and index mutations so that they can be sent to Redis together by {@link RedisBatchWriter}.
+ * Not thread-safe: a batch is meant to be filled by a single sync run.
+ */
+public class RedisWriteBatch {
+
+    private final List<Request> requests = new ArrayList<>();
+
+    void hset(String key, String field, String value) {
+        add(Command.HSET, key, field, value);
+    }
+
+    void hsetnx(String key, String field, String value) {
+        add(Command.HSETNX, key, field, value);
+    }
+
+    void hdel(String key, String field) {
+        add(Command.HDEL, key, field);
+    }
+
+    void set(String key, String value) {
+        add(Command.SET, key, value);
+    }
+
+    void sadd(String key, String member) {
+        add(Command.SADD, key, member);
+    }
+
+    void srem(String key, String member) {
+        add(Command.SREM, key, member);
+    }
+
+    void zadd(String key, long score, String member) {
+        add(Command.ZADD, key, Long.toString(score), member);
+    }
+
+    void zrem(String key, String member) {
+        add(Command.ZREM, key, member);
+    }
+
+    void del(String key) {
+        add(Command.DEL, key);
+    }
+
+    public boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    List<Request> requests() {
+        return Collections.unmodifiableList(requests);
+    }
+
+    private void add(Command command, String... args) {
+        Request request = Request.cmd(command);
+        for (String arg : args) {
+            request.arg(arg);
+        }
+        requests.add(request);
+    }
+}
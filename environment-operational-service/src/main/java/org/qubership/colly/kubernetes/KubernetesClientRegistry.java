@@ -0,0 +1,225 @@
+package org.qubership.colly.kubernetes;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.util.ClientBuilder;
+import io.kubernetes.client.util.credentials.AccessTokenAuthentication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps one {@link ApiClient} per cluster between sync cycles, so the OkHttp connection pool
+ * and established TLS sessions survive from one sync to the next.
+ * A client is rebuilt when the api host or token of the cluster changes, dropped after being idle for too long
+ * and the least recently used client is dropped when the registry is full.
+ */
+@ApplicationScoped
+public class KubernetesClientRegistry {
+
+    private final int maxSize;
+    private final Duration idleTimeout;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter handshakes;
+    private final Map<String, CachedClient> clients = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Inject
+    public KubernetesClientRegistry(MeterRegistry meterRegistry,
+                                    @ConfigProperty(name = "colly.environment-operational-service.k8s-client.max-size") int maxSize,
+                                    @ConfigProperty(name = "colly.environment-operational-service.k8s-client.idle-timeout") Duration idleTimeout,
+                                    @ConfigProperty(name = "colly.environment-operational-service.k8s-client.connect-timeout") Duration connectTimeout,
+                                    @ConfigProperty(name = "colly.environment-operational-service.k8s-client.read-timeout") Duration readTimeout) {
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.hits = meterRegistry.counter("colly.k8s.client.pool", "result", "hit");
+        this.misses = meterRegistry.counter("colly.k8s.client.pool", "result", "miss");
+        this.evictions = meterRegistry.counter("colly.k8s.client.pool.evictions");
+        this.handshakes = meterRegistry.counter("colly.k8s.client.tls.handshakes");
+        meterRegistry.gauge("colly.k8s.client.pool.size", clients, Map::size);
+    }
+
+    public synchronized ApiClient getClient(ClusterInfo clusterInfo) throws IOException {
+        evictIdleClients();
+        String fingerprint = fingerprint(clusterInfo);
+        CachedClient cachedClient = clients.get(clusterInfo.id());
+        if (cachedClient != null && cachedClient.fingerprint().equals(fingerprint)) {
+            hits.increment();
+            cachedClient.touch();
+            return cachedClient.client();
+        }
+        misses.increment();
+        if (cachedClient != null) {
+            Log.info("Connection settings of cluster " + clusterInfo.name() + " have changed. Rebuilding k8s client.");
+            close(clients.remove(clusterInfo.id()));
+        }
+        ApiClient client = createClient(clusterInfo);
+        clients.put(clusterInfo.id(), new CachedClient(fingerprint, client));
+        evictLeastRecentlyUsedClients();
+        return client;
+    }
+
+    /**
+     * Returns a client for long-running watch requests to the cluster. It shares the connection pool of the client of
+     * the cluster, but has no read timeout and its own dispatcher, so cancelling sync requests leaves watches alone.
+     */
+    public ApiClient getWatchClient(ClusterInfo clusterInfo) throws IOException {
+        ApiClient client = getClient(clusterInfo);
+        ApiClient watchClient = new ApiClient(client.getHttpClient().newBuilder()
+                .readTimeout(Duration.ZERO)
+                .dispatcher(new Dispatcher())
+                .build());
+        watchClient.setBasePath(client.getBasePath());
+        new AccessTokenAuthentication(clusterInfo.token()).provide(watchClient);
+        return watchClient;
+    }
+
+    /**
+     * Cancels requests to the cluster that are in flight. Unlike an interrupt, a cancel also stops a blocking socket
+     * read of a platform thread.
+     */
+    public synchronized void cancelCalls(String clusterId) {
+        CachedClient cachedClient = clients.get(clusterId);
+        if (cachedClient != null) {
+            cachedClient.client().getHttpClient().dispatcher().runningCalls().forEach(Call::cancel);
+        }
+    }
+
+    /**
+     * Drops clients of clusters that are no longer known to the inventory.
+     */
+    public synchronized void retainClusters(Set<String> clusterIds) {
+        clients.entrySet().removeIf(entry -> {
+            if (clusterIds.contains(entry.getKey())) {
+                return false;
+            }
+            Log.info("Cluster with id=" + entry.getKey() + " is removed. Closing k8s client.");
+            close(entry.getValue());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    synchronized void closeAll() {
+        clients.values().forEach(this::close);
+        clients.clear();
+    }
+
+    //package-private for testing purposes
+    synchronized int size() {
+        return clients.size();
+    }
+
+    private ApiClient createClient(ClusterInfo clusterInfo) throws IOException {
+        ApiClient client = ClientBuilder.standard()
+                .setAuthentication(new AccessTokenAuthentication(clusterInfo.token()))
+                .setBasePath(clusterInfo.cloudApiHost())
+                .setVerifyingSsl(false)
+                .build();
+        client.setHttpClient(client.getHttpClient().newBuilder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .eventListener(new HandshakeCountingListener())
+                .build());
+        Log.info("K8s client created for cluster " + clusterInfo.name());
+        return client;
+    }
+
+    private void evictIdleClients() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        clients.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastUsedAt() - idleSince > 0) {
+                return false;
+            }
+            Log.info("K8s client for cluster with id=" + entry.getKey() + " has been idle for " + idleTimeout + ". Closing it.");
+            evictions.increment();
+            close(entry.getValue());
+            return true;
+        });
+    }
+
+    private void evictLeastRecentlyUsedClients() {
+        Iterator<Map.Entry<String, CachedClient>> iterator = clients.entrySet().iterator();
+        while (clients.size() > maxSize && iterator.hasNext()) {
+            Map.Entry<String, CachedClient> eldest = iterator.next();
+            Log.info("K8s client registry is full. Closing client for cluster with id=" + eldest.getKey());
+            evictions.increment();
+            close(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private void close(CachedClient cachedClient) {
+        cachedClient.client().getHttpClient().connectionPool().evictAll();
+    }
+
+    private static String fingerprint(ClusterInfo clusterInfo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(clusterInfo.cloudApiHost()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(clusterInfo.token()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedClient {
+        private final String fingerprint;
+        private final ApiClient client;
+        private long lastUsedAt = System.nanoTime();
+
+        CachedClient(String fingerprint, ApiClient client) {
+            this.fingerprint = fingerprint;
+            this.client = client;
+        }
+
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        ApiClient client() {
+            return client;
+        }
+
+        long lastUsedAt() {
+            return lastUsedAt;
+        }
+
+        void touch() {
+            lastUsedAt = System.nanoTime();
+        }
+    }
+
+    private class HandshakeCountingListener extends EventListener {
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            handshakes.increment();
+        }
+    }
+}
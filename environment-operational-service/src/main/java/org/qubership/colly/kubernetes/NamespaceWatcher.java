@@ -0,0 +1,217 @@
+package org.qubership.colly.kubernetes;
+
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.V1Namespace;
+import io.kubernetes.client.openapi.models.V1NamespaceList;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.qubership.colly.ClusterSyncScheduler;
+import org.qubership.colly.cloudpassport.CloudPassportNamespace;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one long-lived namespace watch per cluster and serves namespace lookups from its in-memory cache.
+ * The informer resumes the watch from the last seen resourceVersion and relists only when the server requires it,
+ * so the sync loop no longer lists all namespaces of every cluster on each run. The cache is read-only: stored
+ * namespaces are written by the sync only, and creation or deletion of a namespace of the inventory makes the sync of
+ * its cluster due at the next tick.
+ */
+@ApplicationScoped
+public class NamespaceWatcher {
+
+    private static final long SYNC_POLL_INTERVAL_MS = 100;
+
+    private final KubernetesClientRegistry kubernetesClientRegistry;
+    private final ClusterSyncScheduler clusterSyncScheduler;
+    private final boolean enabled;
+    private final Duration resyncPeriod;
+    private final Duration initialSyncTimeout;
+    private final Map<String, ClusterWatch> watches = new ConcurrentHashMap<>();
+
+    @Inject
+    public NamespaceWatcher(KubernetesClientRegistry kubernetesClientRegistry,
+                            ClusterSyncScheduler clusterSyncScheduler,
+                            @ConfigProperty(name = "colly.environment-operational-service.namespace-watch.enabled") boolean enabled,
+                            @ConfigProperty(name = "colly.environment-operational-service.namespace-watch.resync-period") Duration resyncPeriod,
+                            @ConfigProperty(name = "colly.environment-operational-service.namespace-watch.initial-sync-timeout") Duration initialSyncTimeout) {
+        this.kubernetesClientRegistry = kubernetesClientRegistry;
+        this.clusterSyncScheduler = clusterSyncScheduler;
+        this.enabled = enabled;
+        this.resyncPeriod = resyncPeriod;
+        this.initialSyncTimeout = initialSyncTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns namespaces of the cluster from the watch cache, starting the watch on first use.
+     * An empty result means the cache is not synced yet and the caller has to list namespaces itself.
+     */
+    public Optional<Map<String, V1Namespace>> getNamespaces(ClusterInfo clusterInfo) {
+        ClusterWatch watch;
+        try {
+            watch = watches.compute(clusterInfo.id(), (clusterId, existing) -> {
+                if (existing != null && existing.isFor(clusterInfo)) {
+                    return existing;
+                }
+                if (existing != null) {
+                    Log.info("Connection settings of cluster " + clusterInfo.name() + " have changed. Restarting namespace watch.");
+                    existing.stop();
+                }
+                return startWatch(clusterInfo);
+            });
+        } catch (RuntimeException e) {
+            Log.error("Can't start namespace watch for cluster " + clusterInfo.name(), e);
+            return Optional.empty();
+        }
+        watch.inventoryNamespaces().set(inventoryNamespaces(clusterInfo));
+        if (!watch.awaitSynced(initialSyncTimeout)) {
+            Log.warn("Namespace watch for cluster " + clusterInfo.name() + " is not synced within " + initialSyncTimeout);
+            return Optional.empty();
+        }
+        Map<String, V1Namespace> namespaces = new HashMap<>();
+        for (V1Namespace v1Namespace : watch.informer().getIndexer().list()) {
+            if (v1Namespace.getMetadata() != null) {
+                namespaces.put(v1Namespace.getMetadata().getName(), v1Namespace);
+            }
+        }
+        return Optional.of(namespaces);
+    }
+
+    /**
+     * Stops watches of clusters that are no longer known to the inventory.
+     */
+    public void retainClusters(Set<String> clusterIds) {
+        watches.entrySet().removeIf(entry -> {
+            if (clusterIds.contains(entry.getKey())) {
+                return false;
+            }
+            Log.info("Cluster with id=" + entry.getKey() + " is removed. Stopping namespace watch.");
+            entry.getValue().stop();
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void stopAll() {
+        watches.values().forEach(ClusterWatch::stop);
+        watches.clear();
+    }
+
+    private ClusterWatch startWatch(ClusterInfo clusterInfo) {
+        ApiClient client;
+        try {
+            // watch requests are long polls, so the client has no read timeout
+            client = kubernetesClientRegistry.getWatchClient(clusterInfo);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't create k8s client for cluster " + clusterInfo.name(), e);
+        }
+
+        GenericKubernetesApi<V1Namespace, V1NamespaceList> namespaceApi =
+                new GenericKubernetesApi<>(V1Namespace.class, V1NamespaceList.class, "", "v1", "namespaces", client);
+        SharedInformerFactory factory = new SharedInformerFactory(client);
+        SharedIndexInformer<V1Namespace> informer = factory.sharedIndexInformerFor(namespaceApi, V1Namespace.class, resyncPeriod.toMillis());
+        AtomicReference<Set<String>> inventoryNamespaces = new AtomicReference<>(inventoryNamespaces(clusterInfo));
+        informer.addEventHandler(new NamespaceExistenceHandler(clusterInfo, informer, inventoryNamespaces));
+        factory.startAllRegisteredInformers();
+        Log.info("Namespace watch started for cluster " + clusterInfo.name());
+        return new ClusterWatch(clusterInfo.cloudApiHost(), clusterInfo.token(), factory, informer, inventoryNamespaces);
+    }
+
+    private static Set<String> inventoryNamespaces(ClusterInfo clusterInfo) {
+        return clusterInfo.environments().stream()
+                .flatMap(environment -> environment.namespaces().stream())
+                .map(CloudPassportNamespace::name)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Makes the sync of the cluster due when a namespace of the inventory is created or deleted, so that the change
+     * shows up at the next tick instead of after the sync interval of the cluster. Events of the initial list are skipped.
+     */
+    private class NamespaceExistenceHandler implements ResourceEventHandler<V1Namespace> {
+
+        private final ClusterInfo clusterInfo;
+        private final SharedIndexInformer<V1Namespace> informer;
+        private final AtomicReference<Set<String>> inventoryNamespaces;
+
+        NamespaceExistenceHandler(ClusterInfo clusterInfo, SharedIndexInformer<V1Namespace> informer,
+                                  AtomicReference<Set<String>> inventoryNamespaces) {
+            this.clusterInfo = clusterInfo;
+            this.informer = informer;
+            this.inventoryNamespaces = inventoryNamespaces;
+        }
+
+        @Override
+        public void onAdd(V1Namespace v1Namespace) {
+            if (informer.hasSynced()) {
+                existenceChanged(v1Namespace, "appeared in k8s");
+            }
+        }
+
+        @Override
+        public void onUpdate(V1Namespace oldNamespace, V1Namespace newNamespace) {
+            // existence is not affected by updates
+        }
+
+        @Override
+        public void onDelete(V1Namespace v1Namespace, boolean deletedFinalStateUnknown) {
+            existenceChanged(v1Namespace, "disappeared from k8s");
+        }
+
+        private void existenceChanged(V1Namespace v1Namespace, String change) {
+            if (v1Namespace.getMetadata() != null && inventoryNamespaces.get().contains(v1Namespace.getMetadata().getName())) {
+                Log.info("Namespace " + v1Namespace.getMetadata().getName() + " in cluster " + clusterInfo.name() + " " + change + ". Sync of the cluster is due.");
+                clusterSyncScheduler.markDue(clusterInfo.id());
+            }
+        }
+    }
+
+    private record ClusterWatch(String cloudApiHost, String token, SharedInformerFactory factory,
+                                SharedIndexInformer<V1Namespace> informer, AtomicReference<Set<String>> inventoryNamespaces) {
+
+        boolean isFor(ClusterInfo clusterInfo) {
+            return Objects.equals(cloudApiHost, clusterInfo.cloudApiHost()) && Objects.equals(token, clusterInfo.token());
+        }
+
+        boolean awaitSynced(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (!informer.hasSynced()) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(SYNC_POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void stop() {
+            factory.stopAllRegisteredInformers();
+        }
+    }
+}
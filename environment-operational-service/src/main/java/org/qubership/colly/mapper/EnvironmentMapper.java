@@ -7,13 +7,18 @@
 import org.qubership.colly.db.data.Environment;
 import org.qubership.colly.db.repository.ClusterRepository;
 import org.qubership.colly.db.repository.NamespaceRepository;
+import org.qubership.colly.dto.ClusterDTO;
 import org.qubership.colly.dto.DeploymentItemDto;
 import org.qubership.colly.dto.DeploymentOperationDto;
 import org.qubership.colly.dto.EnvironmentDTO;
 import org.qubership.colly.dto.NamespaceDTO;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @ApplicationScoped
 public class EnvironmentMapper {
@@ -36,28 +41,50 @@ public EnvironmentDTO toDTO(Environment entity) {
         if (entity == null) {
             return null;
         }
+        return toDTOs(List.of(entity)).getFirst();
+    }
+
+    /**
+     * Convert Environment entities to DTOs. Clusters and namespaces of all environments are loaded
+     * with one bulk read each and shared by the DTOs, instead of being read one by one.
+     */
+    public List<EnvironmentDTO> toDTOs(List<Environment> entities) {
+        Set<String> clusterIds = new HashSet<>();
+        Set<String> namespaceIds = new HashSet<>();
+        for (Environment entity : entities) {
+            if (entity.getClusterId() != null) {
+                clusterIds.add(entity.getClusterId());
+            }
+            namespaceIds.addAll(entity.getNamespaceIds());
+        }
+        Map<String, ClusterDTO> clusters = new HashMap<>();
+        clusterRepository.findByIds(clusterIds).forEach(cluster -> clusters.put(cluster.getId(), clusterMapper.toDTO(cluster)));
+        Map<String, NamespaceDTO> namespaces = new HashMap<>();
+        namespaceRepository.findByUids(namespaceIds).forEach(ns -> namespaces.put(ns.getId(), new NamespaceDTO(ns.getId(), ns.getName(), ns.getExistsInK8s())));
 
-        return new EnvironmentDTO(
-                entity.getId(),
-                entity.getName(),
-                toNamespaceDTOs(entity.getNamespaceIds()),
-                clusterMapper.toDTO(clusterRepository.findById(entity.getClusterId())),
-                entity.getCleanInstallationDate(),
-                toDeploymentOperationDtos(entity.getDeploymentOperations()),
-                entity.getMonitoringData()
-        );
+        return entities.stream()
+                .map(entity -> new EnvironmentDTO(
+                        entity.getId(),
+                        entity.getName(),
+                        toNamespaceDTOs(entity.getNamespaceIds(), namespaces),
+                        entity.getClusterId() != null ? clusters.get(entity.getClusterId()) : null,
+                        entity.getCleanInstallationDate(),
+                        toDeploymentOperationDtos(entity.getDeploymentOperations()),
+                        entity.getMonitoringData()))
+                .toList();
     }
 
 
-    private List<NamespaceDTO> toNamespaceDTOs(List<String> namespaceIds) {
+    private List<NamespaceDTO> toNamespaceDTOs(List<String> namespaceIds, Map<String, NamespaceDTO> namespaces) {
         if (namespaceIds == null) {
             return List.of();
         }
         List<NamespaceDTO> namespaceDTOs = new ArrayList<>();
         for (String nsId : namespaceIds) {
-            namespaceRepository.findByUid(nsId).ifPresent(ns ->
-                    namespaceDTOs.add(new NamespaceDTO(ns.getId(), ns.getName(), ns.getExistsInK8s()))
-            );
+            NamespaceDTO namespace = namespaces.get(nsId);
+            if (namespace != null) {
+                namespaceDTOs.add(namespace);
+            }
         }
         return namespaceDTOs;
     }
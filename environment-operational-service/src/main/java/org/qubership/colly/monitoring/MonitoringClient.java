@@ -1,5 +1,6 @@
 package org.qubership.colly.monitoring;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -7,13 +8,15 @@
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+import java.io.Closeable;
+
 @Path("/api/v1")
 @RegisterRestClient(configKey = "monitoring-api")
-public interface MonitoringClient {
+public interface MonitoringClient extends Closeable {
 
     @GET
     @Path("/query")
     @Produces(MediaType.APPLICATION_JSON)
-    MonitoringResponse executeQuery(@QueryParam("query") String query);
+    Uni<MonitoringResponse> executeQueryAsync(@QueryParam("query") String query);
 
 }
@@ -0,0 +1,65 @@
+package org.qubership.colly.monitoring;
+
+import io.quarkus.logging.Log;
+import io.quarkus.rest.client.reactive.QuarkusRestClientBuilder;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.client.api.QuarkusRestClientProperties;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one {@link MonitoringClient} per monitoring uri, so connections to the monitoring system are reused between queries and syncs.
+ * Every client has its own connection pool, its size limits the number of concurrent queries to one uri;
+ * queries above the limit wait for a free connection without blocking the caller.
+ */
+@ApplicationScoped
+public class MonitoringClientRegistry {
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int maxConcurrency;
+    private final Map<String, MonitoringClient> clients = new ConcurrentHashMap<>();
+
+    @Inject
+    public MonitoringClientRegistry(@ConfigProperty(name = "colly.environment-operational-service.monitoring-client.connect-timeout") Duration connectTimeout,
+                                    @ConfigProperty(name = "colly.environment-operational-service.monitoring-client.read-timeout") Duration readTimeout,
+                                    @ConfigProperty(name = "colly.environment-operational-service.monitoring-client.max-concurrency") int maxConcurrency) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public MonitoringClient getClient(String monitoringUri) {
+        return clients.computeIfAbsent(monitoringUri, this::createClient);
+    }
+
+    @PreDestroy
+    void closeAll() {
+        clients.forEach((monitoringUri, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                Log.warn("Unable to close monitoring client for " + monitoringUri, e);
+            }
+        });
+        clients.clear();
+    }
+
+    private MonitoringClient createClient(String monitoringUri) {
+        Log.info("Monitoring client created for " + monitoringUri);
+        return QuarkusRestClientBuilder.newBuilder()
+                .baseUri(URI.create(monitoringUri))
+                .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .property(QuarkusRestClientProperties.CONNECTION_POOL_SIZE, maxConcurrency)
+                .build(MonitoringClient.class);
+    }
+}
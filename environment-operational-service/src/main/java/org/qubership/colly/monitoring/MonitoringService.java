@@ -3,58 +3,120 @@
 import io.quarkus.logging.Log;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithParentName;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static java.util.Collections.emptyMap;
 
 @ApplicationScoped
 public class MonitoringService {
 
+    private static final Pattern AGGREGATION = Pattern.compile("^\\s*(count|sum|min|max)\\s*\\((.*)\\)\\s*$", Pattern.DOTALL);
+    private static final Pattern GROUPING = Pattern.compile("\\b(by|without)\\b");
+    private static final String NAMESPACE_SELECTOR = "namespace=~\"{namespace}\"";
+    private static final String NAMESPACE_LABEL = "namespace";
+
     @Inject
     MonitoringParams monitoringParams;
 
+    @Inject
+    MonitoringClientRegistry monitoringClientRegistry;
+
+    @ConfigProperty(name = "colly.environment-operational-service.monitoring-batch.enabled")
+    boolean batchEnabled;
+
+    @ConfigProperty(name = "colly.environment-operational-service.monitoring-batch.max-namespaces")
+    int batchMaxNamespaces;
+
     public Map<String, String> loadMonitoringData(String monitoringUri, String environmentName, String clusterName, List<String> namespaceNames) {
-        if (monitoringUri == null) {
+        return loadMonitoringData(monitoringUri, clusterName, Map.of(environmentName, namespaceNames)).getOrDefault(environmentName, emptyMap());
+    }
+
+    /**
+     * Loads monitoring data of all environments of a cluster. Queries of the form {@code count|sum|min|max(... namespace=~"{namespace}" ...)}
+     * are run once per cluster grouped {@code by (namespace)} and their result is aggregated per environment in memory,
+     * other queries are run per environment. All queries are sent in parallel, so the latency is the one of the slowest query.
+     * A failed query leaves out only the params it was run for, values of other queries are still returned.
+     *
+     * @param namespacesByEnvironment names of namespaces of each environment, keyed by environment name
+     * @return monitoring data keyed by environment name
+     */
+    public Map<String, Map<String, String>> loadMonitoringData(String monitoringUri, String clusterName, Map<String, List<String>> namespacesByEnvironment) {
+        if (monitoringUri == null || namespacesByEnvironment.isEmpty()) {
+            return emptyMap();
+        }
+        Collection<MonitoringParam> monitoringParams = this.monitoringParams.allMonitoringParams().values();
+        if (monitoringParams.isEmpty()) {
             return emptyMap();
         }
-        MonitoringClient monitoringClient;
-        HashMap<String, String> result = new HashMap<>();
+        Map<String, Map<String, String>> result = new HashMap<>();
+        namespacesByEnvironment.keySet().forEach(environmentName -> result.put(environmentName, new ConcurrentHashMap<>()));
         try {
-            monitoringClient = RestClientBuilder.newBuilder().baseUri(monitoringUri).build(MonitoringClient.class);
-
-            Collection<MonitoringParam> monitoringParams = this.monitoringParams.allMonitoringParams().values();
-            if (monitoringParams.isEmpty()) {
-                return emptyMap();
-            }
-
+            MonitoringClient monitoringClient = monitoringClientRegistry.getClient(monitoringUri);
+            List<Uni<MonitoringResponse>> queries = new ArrayList<>();
+            List<Runnable> aggregations = new ArrayList<>();
             for (MonitoringParam monitoringParam : monitoringParams) {
-
-                String monitoringQuery = monitoringParam.query()
-                        .replace("{namespace}", String.join("|", namespaceNames))
-                        .replace("{env}", environmentName)
-                        .replace("{cluster}", clusterName);
-
-                Log.info("Executing query: " + monitoringQuery + " on " + monitoringUri + " for namespaces: " + namespaceNames);
-                MonitoringResponse monitoringResponse = monitoringClient.executeQuery(monitoringQuery);
-                if (monitoringResponse == null || monitoringResponse.data == null || monitoringResponse.data.result == null || monitoringResponse.data.result.isEmpty()) {
+                Optional<GroupedQuery> groupedQuery = batchEnabled ? GroupedQuery.parse(monitoringParam.query()) : Optional.empty();
+                if (groupedQuery.isPresent()) {
+                    Map<String, String> valuesByNamespace = new ConcurrentHashMap<>();
+                    Set<String> failedNamespaces = ConcurrentHashMap.newKeySet();
+                    List<String> namespaceNames = new ArrayList<>(namespacesByEnvironment.values().stream()
+                            .flatMap(List::stream)
+                            .collect(LinkedHashSet::new, LinkedHashSet::add, LinkedHashSet::addAll));
+                    for (int from = 0; from < namespaceNames.size(); from += batchMaxNamespaces) {
+                        List<String> chunk = namespaceNames.subList(from, Math.min(from + batchMaxNamespaces, namespaceNames.size()));
+                        String monitoringQuery = groupedQuery.get().toQuery(chunk, clusterName);
+                        Log.info("Executing grouped query: " + monitoringQuery + " on " + monitoringUri + " for " + chunk.size() + " namespaces");
+                        queries.add(recoverFailure(monitoringClient.executeQueryAsync(monitoringQuery)
+                                .invoke(monitoringResponse -> collectNamespaceValues(monitoringResponse, valuesByNamespace)),
+                                monitoringQuery, monitoringUri, () -> failedNamespaces.addAll(chunk)));
+                    }
+                    // an environment with namespaces of a failed chunk would get a partial value, so it gets none
+                    aggregations.add(() -> namespacesByEnvironment.forEach((environmentName, environmentNamespaces) -> {
+                        if (environmentNamespaces.stream().noneMatch(failedNamespaces::contains)) {
+                            groupedQuery.get().aggregate(environmentNamespaces.stream().map(valuesByNamespace::get).toList())
+                                    .ifPresent(value -> result.get(environmentName).put(monitoringParam.name(), value));
+                        }
+                    }));
                     continue;
                 }
-
-                String monitoringData = monitoringResponse.data.result.getFirst().value.getLast();
-                Log.info("Monitoring data for " + monitoringParam.name() + " is " + monitoringData);
-                result.put(monitoringParam.name(), monitoringData);
+                namespacesByEnvironment.forEach((environmentName, environmentNamespaces) -> {
+                    String monitoringQuery = monitoringParam.query()
+                            .replace("{namespace}", String.join("|", environmentNamespaces))
+                            .replace("{env}", environmentName)
+                            .replace("{cluster}", clusterName);
+                    Log.info("Executing query: " + monitoringQuery + " on " + monitoringUri + " for namespaces: " + environmentNamespaces);
+                    queries.add(recoverFailure(monitoringClient.executeQueryAsync(monitoringQuery)
+                            .invoke(monitoringResponse -> firstValue(monitoringResponse)
+                                    .ifPresent(value -> result.get(environmentName).put(monitoringParam.name(), value))),
+                            monitoringQuery, monitoringUri));
+                });
             }
+            Uni.join().all(queries).andFailFast().await().indefinitely();
+            aggregations.forEach(Runnable::run);
         } catch (Exception e) {
-            Log.error("Unable to load monitoring data from " + monitoringUri, e);
+            Log.error("Unable to load monitoring data from " + monitoringUri + " for cluster " + clusterName, e);
             return emptyMap();
         }
+        Log.info("Monitoring data is loaded from " + monitoringUri + " for " + namespacesByEnvironment.size() + " environments of cluster " + clusterName
+                + " with " + monitoringParams.size() + " params");
         return result;
     }
 
@@ -69,6 +131,95 @@ public List<String> getParameters() {
         return paramNames;
     }
 
+    private static Uni<MonitoringResponse> recoverFailure(Uni<MonitoringResponse> query, String monitoringQuery, String monitoringUri) {
+        return recoverFailure(query, monitoringQuery, monitoringUri, () -> {
+        });
+    }
+
+    private static Uni<MonitoringResponse> recoverFailure(Uni<MonitoringResponse> query, String monitoringQuery, String monitoringUri, Runnable onFailure) {
+        return query.onFailure().recoverWithItem(failure -> {
+            Log.error("Unable to execute query " + monitoringQuery + " on " + monitoringUri + ". " + failure.getMessage());
+            onFailure.run();
+            return null;
+        });
+    }
+
+    private static Optional<String> firstValue(MonitoringResponse monitoringResponse) {
+        if (monitoringResponse == null || monitoringResponse.data == null || monitoringResponse.data.result == null || monitoringResponse.data.result.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(monitoringResponse.data.result.getFirst().value.getLast());
+    }
+
+    private static void collectNamespaceValues(MonitoringResponse monitoringResponse, Map<String, String> valuesByNamespace) {
+        if (monitoringResponse == null || monitoringResponse.data == null || monitoringResponse.data.result == null) {
+            return;
+        }
+        for (MonitoringResponse.Result series : monitoringResponse.data.result) {
+            if (series.metric != null && series.metric.get(NAMESPACE_LABEL) != null && series.value != null && !series.value.isEmpty() && series.value.getLast() != null) {
+                valuesByNamespace.put(series.metric.get(NAMESPACE_LABEL), series.value.getLast());
+            }
+        }
+    }
+
+    /**
+     * Top-level aggregation over series selected by namespace, which can be computed per namespace and re-aggregated per environment.
+     */
+    record GroupedQuery(String aggregation, String expression) {
+
+        static Optional<GroupedQuery> parse(String query) {
+            Matcher matcher = AGGREGATION.matcher(query);
+            if (!matcher.matches()
+                    || !query.contains(NAMESPACE_SELECTOR)
+                    || query.contains("{env}")
+                    || GROUPING.matcher(query).find()
+                    || !isBalanced(matcher.group(2))) {
+                return Optional.empty();
+            }
+            return Optional.of(new GroupedQuery(matcher.group(1), matcher.group(2)));
+        }
+
+        String toQuery(List<String> namespaceNames, String clusterName) {
+            return aggregation + " by (" + NAMESPACE_LABEL + ") (" + expression
+                    .replace("{namespace}", String.join("|", namespaceNames))
+                    .replace("{cluster}", clusterName) + ")";
+        }
+
+        /**
+         * Combines values of namespaces of one environment. Counts and sums are added up, minimums and maximums are taken.
+         */
+        Optional<String> aggregate(List<String> namespaceValues) {
+            List<String> values = namespaceValues.stream().filter(Objects::nonNull).toList();
+            if (values.size() <= 1) {
+                return values.stream().findFirst();
+            }
+            BinaryOperator<BigDecimal> combiner = switch (aggregation) {
+                case "min" -> BigDecimal::min;
+                case "max" -> BigDecimal::max;
+                default -> BigDecimal::add;
+            };
+            try {
+                return values.stream().map(BigDecimal::new).reduce(combiner).map(value -> value.stripTrailingZeros().toPlainString());
+            } catch (NumberFormatException e) {
+                Log.warn("Unable to aggregate monitoring values " + values + ". Taking the first one.");
+                return Optional.of(values.getFirst());
+            }
+        }
+
+        // the expression inside the aggregation must be one parenthesized argument, e.g. not "count(a) / count(b)"
+        private static boolean isBalanced(String expression) {
+            int depth = 0;
+            for (char c : expression.toCharArray()) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth < 0) {
+                    return false;
+                }
+            }
+            return depth == 0;
+        }
+    }
+
     @ConfigMapping(prefix = "colly.environment-operational-service.monitoring")
     public interface MonitoringParams {
         @WithParentName
@@ -82,6 +82,122 @@ void load_environments() {
                 .body("name", contains("env-test", "env-1"));
     }
 
+    @Test
+    @TestSecurity(user = "test")
+    void get_deployment_operations_of_environment_by_time_range() {
+        given()
+                .when().post("/colly/v2/operational-service/manual-sync?clusterId=1")
+                .then()
+                .statusCode(204);
+
+        given()
+                .when().get("/colly/v2/operational-service/environments/42/deployment-operations?from=1970-01-01T00:00:00Z&limit=10")
+                .then()
+                .statusCode(200)
+                .body("completedAt", contains(Instant.ofEpochMilli(2000000L).toString()));
+        given()
+                .when().get("/colly/v2/operational-service/environments/42/deployment-operations?to=1970-01-01T00:00:01Z")
+                .then()
+                .statusCode(200)
+                .body("$", empty());
+        given()
+                .when().get("/colly/v2/operational-service/environments/42/deployment-operations?from=yesterday")
+                .then()
+                .statusCode(400);
+        given()
+                .when().get("/colly/v2/operational-service/environments/unknown/deployment-operations")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @TestSecurity(user = "test")
+    void serve_environments_from_snapshot_published_by_sync() {
+        given()
+                .when().post("/colly/v2/operational-service/manual-sync?clusterId=1")
+                .then()
+                .statusCode(204);
+        Response first = given()
+                .when().get("/colly/v2/operational-service/environments");
+        first.then()
+                .statusCode(200)
+                .header("X-Snapshot-Stale", "false")
+                .header("X-Snapshot-Built-At", notNullValue())
+                .body("name", contains("env-test"));
+        long version = Long.parseLong(first.header("X-Snapshot-Version"));
+
+        redisDataSource.flushall();
+        given()
+                .when().get("/colly/v2/operational-service/environments")
+                .then()
+                .statusCode(200)
+                .header("X-Snapshot-Version", String.valueOf(version))
+                .body("name", contains("env-test"));
+
+        given()
+                .when().post("/colly/v2/operational-service/manual-sync")
+                .then()
+                .statusCode(204);
+        given()
+                .when().get("/colly/v2/operational-service/clusters")
+                .then()
+                .statusCode(200)
+                .header("X-Snapshot-Version", String.valueOf(version + 1))
+                .body("name", containsInAnyOrder("test-cluster", "unreachable-cluster"));
+    }
+
+    @Test
+    @TestSecurity(user = "test")
+    void answer_not_modified_until_sync_changes_data() {
+        given()
+                .when().post("/colly/v2/operational-service/manual-sync?clusterId=1")
+                .then()
+                .statusCode(204);
+        String environmentsTag = given()
+                .when().get("/colly/v2/operational-service/environments")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+        String environmentTag = given()
+                .when().get("/colly/v2/operational-service/environments/42")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", environmentsTag)
+                .when().get("/colly/v2/operational-service/environments")
+                .then()
+                .statusCode(304)
+                .header("ETag", environmentsTag)
+                .body(emptyString());
+        given()
+                .header("If-None-Match", environmentTag)
+                .when().get("/colly/v2/operational-service/environments/42")
+                .then()
+                .statusCode(304);
+
+        given()
+                .when().post("/colly/v2/operational-service/manual-sync?clusterId=1")
+                .then()
+                .statusCode(204);
+        given()
+                .header("If-None-Match", environmentsTag)
+                .when().get("/colly/v2/operational-service/environments")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(environmentsTag))
+                .body("name", contains("env-test"));
+        given()
+                .header("If-None-Match", environmentTag)
+                .when().get("/colly/v2/operational-service/environments/42")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(environmentTag))
+                .body("name", equalTo("env-test"));
+    }
+
     @Test
     @TestSecurity(user = "test")
     void manual_sync_for_particular_cluster() {
@@ -0,0 +1,69 @@
+package org.qubership.colly;
+
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.cloudpassport.ClusterInfoChanges;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterInfoReplicaTest {
+
+    private EnvgeneInventoryServiceRest inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = mock(EnvgeneInventoryServiceRest.class);
+    }
+
+    @Test
+    void apply_changes_since_previous_refresh() {
+        ClusterInfoReplica replica = new ClusterInfoReplica(inventoryService, true);
+        when(inventoryService.getClusterInfoChanges(null)).thenReturn(new ClusterInfoChanges("v1", true,
+                List.of(clusterInfo("1", "token"), clusterInfo("2", "token"), clusterInfo("3", "token")), List.of()));
+        when(inventoryService.getClusterInfoChanges("v1")).thenReturn(new ClusterInfoChanges("v2", false,
+                List.of(clusterInfo("2", "new-token"), clusterInfo("4", "token")), List.of("3")));
+        when(inventoryService.getClusterInfoChanges("v2")).thenReturn(new ClusterInfoChanges("instance-restarted", true,
+                List.of(clusterInfo("1", "token")), List.of()));
+
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token"), clusterInfo("2", "token"), clusterInfo("3", "token")));
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token"), clusterInfo("2", "new-token"), clusterInfo("4", "token")));
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token")));
+        verify(inventoryService, never()).getClusterInfos();
+    }
+
+    @Test
+    void fetch_all_cluster_infos_if_inventory_has_no_changes_endpoint() {
+        ClusterInfoReplica replica = new ClusterInfoReplica(inventoryService, true);
+        when(inventoryService.getClusterInfoChanges(null)).thenThrow(new NotFoundException());
+        when(inventoryService.getClusterInfos()).thenReturn(List.of(clusterInfo("1", "token")));
+
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token")));
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token")));
+        verify(inventoryService, times(1)).getClusterInfoChanges(null);
+        verify(inventoryService, times(2)).getClusterInfos();
+    }
+
+    @Test
+    void fetch_all_cluster_infos_if_deltas_are_disabled() {
+        ClusterInfoReplica replica = new ClusterInfoReplica(inventoryService, false);
+        when(inventoryService.getClusterInfos()).thenReturn(List.of(clusterInfo("1", "token")));
+
+        assertThat(replica.refresh(), contains(clusterInfo("1", "token")));
+        verify(inventoryService, never()).getClusterInfoChanges(null);
+    }
+
+    private static ClusterInfo clusterInfo(String id, String token) {
+        return new ClusterInfo(id, "cluster-" + id, token, "https://api.cluster-" + id, "cluster-" + id, Set.of(), null, null);
+    }
+}
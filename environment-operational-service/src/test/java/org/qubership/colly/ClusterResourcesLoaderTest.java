@@ -24,15 +24,19 @@
 import org.qubership.colly.cloudpassport.ClusterInfo;
 import org.qubership.colly.db.data.*;
 import org.qubership.colly.db.repository.ClusterRepository;
+import org.qubership.colly.db.repository.DeploymentOperationRepository;
 import org.qubership.colly.db.repository.EnvironmentRepository;
 import org.qubership.colly.db.repository.NamespaceRepository;
+import org.qubership.colly.kubernetes.NamespaceWatcher;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -41,8 +45,12 @@
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.qubership.colly.achka.AchKubernetesAgentClientMockUtils.mockAchkaRestClient;
+import static org.qubership.colly.achka.AchKubernetesAgentClientMockUtils.mockFailingAchkaRestClient;
 
 @QuarkusTest
 @ConnectWireMock
@@ -77,10 +85,17 @@ class ClusterResourcesLoaderTest {
     RedisDataSource redisDataSource;
     @Inject
     ClusterRepository clusterRepository;
+    @Inject
+    DeploymentOperationRepository deploymentOperationRepository;
 
     @InjectMock
     AchKubernetesAgentClientFactory clientFactory;
 
+    @InjectMock
+    NamespaceWatcher namespaceWatcher;
+
+    private final Map<String, List<V1ConfigMap>> configMapsByNamespace = new HashMap<>();
+
     private static @NotNull CloudPassportEnvironment createEnvForTests(String name, List<CloudPassportNamespace> namespaces) {
         return new CloudPassportEnvironment(name, name, "some env for tests", namespaces);
     }
@@ -133,7 +148,7 @@ void loadClusterResources_from_cloud_passport() throws ApiException {
                 hasProperty("name", equalTo("env-test")),
                 hasProperty("cleanInstallationDate", equalTo(DATE_2024.toInstant()))));
 
-        assertThat(testEnv.getDeploymentOperations(), contains(
+        assertThat(deploymentOperationRepository.findByEnvironmentIds(List.of(testEnv.getId())).get(testEnv.getId()), contains(
                 new DeploymentOperation(Instant.ofEpochMilli(2000000L),
                         List.of(
                                 new DeploymentItem("sd-project:123", DeploymentStatus.FAILED, DeploymentItemType.PROJECT),
@@ -301,6 +316,51 @@ void load_namespace_that_created_after_first_loading() throws ApiException {
 
     }
 
+    @Test
+    void load_namespace_stored_without_index() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+        redisDataSource.key(String.class).del("operations:idx:namespaces:by-cluster:" + CLUSTER_ID,
+                "operations:idx:namespaces:by-environment:" + ENV_1);
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        Environment testEnv = environmentRepository.findByName(ENV_1).getFirst();
+        assertThat(testEnv.getNamespaceIds(), contains(NAMESPACE_NAME));
+        assertThat(namespaceRepository.findByClusterId(CLUSTER_ID), contains(hasProperty("name", equalTo(NAMESPACE_NAME))));
+        assertThat(namespaceRepository.findByEnvironmentId(ENV_1), contains(hasProperty("name", equalTo(NAMESPACE_NAME))));
+    }
+
+    @Test
+    void load_renamed_environment() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+        ClusterInfo renamed = new ClusterInfo(CLUSTER_ID, CLUSTER_NAME, "42", "https://api.example.com", "example.com",
+                Set.of(new CloudPassportEnvironment(ENV_1, "env-renamed", "some env for tests", List.of(new CloudPassportNamespace(NAMESPACE_NAME, NAMESPACE_NAME)))),
+                null, "https://achka.cloud.example.com");
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, renamed);
+
+        assertThat(environmentRepository.findByName(ENV_1), empty());
+        assertThat(environmentRepository.findByClusterIdAndName(CLUSTER_ID, ENV_1).isPresent(), is(false));
+        assertThat(environmentRepository.findByClusterIdAndName(CLUSTER_ID, "env-renamed").orElseThrow().getId(), equalTo(ENV_1));
+        assertThat(environmentRepository.findByClusterId(CLUSTER_ID), contains(hasProperty("name", equalTo("env-renamed"))));
+    }
+
+    @Test
+    void failed_sync_does_not_write_partially_loaded_cluster() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        CoreV1Api.APIlistNodeRequest nodeRequest = mock(CoreV1Api.APIlistNodeRequest.class);
+        when(coreV1Api.listNode()).thenReturn(nodeRequest);
+        when(nodeRequest.execute()).thenThrow(new IllegalStateException("connection reset"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT));
+
+        assertThat(clusterRepository.findById(CLUSTER_ID), nullValue());
+        assertThat(environmentRepository.findByName(ENV_1), empty());
+        assertThat(namespaceRepository.findAll(), empty());
+    }
+
     @Test
     void load_environments_achka_unavailable() throws ApiException {
         ClusterInfo clusterInfo = new ClusterInfo(CLUSTER_ID, CLUSTER_NAME, "42", "https://api.example.com",
@@ -310,16 +370,134 @@ void load_environments_achka_unavailable() throws ApiException {
         ), null, "http://localhost");
         mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
 
-        AchKubernetesAgentClient client = mock(AchKubernetesAgentClient.class);
-        when(clientFactory.create(anyString())).thenReturn(client);
-        when(client.versions(anyList(), anyString())).thenThrow(NotFoundException.class);
+        mockFailingAchkaRestClient(clientFactory, new NotFoundException());
 
         clusterResourcesLoader.loadClusterResources(coreV1Api, clusterInfo);
 
         Environment testEnv = environmentRepository.findByName("env-1-namespace").getFirst();
         assertThat(testEnv, hasProperty("name", equalTo("env-1-namespace")));
-        assertThat(testEnv.getDeploymentOperations(), emptyIterable());
+        assertThat(deploymentOperationRepository.findByEnvironmentIds(List.of(testEnv.getId())).get(testEnv.getId()), emptyIterable());
+
+    }
+
+    @Test
+    void keep_deployment_history_between_syncs() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:1", List.of(new ApplicationsVersion("sd-product:1", "SUCCESS", "1000000", "t1")))));
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        mockFailingAchkaRestClient(clientFactory, new NotFoundException());
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:2", List.of(new ApplicationsVersion("sd-product:2", "FAILED", "3000000", "t2")))));
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        Environment testEnv = environmentRepository.findByName(ENV_1).getFirst();
+        assertThat(deploymentOperationRepository.findByEnvironmentIds(List.of(testEnv.getId())).get(testEnv.getId()), contains(
+                new DeploymentOperation(Instant.ofEpochMilli(3000000L), List.of(new DeploymentItem("sd-product:2", DeploymentStatus.FAILED, DeploymentItemType.PRODUCT))),
+                new DeploymentOperation(Instant.ofEpochMilli(1000000L), List.of(new DeploymentItem("sd-product:1", DeploymentStatus.SUCCESS, DeploymentItemType.PRODUCT)))));
+    }
+
+    @Test
+    void state_digest_does_not_change_between_identical_syncs() throws ApiException {
+        ClusterInfo clusterInfo = new ClusterInfo(CLUSTER_ID, CLUSTER_NAME, "42", "https://api.example.com",
+                "example.com", Set.of(createEnvForTests(ENV_1, List.of(new CloudPassportNamespace(NAMESPACE_NAME, NAMESPACE_NAME)))),
+                "http://localhost:" + port, "https://achka.cloud.example.com");
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        mockConfigMaps(List.of(new V1ConfigMap().metadata(new V1ObjectMeta().name("versions").creationTimestamp(DATE_2024))), NAMESPACE_NAME);
+        mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:1", List.of(new ApplicationsVersion("sd-product:1", "SUCCESS", "1000000", "t1")))));
 
+        String firstDigest = clusterResourcesLoader.loadClusterResources(coreV1Api, clusterInfo);
+        wiremock.register(WireMock.get(WireMock.urlPathMatching("/api/v1/query"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":[{\"metric\":{},\"value\":[1747924618,\"2\"]}]}}")));
+        String secondDigest = clusterResourcesLoader.loadClusterResources(coreV1Api, clusterInfo);
+
+        assertThat(firstDigest, notNullValue());
+        assertThat(secondDigest, equalTo(firstDigest));
+
+        mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:2", List.of(new ApplicationsVersion("sd-product:2", "SUCCESS", "2000000", "t2")))));
+        assertThat(clusterResourcesLoader.loadClusterResources(coreV1Api, clusterInfo), not(equalTo(firstDigest)));
+    }
+
+    @Test
+    void load_namespaces_from_watch_cache_without_listing() throws ApiException {
+        ClusterInfo clusterInfo = new ClusterInfo(CLUSTER_ID, CLUSTER_NAME, "42", "https://api.example.com",
+                "example.com", Set.of(createEnvForTests("env-watched",
+                List.of(new CloudPassportNamespace(NAMESPACE_NAME, NAMESPACE_NAME),
+                        new CloudPassportNamespace(NAMESPACE_NAME_2, NAMESPACE_NAME_2)))), null, "https://achka.cloud.example.com");
+        when(namespaceWatcher.isEnabled()).thenReturn(true);
+        when(namespaceWatcher.getNamespaces(clusterInfo)).thenReturn(Optional.of(Map.of(
+                NAMESPACE_NAME, new V1Namespace().metadata(new V1ObjectMeta().name(NAMESPACE_NAME)))));
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, clusterInfo);
+
+        verify(coreV1Api, never()).listNamespace();
+        Environment testEnv = environmentRepository.findByName("env-watched").getFirst();
+        List<Namespace> allNamespaces = namespaceRepository.findByEnvironmentId(testEnv.getId());
+        assertThat(allNamespaces, hasItems(
+                allOf(hasProperty("name", equalTo(NAMESPACE_NAME)), hasProperty("existsInK8s", equalTo(true))),
+                allOf(hasProperty("name", equalTo(NAMESPACE_NAME_2)), hasProperty("existsInK8s", equalTo(false)))));
+        assertThat(clusterRepository.findById(CLUSTER_ID).getLastSuccessfulSyncAt(), notNullValue());
+    }
+
+    @Test
+    void list_namespaces_when_watch_cache_is_not_synced() throws ApiException {
+        when(namespaceWatcher.isEnabled()).thenReturn(true);
+        when(namespaceWatcher.getNamespaces(CLOUD_PASSPORT)).thenReturn(Optional.empty());
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        verify(coreV1Api).listNamespace();
+        Environment testEnv = environmentRepository.findByName(ENV_1).getFirst();
+        assertThat(namespaceRepository.findByEnvironmentId(testEnv.getId()), hasItems(
+                allOf(hasProperty("name", equalTo(NAMESPACE_NAME)), hasProperty("existsInK8s", equalTo(true)))));
+    }
+
+    @Test
+    void load_versions_config_maps_of_all_namespaces_page_by_page() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        V1ConfigMapList firstPage = new V1ConfigMapList()
+                .metadata(new V1ListMeta()._continue("next-page"))
+                .items(List.of(new V1ConfigMap().metadata(new V1ObjectMeta().name("versions").namespace("other-namespace").creationTimestamp(DATE_2025))));
+        V1ConfigMapList lastPage = new V1ConfigMapList()
+                .metadata(new V1ListMeta())
+                .items(List.of(new V1ConfigMap().metadata(new V1ObjectMeta().name("versions").namespace(NAMESPACE_NAME).creationTimestamp(DATE_2024))));
+        CoreV1Api.APIlistConfigMapForAllNamespacesRequest request = mockClusterWideConfigMapRequest();
+        when(request.execute()).thenReturn(firstPage, lastPage);
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        verify(request, times(2)).limit(500);
+        verify(request, times(2)).fieldSelector("metadata.name=versions");
+        verify(request)._continue("next-page");
+        verify(coreV1Api, never()).listNamespacedConfigMap(any());
+        Environment testEnv = environmentRepository.findByName(ENV_1).getFirst();
+        assertThat(testEnv.getCleanInstallationDate(), equalTo(DATE_2024.toInstant()));
+    }
+
+    @Test
+    void load_versions_config_maps_per_namespace_when_cluster_wide_list_is_forbidden() throws ApiException {
+        mockNamespaceLoading(CLUSTER_NAME, List.of(NAMESPACE_NAME));
+        V1ConfigMap configMap = new V1ConfigMap()
+                .metadata(new V1ObjectMeta().name("versions").uid("configmap-uid").creationTimestamp(DATE_2025));
+        mockConfigMaps(List.of(configMap), NAMESPACE_NAME);
+        CoreV1Api.APIlistConfigMapForAllNamespacesRequest request = mockClusterWideConfigMapRequest();
+        when(request.execute()).thenThrow(new ApiException(403, "Forbidden"));
+
+        clusterResourcesLoader.loadClusterResources(coreV1Api, CLOUD_PASSPORT);
+
+        verify(coreV1Api).listNamespacedConfigMap(NAMESPACE_NAME);
+        Environment testEnv = environmentRepository.findByName(ENV_1).getFirst();
+        assertThat(testEnv.getCleanInstallationDate(), equalTo(DATE_2025.toInstant()));
     }
 
     @Test
@@ -339,6 +517,8 @@ private void mockConfigMaps(List<V1ConfigMap> configMap1, String targetNamespace
         when(coreV1Api.listNamespacedConfigMap(targetNamespace)).thenReturn(configMapRequest);
         when(configMapRequest.fieldSelector("metadata.name=" + "versions")).thenReturn(configMapRequest);
         when(configMapRequest.execute()).thenReturn(configMapList);
+        configMap1.forEach(configMap -> configMap.getMetadata().setNamespace(targetNamespace));
+        configMapsByNamespace.put(targetNamespace, configMap1);
     }
 
     private void mockAllNamespaceResources() throws ApiException {
@@ -346,6 +526,21 @@ private void mockAllNamespaceResources() throws ApiException {
         when(coreV1Api.listNamespacedConfigMap(any())).thenReturn(configMapRequest);
         when(configMapRequest.fieldSelector(any())).thenReturn(configMapRequest);
         when(configMapRequest.execute()).thenReturn(new V1ConfigMapList());
+
+        configMapsByNamespace.clear();
+        CoreV1Api.APIlistConfigMapForAllNamespacesRequest allNamespacesRequest = mockClusterWideConfigMapRequest();
+        when(allNamespacesRequest.execute()).thenAnswer(invocation -> new V1ConfigMapList()
+                .metadata(new V1ListMeta())
+                .items(configMapsByNamespace.values().stream().flatMap(List::stream).toList()));
+    }
+
+    private CoreV1Api.APIlistConfigMapForAllNamespacesRequest mockClusterWideConfigMapRequest() {
+        CoreV1Api.APIlistConfigMapForAllNamespacesRequest request = mock(CoreV1Api.APIlistConfigMapForAllNamespacesRequest.class);
+        when(coreV1Api.listConfigMapForAllNamespaces()).thenReturn(request);
+        when(request.fieldSelector(any())).thenReturn(request);
+        when(request.limit(any())).thenReturn(request);
+        when(request._continue(any())).thenReturn(request);
+        return request;
     }
 
     private void mockNamespaceLoading(String clusterName, List<String> namespaceNames) throws ApiException {
@@ -0,0 +1,207 @@
+package org.qubership.colly;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.ClusterSyncExecutor.ClusterSyncResult;
+import org.qubership.colly.ClusterSyncExecutor.Outcome;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClusterSyncExecutorTest {
+
+    private static final ClusterInfo HANGING_CLUSTER = clusterInfo("1", "hanging-cluster");
+    private static final ClusterInfo FAST_CLUSTER = clusterInfo("2", "fast-cluster");
+
+    private final ClusterResourcesLoader clusterResourcesLoader = mock(ClusterResourcesLoader.class);
+    private MeterRegistry meterRegistry;
+    private ClusterSyncExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void interrupt_cluster_exceeding_deadline() {
+        executor = executor(false, Duration.ofMillis(500), Duration.ofMinutes(1));
+        AtomicInteger interruptedExecutions = hangOn(HANGING_CLUSTER);
+
+        long start = System.nanoTime();
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(10_000L));
+        assertThat(interruptedExecutions.get(), equalTo(1));
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT, Outcome.COMPLETED));
+        assertThat(results.get(1).stateDigest(), equalTo("state-digest"));
+        assertThat(counter("hanging-cluster", "timed_out"), equalTo(1.0));
+        assertThat(counter("fast-cluster", "completed"), equalTo(1.0));
+    }
+
+    @Test
+    void cancel_requests_of_cluster_exceeding_deadline() {
+        executor = executor(false, Duration.ofMillis(500), Duration.ofMinutes(1));
+        hangOn(HANGING_CLUSTER);
+
+        executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        verify(clusterResourcesLoader).cancelRequests(HANGING_CLUSTER);
+        verify(clusterResourcesLoader, never()).cancelRequests(FAST_CLUSTER);
+    }
+
+    @Test
+    void defer_interrupt_of_expired_deadline_until_write_is_finished() {
+        executor = executor(false, Duration.ofMillis(200), Duration.ofMinutes(1));
+        AtomicInteger interruptedWrites = new AtomicInteger();
+        AtomicInteger interruptsAfterWrite = new AtomicInteger();
+        when(clusterResourcesLoader.loadClusterResources(any(ClusterInfo.class))).thenAnswer(invocation -> {
+            ClusterSyncExecutor.withoutInterrupts(() -> {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    interruptedWrites.incrementAndGet();
+                }
+            });
+            if (Thread.currentThread().isInterrupted()) {
+                interruptsAfterWrite.incrementAndGet();
+            }
+            return "state-digest";
+        });
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER));
+
+        assertThat(interruptedWrites.get(), equalTo(0));
+        assertThat(interruptsAfterWrite.get(), equalTo(1));
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT));
+    }
+
+    @Test
+    void interrupt_cluster_exceeding_deadline_in_virtual_thread() {
+        executor = executor(true, Duration.ofMillis(500), Duration.ofMinutes(1));
+        AtomicInteger interruptedExecutions = hangOn(HANGING_CLUSTER);
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(interruptedExecutions.get(), equalTo(1));
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT, Outcome.COMPLETED));
+    }
+
+    @Test
+    void cancel_unfinished_syncs_when_run_budget_is_exhausted() {
+        executor = executor(false, Duration.ofMinutes(1), Duration.ofMillis(500));
+        hangOn(HANGING_CLUSTER);
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT, Outcome.COMPLETED));
+    }
+
+    @Test
+    void give_clusters_waiting_for_a_worker_a_budget_of_their_own() {
+        executor = new ClusterSyncExecutor(clusterResourcesLoader, meterRegistry, 1, false, 20, Duration.ofMillis(300), Duration.ofMillis(200));
+        hangOn(HANGING_CLUSTER);
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT, Outcome.COMPLETED));
+    }
+
+    @Test
+    void report_clusters_not_started_within_run_budget_as_cancelled() {
+        executor = new ClusterSyncExecutor(clusterResourcesLoader, meterRegistry, 1, false, 20, Duration.ofMillis(200), Duration.ofMillis(200));
+        when(clusterResourcesLoader.loadClusterResources(HANGING_CLUSTER)).thenAnswer(invocation -> {
+            // ignores interrupts, so the worker stays busy after its deadline
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return null;
+        });
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.TIMED_OUT, Outcome.CANCELLED));
+        verify(clusterResourcesLoader, never()).loadClusterResources(FAST_CLUSTER);
+    }
+
+    @Test
+    void count_failed_syncs() {
+        executor = executor(false, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        when(clusterResourcesLoader.loadClusterResources(HANGING_CLUSTER)).thenThrow(new RuntimeException("Simulated failure"));
+        when(clusterResourcesLoader.loadClusterResources(FAST_CLUSTER)).thenReturn(null);
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(HANGING_CLUSTER, FAST_CLUSTER));
+
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.FAILED, Outcome.FAILED));
+        assertThat(counter("hanging-cluster", "failed"), equalTo(1.0));
+        assertThat(counter("fast-cluster", "failed"), equalTo(1.0));
+    }
+
+    @Test
+    void skip_cluster_that_is_being_synced() throws InterruptedException {
+        executor = executor(false, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        CountDownLatch releaseSync = new CountDownLatch(1);
+        when(clusterResourcesLoader.loadClusterResources(any(ClusterInfo.class))).thenAnswer(invocation -> {
+            syncStarted.countDown();
+            releaseSync.await(5, TimeUnit.SECONDS);
+            return "state-digest";
+        });
+        Thread runningSync = new Thread(() -> executor.syncNow(FAST_CLUSTER));
+        runningSync.start();
+        assertThat(syncStarted.await(5, TimeUnit.SECONDS), is(true));
+
+        List<ClusterSyncResult> results = executor.syncAll(List.of(FAST_CLUSTER));
+        releaseSync.countDown();
+        runningSync.join(5000);
+
+        assertThat(results.stream().map(ClusterSyncResult::outcome).toList(), contains(Outcome.SKIPPED));
+        verify(clusterResourcesLoader, times(1)).loadClusterResources(FAST_CLUSTER);
+    }
+
+    private AtomicInteger hangOn(ClusterInfo hangingCluster) {
+        AtomicInteger interruptedExecutions = new AtomicInteger();
+        when(clusterResourcesLoader.loadClusterResources(any(ClusterInfo.class))).thenAnswer(invocation -> {
+            if (hangingCluster.equals(invocation.getArgument(0))) {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interruptedExecutions.incrementAndGet();
+                }
+                return null;
+            }
+            return "state-digest";
+        });
+        return interruptedExecutions;
+    }
+
+    private ClusterSyncExecutor executor(boolean virtualThreads, Duration clusterTimeout, Duration runTimeout) {
+        return new ClusterSyncExecutor(clusterResourcesLoader, meterRegistry, 5, virtualThreads, 20, clusterTimeout, runTimeout);
+    }
+
+    private double counter(String clusterName, String outcome) {
+        return meterRegistry.counter("colly.cluster.sync", "cluster", clusterName, "outcome", outcome).count();
+    }
+
+    private static ClusterInfo clusterInfo(String id, String name) {
+        return new ClusterInfo(id, name, "token", "https://api.example.com", "example.com", Set.of(), null, null);
+    }
+}
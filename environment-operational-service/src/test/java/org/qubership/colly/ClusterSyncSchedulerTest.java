@@ -0,0 +1,189 @@
+package org.qubership.colly;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.ClusterSyncExecutor.ClusterSyncResult;
+import org.qubership.colly.ClusterSyncExecutor.Outcome;
+import org.qubership.colly.ClusterSyncScheduler.ClusterSyncState;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ClusterSyncSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final ClusterInfo CLUSTER_1 = clusterInfo("1");
+    private static final ClusterInfo CLUSTER_2 = clusterInfo("2");
+
+    private ClusterSyncScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = schedulerAt(NOW);
+    }
+
+    @Test
+    void clusters_never_synced_are_due() {
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1, CLUSTER_2)), contains(CLUSTER_1, CLUSTER_2));
+    }
+
+    @Test
+    void cluster_is_not_due_until_interval_passes() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1, CLUSTER_2)), contains(CLUSTER_2));
+        assertThat(scheduler.getState("1").map(ClusterSyncState::nextSyncAt).orElseThrow(), equalTo(NOW.plus(Duration.ofMinutes(1))));
+    }
+
+    @Test
+    void interval_doubles_up_to_max_while_state_does_not_change() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        assertThat(interval("1"), equalTo(Duration.ofMinutes(2)));
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+
+        assertThat(interval("1"), equalTo(Duration.ofMinutes(10)));
+        assertThat(scheduler.getState("1").map(ClusterSyncState::lastChangedAt).orElseThrow(), equalTo(NOW));
+    }
+
+    @Test
+    void interval_is_reset_when_state_changes() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(completed("1", "new-digest", Duration.ofSeconds(1)));
+
+        assertThat(interval("1"), equalTo(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void failures_back_off_exponentially() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.record(result("1", Outcome.FAILED, null, Duration.ofSeconds(1)));
+        scheduler.record(result("1", Outcome.TIMED_OUT, null, Duration.ofSeconds(1)));
+
+        ClusterSyncState state = scheduler.getState("1").orElseThrow();
+        assertThat(state.failureStreak(), equalTo(2));
+        assertThat(state.interval(), equalTo(Duration.ofMinutes(4)));
+        assertThat(state.stateDigest(), equalTo("digest"));
+
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        assertThat(scheduler.getState("1").map(ClusterSyncState::failureStreak).orElseThrow(), equalTo(0));
+        assertThat(interval("1"), equalTo(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void interval_is_at_least_twice_the_last_sync_duration() {
+        scheduler.record(completed("1", "digest", Duration.ofMinutes(3)));
+
+        assertThat(interval("1"), equalTo(Duration.ofMinutes(6)));
+    }
+
+    @Test
+    void skipped_sync_keeps_state() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        ClusterSyncState state = scheduler.getState("1").orElseThrow();
+
+        scheduler.record(result("1", Outcome.SKIPPED, null, Duration.ZERO));
+
+        assertThat(scheduler.getState("1").orElseThrow(), equalTo(state));
+    }
+
+    @Test
+    void cluster_not_started_within_run_budget_stays_due() {
+        scheduler.record(result("1", Outcome.CANCELLED, null, Duration.ZERO));
+
+        assertThat(scheduler.getState("1"), equalTo(Optional.empty()));
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1)), contains(CLUSTER_1));
+    }
+
+    @Test
+    void jitter_only_brings_next_sync_closer() {
+        scheduler = new ClusterSyncScheduler(Duration.ofMinutes(1), Duration.ofMinutes(10), 0.5, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+
+        Instant nextSyncAt = scheduler.getState("1").map(ClusterSyncState::nextSyncAt).orElseThrow();
+        assertThat(nextSyncAt, lessThanOrEqualTo(NOW.plus(Duration.ofMinutes(1))));
+        assertThat(nextSyncAt, greaterThanOrEqualTo(NOW.plus(Duration.ofSeconds(30))));
+    }
+
+    @Test
+    void cluster_marked_due_is_synced_at_next_tick() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+        scheduler.markDue("1");
+        scheduler.markDue("2");
+
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1, CLUSTER_2)), contains(CLUSTER_1, CLUSTER_2));
+        assertThat(scheduler.getState("1").map(ClusterSyncState::stateDigest).orElseThrow(), equalTo("digest"));
+        assertThat(scheduler.getState("2"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void state_of_removed_clusters_is_dropped() {
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+
+        scheduler.dueClusters(List.of(CLUSTER_2));
+
+        assertThat(scheduler.getState("1").isPresent(), is(false));
+    }
+
+    @Test
+    void cluster_is_due_once_next_sync_time_comes() {
+        AtomicReference<Instant> now = new AtomicReference<>(NOW);
+        scheduler = new ClusterSyncScheduler(Duration.ofMinutes(1), Duration.ofMinutes(10), 0, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        });
+        scheduler.record(completed("1", "digest", Duration.ofSeconds(1)));
+
+        now.set(NOW.plusSeconds(59));
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1)), empty());
+        now.set(NOW.plusSeconds(60));
+        assertThat(scheduler.dueClusters(List.of(CLUSTER_1)), contains(CLUSTER_1));
+    }
+
+    private Duration interval(String clusterId) {
+        return scheduler.getState(clusterId).map(ClusterSyncState::interval).orElseThrow();
+    }
+
+    private static ClusterSyncScheduler schedulerAt(Instant now) {
+        return new ClusterSyncScheduler(Duration.ofMinutes(1), Duration.ofMinutes(10), 0, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static ClusterSyncResult completed(String clusterId, String digest, Duration duration) {
+        return result(clusterId, Outcome.COMPLETED, digest, duration);
+    }
+
+    private static ClusterSyncResult result(String clusterId, Outcome outcome, String digest, Duration duration) {
+        return new ClusterSyncResult(clusterId, "cluster-" + clusterId, outcome, NOW, duration, digest);
+    }
+
+    private static ClusterInfo clusterInfo(String id) {
+        return new ClusterInfo(id, "cluster-" + id, "token", "https://api.example.com", "example.com", Set.of(), null, null);
+    }
+}
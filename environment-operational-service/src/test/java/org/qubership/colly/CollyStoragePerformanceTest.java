@@ -1,13 +1,33 @@
 package org.qubership.colly;
 
+import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.Test;
+import org.qubership.colly.cloudpassport.CloudPassportEnvironment;
 import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.db.data.Cluster;
+import org.qubership.colly.db.data.DeploymentOperation;
+import org.qubership.colly.db.data.Environment;
+import org.qubership.colly.db.data.Namespace;
+import org.qubership.colly.db.repository.ClusterRepository;
+import org.qubership.colly.db.repository.DeploymentOperationRepository;
+import org.qubership.colly.db.repository.EnvironmentRepository;
+import org.qubership.colly.db.repository.NamespaceRepository;
+import org.qubership.colly.db.repository.RedisBatchWriter;
+import org.qubership.colly.db.repository.RedisWriteBatch;
+import org.qubership.colly.dto.EnvironmentDTO;
+import org.qubership.colly.dto.NamespaceDTO;
+import org.qubership.colly.mapper.ClusterMapper;
+import org.qubership.colly.mapper.EnvironmentMapper;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
@@ -29,6 +49,87 @@ class CollyStoragePerformanceTest {
     @InjectMock
     ClusterResourcesLoader clusterResourcesLoader;
 
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    RedisBatchWriter batchWriter;
+
+    @Inject
+    ClusterRepository clusterRepository;
+
+    @Inject
+    EnvironmentRepository environmentRepository;
+
+    @Inject
+    DeploymentOperationRepository deploymentOperationRepository;
+
+    @Inject
+    EnvironmentMapper environmentMapper;
+
+    @Inject
+    ClusterMapper clusterMapper;
+
+    @Inject
+    NamespaceRepository namespaceRepository;
+
+    @Test
+    void getEnvironments_10k_environments_shouldBeFasterThanNestedScanAndReadsPerEntity() {
+        final int clusterCount = 100;
+        final int environmentsPerCluster = 100;
+
+        redisDataSource.flushall();
+        RedisWriteBatch batch = new RedisWriteBatch();
+        List<ClusterInfo> clusterInfos = new ArrayList<>();
+        for (int c = 0; c < clusterCount; c++) {
+            Cluster cluster = Cluster.builder().id("cluster-id-" + c).name("cluster-" + c).build();
+            clusterRepository.save(cluster, batch);
+            Set<CloudPassportEnvironment> inventoryEnvironments = new LinkedHashSet<>();
+            for (int e = 0; e < environmentsPerCluster; e++) {
+                Environment environment = new Environment("env-id-" + c + "-" + e, "env-" + e);
+                environment.setClusterId(cluster.getId());
+                environment.setMonitoringData(Map.of("Running Pods", Integer.toString(e)));
+                for (int n = 0; n < 2; n++) {
+                    Namespace namespace = new Namespace();
+                    namespace.setId(environment.getId() + "-ns-" + n);
+                    namespace.setName(environment.getName() + "-ns-" + n);
+                    namespace.setClusterId(cluster.getId());
+                    namespace.setEnvironmentId(environment.getId());
+                    namespace.setExistsInK8s(true);
+                    namespaceRepository.save(namespace, null, batch);
+                    environment.addNamespaceId(namespace.getId());
+                }
+                environmentRepository.save(environment, null, batch);
+                inventoryEnvironments.add(new CloudPassportEnvironment(environment.getId(), environment.getName(), null, List.of()));
+            }
+            clusterInfos.add(new ClusterInfo(cluster.getId(), cluster.getName(), null, null, null, inventoryEnvironments, null, null));
+        }
+        batchWriter.write(batch);
+        when(envgeneInventoryService.getClusterInfos()).thenReturn(clusterInfos);
+
+        // warm up the shared read and mapping path
+        collyStorage.getEnvironments();
+
+        long legacyStart = System.nanoTime();
+        List<EnvironmentDTO> legacyResult = getEnvironmentsWithNestedScan();
+        long legacyDurationMs = (System.nanoTime() - legacyStart) / 1_000_000;
+
+        long hashJoinStart = System.nanoTime();
+        List<EnvironmentDTO> hashJoinResult = collyStorage.getEnvironments();
+        long hashJoinDurationMs = (System.nanoTime() - hashJoinStart) / 1_000_000;
+
+        assertEquals(clusterCount * environmentsPerCluster, hashJoinResult.size());
+        assertEquals(legacyResult, hashJoinResult);
+        assertTrue(hashJoinDurationMs < legacyDurationMs,
+                String.format("Hash join with batched mapping took %dms but nested scan with reads per entity took %dms", hashJoinDurationMs, legacyDurationMs));
+
+        System.out.println("getEnvironments benchmark results:");
+        System.out.printf("  Environments: %d in %d clusters, 2 namespaces each%n", clusterCount * environmentsPerCluster, clusterCount);
+        System.out.printf("  Nested scan, reads per entity request latency: %dms%n", legacyDurationMs);
+        System.out.printf("  Hash join, batched mapping request latency: %dms%n", hashJoinDurationMs);
+        System.out.printf("  Performance improvement: %.1fx%n", (double) legacyDurationMs / Math.max(hashJoinDurationMs, 1));
+    }
+
     @Test
     void syncAllClusters_performanceTest_shouldBeSignificantlyFasterThanSequential() {
         final int clusterCount = 10;
@@ -120,4 +221,43 @@ void syncAllClusters_stressTest_shouldHandleManyClustersConcurrently() {
         System.out.printf("  Execution time: %dms%n", actualDuration);
         System.out.printf("  Performance improvement: %.1fx%n", (double) sequentialDuration / actualDuration);
     }
+
+    // getEnvironments before the hash join and batched mapping: every inventory environment is matched by a scan over
+    // all environments, its cluster and namespaces are read one by one
+    private List<EnvironmentDTO> getEnvironmentsWithNestedScan() {
+        List<ClusterInfo> clusterInfos = envgeneInventoryService.getClusterInfos();
+        List<Environment> operationalEnvironments = environmentRepository.findAll();
+        Map<String, List<DeploymentOperation>> deploymentOperations = deploymentOperationRepository.findByEnvironmentIds(
+                operationalEnvironments.stream().map(Environment::getId).toList());
+        List<EnvironmentDTO> result = new ArrayList<>();
+        for (ClusterInfo clusterInfo : clusterInfos) {
+            for (CloudPassportEnvironment inventoryEnv : clusterInfo.environments()) {
+                Environment operationalEnv = operationalEnvironments.stream()
+                        .filter(env -> env.getName().equals(inventoryEnv.name()) && clusterInfo.id().equals(env.getClusterId()))
+                        .findFirst()
+                        .orElse(null);
+                if (operationalEnv == null) {
+                    continue;
+                }
+                operationalEnv.setDeploymentOperations(deploymentOperations.get(operationalEnv.getId()));
+                result.add(toDTOWithReadsPerEntity(operationalEnv));
+            }
+        }
+        return result.stream()
+                .sorted(Comparator.comparing((EnvironmentDTO e) -> e.cluster().name() != null ? e.cluster().name() : "")
+                        .thenComparing(EnvironmentDTO::name))
+                .toList();
+    }
+
+    private EnvironmentDTO toDTOWithReadsPerEntity(Environment environment) {
+        List<NamespaceDTO> namespaces = new ArrayList<>();
+        for (String namespaceId : environment.getNamespaceIds()) {
+            namespaceRepository.findByUid(namespaceId).ifPresent(ns -> namespaces.add(new NamespaceDTO(ns.getId(), ns.getName(), ns.getExistsInK8s())));
+        }
+        return new EnvironmentDTO(environment.getId(), environment.getName(), namespaces,
+                clusterMapper.toDTO(clusterRepository.findById(environment.getClusterId())),
+                environment.getCleanInstallationDate(),
+                environment.getDeploymentOperations().stream().map(environmentMapper::toDTO).toList(),
+                environment.getMonitoringData());
+    }
 }
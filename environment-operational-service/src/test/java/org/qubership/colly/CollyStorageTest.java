@@ -177,4 +177,47 @@ void executeTask_shouldExecuteInCorrectOrder() {
         assertTrue(endTime - startTime < 150,
                 "Parallel execution should be faster than sequential. Took: " + (endTime - startTime) + "ms");
     }
+
+    @Test
+    void syncDueClusters_shouldSkipClustersSyncedRecently() {
+        ClusterInfo syncedCluster = new ClusterInfo("due-1", "synced-cluster", "token1", "host1", "host1", Set.of(), null, null);
+        ClusterInfo newCluster = new ClusterInfo("due-2", "new-cluster", "token2", "host2", "host2", Set.of(), null, null);
+        when(clusterResourcesLoader.loadClusterResources(any(ClusterInfo.class))).thenReturn("state-digest");
+        when(envgeneInventoryService.getClusterInfos()).thenReturn(List.of(syncedCluster));
+        collyStorage.syncDueClusters();
+
+        when(envgeneInventoryService.getClusterInfos()).thenReturn(List.of(syncedCluster, newCluster));
+        collyStorage.syncDueClusters();
+
+        verify(clusterResourcesLoader, times(1)).loadClusterResources(syncedCluster);
+        verify(clusterResourcesLoader, times(1)).loadClusterResources(newCluster);
+    }
+
+    @Test
+    void syncCluster_shouldWaitForRunningSyncOfSameCluster() throws InterruptedException {
+        ClusterInfo cluster = new ClusterInfo("exclusive-1", "exclusive-cluster", "token", "host", "host", Set.of(), null, null);
+        when(envgeneInventoryService.getClusterInfos()).thenReturn(List.of(cluster));
+
+        CountDownLatch scheduledSyncStarted = new CountDownLatch(1);
+        AtomicInteger concurrentExecutions = new AtomicInteger(0);
+        AtomicInteger maxConcurrentExecutions = new AtomicInteger(0);
+        doAnswer(invocation -> {
+            int current = concurrentExecutions.incrementAndGet();
+            maxConcurrentExecutions.updateAndGet(max -> Math.max(max, current));
+            scheduledSyncStarted.countDown();
+            Thread.sleep(300);
+            concurrentExecutions.decrementAndGet();
+            return "state-digest";
+        }).when(clusterResourcesLoader).loadClusterResources(any(ClusterInfo.class));
+
+        Thread scheduledSync = new Thread(() -> collyStorage.syncAllClusters());
+        scheduledSync.start();
+        assertTrue(scheduledSyncStarted.await(5, TimeUnit.SECONDS));
+
+        collyStorage.syncCluster("exclusive-1");
+        scheduledSync.join(5000);
+
+        verify(clusterResourcesLoader, times(2)).loadClusterResources(cluster);
+        assertEquals(1, maxConcurrentExecutions.get(), "Syncs of the same cluster should not overlap");
+    }
 }
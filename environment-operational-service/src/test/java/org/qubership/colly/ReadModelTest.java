@@ -0,0 +1,108 @@
+package org.qubership.colly;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+import org.qubership.colly.db.data.Cluster;
+import org.qubership.colly.dto.ClusterDTO;
+import org.qubership.colly.dto.EnvironmentDTO;
+import org.qubership.colly.mapper.ClusterMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadModelTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-10T00:00:00Z");
+
+    private CollyStorage collyStorage;
+    private ReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        collyStorage = mock(CollyStorage.class);
+        when(collyStorage.getClusters()).thenReturn(List.of(Cluster.builder().id("cluster-id").name("cluster").build()));
+        readModel = new ReadModel(collyStorage, new ClusterMapper(), Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void serve_requests_from_snapshot_until_sync_completes() {
+        when(collyStorage.getEnvironments()).thenReturn(List.of(environment("env-1")));
+
+        ReadModelSnapshot first = readModel.current();
+        assertThat(first.version(), is(1L));
+        assertThat(first.builtAt(), equalTo(NOW));
+        assertThat(first.environments().stream().map(EnvironmentDTO::name).toList(), contains("env-1"));
+        assertThat(first.clusters(), contains(new ClusterDTO("cluster-id", "cluster", null, null)));
+        assertThat(readModel.current(), sameInstance(first));
+        verify(collyStorage, times(1)).getEnvironments();
+
+        List<ClusterInfo> clusterInfos = List.of(new ClusterInfo("cluster-id", "cluster", null, null, null, Set.of(), null, null));
+        when(collyStorage.getEnvironments(clusterInfos)).thenReturn(List.of(environment("env-1"), environment("env-2")));
+        readModel.onSyncCompleted(new ClusterSyncCompleted(clusterInfos));
+
+        ReadModelSnapshot second = readModel.current();
+        assertThat(second.version(), is(2L));
+        assertThat(second.environments(), hasSize(2));
+    }
+
+    @Test
+    void build_snapshot_once_for_concurrent_first_requests() throws Exception {
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch releaseBuild = new CountDownLatch(1);
+        when(collyStorage.getEnvironments()).thenAnswer(invocation -> {
+            buildStarted.countDown();
+            releaseBuild.await();
+            return List.of(environment("env-1"));
+        });
+
+        CompletableFuture<ReadModelSnapshot> first = CompletableFuture.supplyAsync(readModel::current);
+        buildStarted.await();
+        Thread secondRequest = new Thread(readModel::current);
+        secondRequest.start();
+        while (secondRequest.getState() != Thread.State.BLOCKED) {
+            Thread.onSpinWait();
+        }
+        releaseBuild.countDown();
+        secondRequest.join();
+
+        assertThat(first.get().version(), is(1L));
+        assertThat(readModel.current(), sameInstance(first.get()));
+        verify(collyStorage, times(1)).getEnvironments();
+    }
+
+    @Test
+    void keep_previous_snapshot_if_rebuild_fails() {
+        when(collyStorage.getEnvironments()).thenReturn(List.of(environment("env-1")));
+        ReadModelSnapshot first = readModel.current();
+
+        when(collyStorage.getClusters()).thenThrow(new RuntimeException("redis is unavailable"));
+        readModel.onSyncCompleted(new ClusterSyncCompleted(List.of()));
+
+        assertThat(readModel.current(), sameInstance(first));
+    }
+
+    @Test
+    void report_snapshot_older_than_max_staleness_as_stale() {
+        assertThat(readModel.isStale(new ReadModelSnapshot(1, NOW.minus(Duration.ofMinutes(10)), List.of(), List.of())), is(false));
+        assertThat(readModel.isStale(new ReadModelSnapshot(1, NOW.minus(Duration.ofMinutes(31)), List.of(), List.of())), is(true));
+    }
+
+    private static EnvironmentDTO environment(String name) {
+        return new EnvironmentDTO(name + "-id", name, List.of(), null, null, List.of(), Map.of());
+    }
+}
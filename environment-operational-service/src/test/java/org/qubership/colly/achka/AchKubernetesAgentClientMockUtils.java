@@ -1,5 +1,10 @@
 package org.qubership.colly.achka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -11,7 +16,24 @@ public static AchKubernetesAgentClient mockAchkaRestClient(AchKubernetesAgentCli
         AchKubernetesAgentClient client = mock(AchKubernetesAgentClient.class);
         when(clientFactory.create(anyString())).thenReturn(client);
         when(client.versions(anyList(), anyString())).thenReturn(response);
+        byte[] responseBody = toJson(response);
+        when(client.versionsStream(anyList(), anyString())).thenAnswer(invocation -> new ByteArrayInputStream(responseBody));
+        return client;
+    }
+
+    public static AchKubernetesAgentClient mockFailingAchkaRestClient(AchKubernetesAgentClientFactory clientFactory, RuntimeException exception) {
+        AchKubernetesAgentClient client = mock(AchKubernetesAgentClient.class);
+        when(clientFactory.create(anyString())).thenReturn(client);
+        when(client.versions(anyList(), anyString())).thenThrow(exception);
+        when(client.versionsStream(anyList(), anyString())).thenThrow(exception);
         return client;
     }
-}
 
+    private static byte[] toJson(AchKubernetesAgentClient.AchkaResponse response) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
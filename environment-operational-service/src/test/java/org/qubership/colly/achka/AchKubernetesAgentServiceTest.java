@@ -12,6 +12,7 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -23,8 +24,13 @@
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.qubership.colly.achka.AchKubernetesAgentClientMockUtils.mockAchkaRestClient;
+import static org.qubership.colly.achka.AchKubernetesAgentClientMockUtils.mockFailingAchkaRestClient;
 
 @QuarkusTest
 class AchKubernetesAgentServiceTest {
@@ -159,7 +165,7 @@ void shouldPassCorrectParametersToClient() {
         service.getDeploymentOperations("https://achka.cloud.example.com", namespaces);
 
         verify(clientFactory).create("https://achka.cloud.example.com");
-        verify(client).versions(namespaces, "deployment_session_id");
+        verify(client).versionsStream(namespaces, "deployment_session_id");
     }
 
     @Test
@@ -197,6 +203,107 @@ void shouldProcessValidSessionsFromAchkaResponseValidJson() throws IOException {
 
     }
 
+    @Test
+    void shouldLoadAllEnvironmentsOfClusterWithOneCall() {
+        Map<String, List<ApplicationsVersion>> sessions = new LinkedHashMap<>();
+        sessions.put("session:1", List.of(
+                new ApplicationsVersion("sd-product-a", "SUCCESS", "1000000", "t1", "ns1"),
+                new ApplicationsVersion("sd-product-b", "FAILED", "2000000", "t1", "ns3")
+        ));
+        sessions.put("session:2", List.of(
+                new ApplicationsVersion("sd-project-c", "SUCCESS", "3000000", "t2", "ns2")
+        ));
+        AchKubernetesAgentClient client = mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(sessions));
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-a", List.of("ns1", "ns2"));
+        namespacesByEnvironment.put("env-b", List.of("ns3"));
+        namespacesByEnvironment.put("env-c", List.of("ns4"));
+
+        Map<String, Map<String, DeploymentOperation>> result = service.getDeploymentOperations("https://achka.cloud.example.com", namespacesByEnvironment);
+
+        verify(client).versionsStream(List.of("ns1", "ns2", "ns3", "ns4"), "deployment_session_id");
+        assertThat(result.get("env-a").keySet(), contains("session:1", "session:2"));
+        assertThat(result.get("env-a").values(), contains(
+                new DeploymentOperation(Instant.ofEpochMilli(1000000L), List.of(new DeploymentItem("sd-product-a", DeploymentStatus.SUCCESS, DeploymentItemType.PRODUCT))),
+                new DeploymentOperation(Instant.ofEpochMilli(3000000L), List.of(new DeploymentItem("sd-project-c", DeploymentStatus.SUCCESS, DeploymentItemType.PROJECT)))));
+        assertThat(result.get("env-b").values(), contains(
+                new DeploymentOperation(Instant.ofEpochMilli(2000000L), List.of(new DeploymentItem("sd-product-b", DeploymentStatus.FAILED, DeploymentItemType.PRODUCT)))));
+        assertTrue(result.get("env-c").isEmpty());
+    }
+
+    @Test
+    void shouldLoadEnvironmentsOfClusterPerEnvironmentWhenNamespacesAreNotReported() {
+        var response = new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:1", List.of(new ApplicationsVersion("sd-product-a", "SUCCESS", "1000000", "t1"))
+        ));
+        AchKubernetesAgentClient client = mockAchkaRestClient(clientFactory, response);
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-a", List.of("ns1"));
+        namespacesByEnvironment.put("env-b", List.of("ns2"));
+
+        Map<String, Map<String, DeploymentOperation>> result = service.getDeploymentOperations("https://achka-without-namespaces.example.com", namespacesByEnvironment);
+        service.getDeploymentOperations("https://achka-without-namespaces.example.com", namespacesByEnvironment);
+
+        verify(client, times(1)).versionsStream(List.of("ns1", "ns2"), "deployment_session_id");
+        verify(client, times(2)).versionsStream(List.of("ns1"), "deployment_session_id");
+        verify(client, times(2)).versionsStream(List.of("ns2"), "deployment_session_id");
+        assertEquals(1, result.get("env-a").size());
+        assertEquals(1, result.get("env-b").size());
+    }
+
+    @Test
+    void shouldCheckAgainWhetherNamespacesAreReportedAfterRecheckInterval() {
+        AchKubernetesAgentService serviceWithoutRecheckDelay = new AchKubernetesAgentService(clientFactory, new ObjectMapper(),
+                "(?i)product", "(?i)project", true, 200, Duration.ZERO, true);
+        AchKubernetesAgentClient client = mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:1", List.of(new ApplicationsVersion("sd-product-a", "SUCCESS", "1000000", "t1")))));
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-a", List.of("ns1"));
+        namespacesByEnvironment.put("env-b", List.of("ns2"));
+
+        serviceWithoutRecheckDelay.getDeploymentOperations("https://achka.cloud.example.com", namespacesByEnvironment);
+        serviceWithoutRecheckDelay.getDeploymentOperations("https://achka.cloud.example.com", namespacesByEnvironment);
+
+        verify(client, times(2)).versionsStream(List.of("ns1", "ns2"), "deployment_session_id");
+    }
+
+    @Test
+    void shouldKeepSessionsOfLoadedChunksWhenOneChunkFails() {
+        AchKubernetesAgentService serviceWithOneNamespacePerCall = new AchKubernetesAgentService(clientFactory, new ObjectMapper(),
+                "(?i)product", "(?i)project", true, 1, Duration.ofHours(1), true);
+        AchKubernetesAgentClient client = mockAchkaRestClient(clientFactory, new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "session:1", List.of(new ApplicationsVersion("sd-product-a", "SUCCESS", "1000000", "t1", "ns1")))));
+        doThrow(new RuntimeException("Simulated failure")).when(client).versionsStream(List.of("ns2"), "deployment_session_id");
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-a", List.of("ns1"));
+        namespacesByEnvironment.put("env-b", List.of("ns2"));
+
+        Map<String, Map<String, DeploymentOperation>> result = serviceWithOneNamespacePerCall.getDeploymentOperations("https://achka.cloud.example.com", namespacesByEnvironment);
+
+        assertThat(result.get("env-a").keySet(), contains("session:1"));
+        assertTrue(result.get("env-b").isEmpty());
+    }
+
+    @Test
+    void shouldReturnNoOperationsForClusterWhenAchkaFails() {
+        AchKubernetesAgentClient client = mockFailingAchkaRestClient(clientFactory, new RuntimeException("Simulated failure"));
+
+        Map<String, Map<String, DeploymentOperation>> result = service.getDeploymentOperations("https://achka.cloud.example.com",
+                Map.of("env-a", List.of("ns1"), "env-b", List.of("ns2")));
+
+        assertTrue(result.getOrDefault("env-a", Map.of()).isEmpty());
+        assertTrue(result.getOrDefault("env-b", Map.of()).isEmpty());
+        verify(client, times(1)).versionsStream(anyList(), anyString());
+    }
+
+    @Test
+    void shouldParseNamespaceOfApplicationVersion() throws IOException {
+        ApplicationsVersion applicationsVersion = new ObjectMapper().readValue(
+                "{\"source\":\"sd-a\",\"deploy_status\":\"SUCCESS\",\"deploy_date\":1756400000,\"namespace\":\"ns1\"}", ApplicationsVersion.class);
+
+        assertEquals(new ApplicationsVersion("sd-a", "SUCCESS", "1756400000", null, "ns1"), applicationsVersion);
+    }
+
     private AchKubernetesAgentClient.AchkaResponse loadAchkaResponse(String filename) throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         try (InputStream is = getClass().getClassLoader().getResourceAsStream(filename)) {
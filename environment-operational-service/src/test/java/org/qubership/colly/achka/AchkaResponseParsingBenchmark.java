@@ -0,0 +1,91 @@
+package org.qubership.colly.achka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares binding of the achka versions response to {@link ApplicationsVersion} objects followed by grouping
+ * with the streaming aggregation of {@link DeploymentSessions#parse}. Not a test, run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.qubership.colly.achka.AchkaResponseParsingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AchkaResponseParsingBenchmark {
+
+    @Param({"1000", "10000"})
+    int sessions;
+
+    @Param({"50"})
+    int applicationsPerSession;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] response;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, List<Map<String, Object>>> versions = new LinkedHashMap<>();
+        for (int session = 0; session < sessions; session++) {
+            List<Map<String, Object>> applications = new ArrayList<>(applicationsPerSession);
+            for (int app = 0; app < applicationsPerSession; app++) {
+                Map<String, Object> application = new LinkedHashMap<>();
+                application.put("app_version", "app-" + app + ":1.0." + session);
+                application.put("source", "sd-product-" + (app % 5) + ":" + session);
+                application.put("ticket_id", "TICKET-" + session);
+                application.put("deploy_status", app % 17 == 0 ? "FAILED" : "SUCCESS");
+                application.put("deploy_date", 1756400000L + session * 100L + app);
+                application.put("namespace", "namespace-" + (app % 3));
+                applications.add(application);
+            }
+            versions.put("session-" + session, applications);
+        }
+        response = objectMapper.writeValueAsBytes(Map.of("versions", versions));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Long>> bindAndGroup() throws IOException {
+        AchKubernetesAgentClient.AchkaResponse bound = objectMapper.readValue(response, AchKubernetesAgentClient.AchkaResponse.class);
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        bound.deploymentSessionIdToApplicationVersions().forEach((sessionId, applications) -> result.put(sessionId, applications.stream()
+                .filter(appVer -> appVer.source() != null && appVer.deployDate() != null)
+                .collect(Collectors.groupingBy(ApplicationsVersion::source,
+                        Collectors.collectingAndThen(
+                                Collectors.maxBy((a, b) -> Long.compare(Long.parseLong(a.deployDate()), Long.parseLong(b.deployDate()))),
+                                max -> Long.parseLong(max.orElseThrow().deployDate()))))));
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Map<String, DeploymentSessions.SdState>> streamingAggregate() throws IOException {
+        return DeploymentSessions.parse(new ByteArrayInputStream(response), objectMapper.getFactory()).forNamespaces(null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AchkaResponseParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package org.qubership.colly.achka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class DeploymentSessionsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void streaming_parse_matches_bound_response() throws IOException {
+        DeploymentSessions parsed;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("achka_response_valid.json")) {
+            parsed = DeploymentSessions.parse(is, objectMapper.getFactory());
+        }
+        DeploymentSessions bound;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("achka_response_valid.json")) {
+            bound = DeploymentSessions.of(objectMapper.readValue(is, AchKubernetesAgentClient.AchkaResponse.class));
+        }
+
+        assertThat(summary(parsed.forNamespaces(null)), equalTo(summary(bound.forNamespaces(null))));
+        assertThat(summary(parsed.forNamespaces(null)), equalTo(Map.of(
+                "some-session-id", Map.of("sd-product-alpha:1", "1756500000/SUCCESS", "sd-product-beta:42", "1756600000/FAILED"),
+                "some-session-id-2", Map.of("sd-product-gamma:3", "1756700000/SUCCESS"))));
+    }
+
+    @Test
+    void skip_unknown_fields_and_accept_dates_as_strings() throws IOException {
+        String response = """
+                {"status": {"code": 200, "tags": ["a", "b"]},
+                 "versions": {
+                   "s1": [
+                     {"source": "sd-a", "extra": {"nested": [1, 2]}, "deploy_status": "FAILED", "deploy_date": "2000", "namespace": "ns1"},
+                     {"source": "sd-a", "deploy_status": "SUCCESS", "deploy_date": 3000, "namespace": "ns2"},
+                     {"source": "sd-b", "deploy_status": "SUCCESS", "deploy_date": null, "namespace": "ns1"}
+                   ],
+                   "None": [{"source": null, "deploy_date": 1}]
+                 },
+                 "total": 3}
+                """;
+
+        DeploymentSessions sessions = DeploymentSessions.parse(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), objectMapper.getFactory());
+
+        assertThat(sessions.namespacesReported(), is(true));
+        assertThat(summary(sessions.forNamespaces(null)), equalTo(Map.of("s1", Map.of("sd-a", "3000/FAILED"))));
+        assertThat(summary(sessions.forNamespaces(Set.of("ns1"))), equalTo(Map.of("s1", Map.of("sd-a", "2000/FAILED"))));
+        assertThat(sessions.forNamespaces(Set.of("ns3")), anEmptyMap());
+    }
+
+    @Test
+    void merge_sessions_of_several_responses() {
+        DeploymentSessions sessions = DeploymentSessions.of(new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "s1", List.of(new ApplicationsVersion("sd-a", "SUCCESS", "1000", null, "ns1")))));
+        sessions.addAll(DeploymentSessions.of(new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "s1", List.of(new ApplicationsVersion("sd-a", "FAILED", "500", null, "ns2"))))));
+        sessions.addAll(DeploymentSessions.of(new AchKubernetesAgentClient.AchkaResponse(Map.of(
+                "s2", List.of(new ApplicationsVersion("sd-b", "SUCCESS", "700", null))))));
+
+        assertThat(sessions.namespacesReported(), is(false));
+        assertThat(summary(sessions.forNamespaces(null)), equalTo(Map.of(
+                "s1", Map.of("sd-a", "1000/FAILED"),
+                "s2", Map.of("sd-b", "700/SUCCESS"))));
+    }
+
+    private static Map<String, Map<String, String>> summary(Map<String, Map<String, DeploymentSessions.SdState>> sessions) {
+        Map<String, Map<String, String>> summary = new LinkedHashMap<>();
+        sessions.forEach((sessionId, sds) -> {
+            Map<String, String> sdSummary = new LinkedHashMap<>();
+            sds.forEach((sdName, state) -> sdSummary.put(sdName, state.lastDeployDate() + "/" + (state.failed() ? "FAILED" : "SUCCESS")));
+            summary.put(sessionId, sdSummary);
+        });
+        return summary;
+    }
+}
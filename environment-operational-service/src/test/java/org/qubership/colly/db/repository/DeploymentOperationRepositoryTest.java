@@ -0,0 +1,110 @@
+package org.qubership.colly.db.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.mutiny.redis.client.Redis;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.db.data.DeploymentItem;
+import org.qubership.colly.db.data.DeploymentItemType;
+import org.qubership.colly.db.data.DeploymentOperation;
+import org.qubership.colly.db.data.DeploymentStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+class DeploymentOperationRepositoryTest {
+
+    private static final String ENV_ID = "env-1";
+    private static final Instant NOW = Instant.parse("2025-01-10T00:00:00Z");
+
+    @Inject
+    Redis redis;
+    @Inject
+    RedisDataSource redisDataSource;
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    RedisBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        redisDataSource.flushall();
+    }
+
+    @Test
+    void write_only_sessions_that_are_not_stored_yet() {
+        DeploymentOperationRepository repository = repository(100, Duration.ZERO);
+        save(repository, Map.of("session-1", operation("2025-01-01T00:00:00Z", "sd-1")));
+
+        RedisWriteBatch batch = new RedisWriteBatch();
+        repository.save(ENV_ID, Map.of("session-1", operation("2025-01-01T00:00:00Z", "sd-1")),
+                repository.findSessionTimes(List.of(ENV_ID)).get(ENV_ID), batch);
+        assertThat(batch.isEmpty(), is(true));
+
+        save(repository, Map.of("session-1", operation("2025-01-01T00:00:00Z", "sd-1"), "session-2", operation("2025-01-02T00:00:00Z", "sd-2")));
+        assertThat(repository.findSessionTimes(List.of(ENV_ID)).get(ENV_ID), equalTo(Map.of(
+                "session-1", Instant.parse("2025-01-01T00:00:00Z"),
+                "session-2", Instant.parse("2025-01-02T00:00:00Z"))));
+    }
+
+    @Test
+    void drop_sessions_beyond_retention() {
+        DeploymentOperationRepository repository = repository(2, Duration.ofDays(7));
+        Map<String, DeploymentOperation> operations = new LinkedHashMap<>();
+        operations.put("too-old", operation("2025-01-01T00:00:00Z", "sd-0"));
+        operations.put("session-1", operation("2025-01-04T00:00:00Z", "sd-1"));
+        operations.put("session-2", operation("2025-01-05T00:00:00Z", "sd-2"));
+        save(repository, operations);
+        assertThat(repository.findSessionTimes(List.of(ENV_ID)).get(ENV_ID).keySet(), containsInAnyOrder("session-1", "session-2"));
+
+        save(repository, Map.of("session-3", operation("2025-01-06T00:00:00Z", "sd-3")));
+
+        assertThat(repository.findByEnvironmentIds(List.of(ENV_ID)).get(ENV_ID), contains(
+                operation("2025-01-06T00:00:00Z", "sd-3"),
+                operation("2025-01-05T00:00:00Z", "sd-2")));
+    }
+
+    @Test
+    void find_operations_by_time_range_newest_first() {
+        DeploymentOperationRepository repository = repository(100, Duration.ZERO);
+        Map<String, DeploymentOperation> operations = new LinkedHashMap<>();
+        operations.put("session-1", operation("2025-01-01T00:00:00Z", "sd-1"));
+        operations.put("session-2", operation("2025-01-02T00:00:00Z", "sd-2"));
+        operations.put("session-3", operation("2025-01-03T00:00:00Z", "sd-3"));
+        operations.put("session-4", operation("2025-01-04T00:00:00Z", "sd-4"));
+        save(repository, operations);
+
+        assertThat(repository.findByEnvironmentId(ENV_ID, Instant.parse("2025-01-02T00:00:00Z"), Instant.parse("2025-01-03T00:00:00Z"), 10), contains(
+                operation("2025-01-03T00:00:00Z", "sd-3"),
+                operation("2025-01-02T00:00:00Z", "sd-2")));
+        assertThat(repository.findByEnvironmentId(ENV_ID, null, null, 1), contains(operation("2025-01-04T00:00:00Z", "sd-4")));
+        assertThat(repository.findByEnvironmentId("unknown", null, null, 10), empty());
+        assertThat(repository.findByEnvironmentIds(List.of("unknown")).get("unknown"), empty());
+    }
+
+    private void save(DeploymentOperationRepository repository, Map<String, DeploymentOperation> operations) {
+        RedisWriteBatch batch = new RedisWriteBatch();
+        repository.save(ENV_ID, operations, repository.findSessionTimes(List.of(ENV_ID)).get(ENV_ID), batch);
+        batchWriter.write(batch);
+    }
+
+    private DeploymentOperationRepository repository(int maxCount, Duration maxAge) {
+        return new DeploymentOperationRepository(redis, objectMapper, 500, maxCount, maxAge, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static DeploymentOperation operation(String completedAt, String sdName) {
+        return new DeploymentOperation(Instant.parse(completedAt), List.of(new DeploymentItem(sdName, DeploymentStatus.SUCCESS, DeploymentItemType.PRODUCT)));
+    }
+}
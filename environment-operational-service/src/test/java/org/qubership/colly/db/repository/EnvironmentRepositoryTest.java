@@ -0,0 +1,112 @@
+package org.qubership.colly.db.repository;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.db.data.Environment;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+class EnvironmentRepositoryTest {
+
+    private static final String ENV_ID = "env-1";
+    private static final String ENV_KEY = "operations:environment:" + ENV_ID;
+
+    @Inject
+    RedisDataSource redisDataSource;
+    @Inject
+    EnvironmentRepository environmentRepository;
+    @Inject
+    RedisBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        redisDataSource.flushall();
+    }
+
+    @Test
+    void write_only_changed_fields() {
+        Environment environment = environment();
+        environmentRepository.save(environment);
+        assertThat(redisDataSource.hash(String.class).hkeys(ENV_KEY), containsInAnyOrder("data", "monitoringData", "namespaceIds"));
+
+        Environment stored = environmentRepository.findById(ENV_ID).orElseThrow();
+        Environment changed = new Environment(stored);
+        RedisWriteBatch unchangedBatch = new RedisWriteBatch();
+        environmentRepository.save(changed, stored, unchangedBatch);
+
+        changed.setMonitoringData(Map.of("cpu", "2"));
+        RedisWriteBatch batch = new RedisWriteBatch();
+        environmentRepository.save(changed, stored, batch);
+        // index entries are written anyway, only the monitoring data field is added
+        assertThat(batch.size(), is(unchangedBatch.size() + 1));
+        batchWriter.write(batch);
+
+        Environment reloaded = environmentRepository.findById(ENV_ID).orElseThrow();
+        assertThat(reloaded.getMonitoringData(), equalTo(Map.of("cpu", "2")));
+        assertThat(reloaded.getNamespaceIds(), contains("ns-1", "ns-2"));
+        assertThat(reloaded.getCleanInstallationDate(), equalTo(Instant.parse("2025-01-01T00:00:00Z")));
+    }
+
+    @Test
+    void read_only_requested_fields() {
+        environmentRepository.save(environment());
+
+        Environment core = environmentRepository.findById(ENV_ID, EnvironmentRepository.CORE_FIELDS).orElseThrow();
+        assertThat(core.getName(), equalTo("env-name"));
+        assertThat(core.getClusterId(), equalTo("cluster-1"));
+        assertThat(core.getMonitoringData(), nullValue());
+        assertThat(core.getNamespaceIds(), empty());
+
+        List<Environment> withNamespaces = environmentRepository.findAll(EnumSet.of(EnvironmentRepository.Field.NAMESPACE_IDS));
+        assertThat(withNamespaces, hasSize(1));
+        assertThat(withNamespaces.getFirst().getNamespaceIds(), contains("ns-1", "ns-2"));
+        assertThat(withNamespaces.getFirst().getMonitoringData(), nullValue());
+
+        assertThat(environmentRepository.existsById(ENV_ID), is(true));
+        assertThat(environmentRepository.existsById("unknown"), is(false));
+        assertThat(environmentRepository.findById("unknown", EnvironmentRepository.CORE_FIELDS).isPresent(), is(false));
+    }
+
+    @Test
+    void keep_environment_written_in_single_field() {
+        redisDataSource.hash(String.class).hset(ENV_KEY, "data", """
+                {"id": "env-1", "name": "env-name", "clusterId": "cluster-1", "cleanInstallationDate": "2025-01-01T00:00:00Z",
+                 "monitoringData": {"cpu": "1"}, "namespaceIds": ["ns-1"]}""");
+
+        Environment stored = environmentRepository.findById(ENV_ID).orElseThrow();
+        assertThat(stored.getMonitoringData(), equalTo(Map.of("cpu", "1")));
+        assertThat(stored.getNamespaceIds(), contains("ns-1"));
+
+        Environment changed = new Environment(stored);
+        changed.setCleanInstallationDate(Instant.parse("2025-02-01T00:00:00Z"));
+        RedisWriteBatch batch = new RedisWriteBatch();
+        environmentRepository.save(changed, stored, batch);
+        batchWriter.write(batch);
+
+        assertThat(redisDataSource.hash(String.class).hget(ENV_KEY, "data"), not(containsString("monitoringData")));
+        Environment reloaded = environmentRepository.findById(ENV_ID).orElseThrow();
+        assertThat(reloaded.getCleanInstallationDate(), equalTo(Instant.parse("2025-02-01T00:00:00Z")));
+        assertThat(reloaded.getMonitoringData(), equalTo(Map.of("cpu", "1")));
+        assertThat(reloaded.getNamespaceIds(), contains("ns-1"));
+    }
+
+    private static Environment environment() {
+        Environment environment = new Environment(ENV_ID, "env-name");
+        environment.setClusterId("cluster-1");
+        environment.setCleanInstallationDate(Instant.parse("2025-01-01T00:00:00Z"));
+        environment.setMonitoringData(Map.of("cpu", "1"));
+        environment.addNamespaceId("ns-1");
+        environment.addNamespaceId("ns-2");
+        return environment;
+    }
+}
@@ -0,0 +1,105 @@
+package org.qubership.colly.db.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.db.data.Namespace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class RedisBulkReaderPerformanceTest {
+
+    private static final int ENTITY_COUNT = 10_000;
+    private static final String KEY_PREFIX = "operations:namespace:";
+    private static final Pattern SCAN_CALLS = Pattern.compile("cmdstat_scan:calls=(\\d+)");
+
+    @Inject
+    RedisBulkReader bulkReader;
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    Redis redis;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "colly.environment-operational-service.redis.bulk-read.batch-size")
+    int batchSize;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisDataSource.flushall();
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            Namespace namespace = new Namespace();
+            namespace.setId("ns-" + i);
+            namespace.setName("namespace-" + i);
+            namespace.setClusterId("cluster-" + i % 10);
+            namespace.setEnvironmentId("env-" + i % 1000);
+            requests.add(Request.cmd(Command.HSET).arg(KEY_PREFIX + namespace.getId()).arg("data").arg(objectMapper.writeValueAsString(namespace)));
+        }
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            redis.batchAndAwait(requests.subList(from, Math.min(from + batchSize, requests.size())));
+        }
+    }
+
+    @Test
+    void readAll_10k_entities_scanAndPipelinedBatchesShouldBeFasterThanKeysAndHgetPerKey() throws Exception {
+        // warm up both paths
+        readAllWithKeysAndHgetPerKey();
+        bulkReader.readAll(KEY_PREFIX, Namespace.class);
+
+        long legacyStart = System.nanoTime();
+        List<Namespace> legacyResult = readAllWithKeysAndHgetPerKey();
+        long legacyDurationMs = (System.nanoTime() - legacyStart) / 1_000_000;
+
+        long scanCallsBefore = scanCalls();
+        long bulkStart = System.nanoTime();
+        List<Namespace> bulkResult = bulkReader.readAll(KEY_PREFIX, Namespace.class);
+        long bulkDurationMs = (System.nanoTime() - bulkStart) / 1_000_000;
+        long scanRoundTrips = scanCalls() - scanCallsBefore;
+        long hgetRoundTrips = (ENTITY_COUNT + batchSize - 1) / batchSize;
+
+        assertEquals(ENTITY_COUNT, legacyResult.size());
+        assertEquals(ENTITY_COUNT, bulkResult.size());
+        assertTrue(bulkDurationMs < legacyDurationMs,
+                String.format("Bulk read took %dms but KEYS + HGET per key took %dms", bulkDurationMs, legacyDurationMs));
+
+        System.out.println("Redis bulk read benchmark results:");
+        System.out.printf("  Entities: %d%n", ENTITY_COUNT);
+        System.out.printf("  KEYS + HGET per key: %d round trips, %dms%n", ENTITY_COUNT + 1, legacyDurationMs);
+        System.out.printf("  SCAN + pipelined HGET: %d round trips (%d SCAN, %d HGET batches), %dms%n",
+                scanRoundTrips + hgetRoundTrips, scanRoundTrips, hgetRoundTrips, bulkDurationMs);
+        System.out.printf("  Performance improvement: %.1fx%n", (double) legacyDurationMs / Math.max(bulkDurationMs, 1));
+    }
+
+    private List<Namespace> readAllWithKeysAndHgetPerKey() throws Exception {
+        List<Namespace> namespaces = new ArrayList<>();
+        for (String key : redisDataSource.key(String.class).keys(KEY_PREFIX + "*")) {
+            String json = redisDataSource.hash(String.class, String.class, String.class).hget(key, "data");
+            namespaces.add(objectMapper.readValue(json, Namespace.class));
+        }
+        return namespaces;
+    }
+
+    private long scanCalls() {
+        Matcher matcher = SCAN_CALLS.matcher(redisDataSource.execute("INFO", "commandstats").toString());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
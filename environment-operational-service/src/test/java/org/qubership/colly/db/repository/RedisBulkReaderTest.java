@@ -0,0 +1,35 @@
+package org.qubership.colly.db.repository;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyCommands;
+import io.quarkus.redis.datasource.keys.KeyScanArgs;
+import io.quarkus.redis.datasource.keys.KeyScanCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RedisBulkReaderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scanKeys_shouldSkipKeysReturnedMoreThanOnce() {
+        RedisDataSource redisDataSource = mock(RedisDataSource.class);
+        KeyCommands<String> keyCommands = mock(KeyCommands.class);
+        KeyScanCursor<String> cursor = mock(KeyScanCursor.class);
+        when(redisDataSource.key(String.class)).thenReturn(keyCommands);
+        when(keyCommands.scan(any(KeyScanArgs.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(Set.of("operations:cluster:1"), Set.of("operations:cluster:1", "operations:cluster:2"));
+
+        List<String> keys = new RedisBulkReader(redisDataSource, null, null, 100).scanKeys("operations:cluster:");
+
+        assertThat(keys, containsInAnyOrder("operations:cluster:1", "operations:cluster:2"));
+    }
+}
@@ -0,0 +1,129 @@
+package org.qubership.colly.kubernetes;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1NodeList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.colly.cloudpassport.ClusterInfo;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KubernetesClientRegistryTest {
+
+    private MeterRegistry meterRegistry;
+    private KubernetesClientRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new KubernetesClientRegistry(meterRegistry, 2, Duration.ofMinutes(30), Duration.ofSeconds(5), Duration.ofSeconds(20));
+    }
+
+    @Test
+    void reuse_client_for_same_cluster_settings() throws IOException {
+        ApiClient first = registry.getClient(clusterInfo("1", "token"));
+        ApiClient second = registry.getClient(clusterInfo("1", "token"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.getHttpClient().connectTimeoutMillis(), equalTo(5000));
+        assertThat(first.getHttpClient().readTimeoutMillis(), equalTo(20000));
+        assertThat(meterRegistry.counter("colly.k8s.client.pool", "result", "hit").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("colly.k8s.client.pool", "result", "miss").count(), equalTo(1.0));
+    }
+
+    @Test
+    void share_connection_pool_with_watch_client() throws IOException {
+        ApiClient client = registry.getClient(clusterInfo("1", "token"));
+        ApiClient watchClient = registry.getWatchClient(clusterInfo("1", "token"));
+
+        assertThat(watchClient.getHttpClient().connectionPool(), sameInstance(client.getHttpClient().connectionPool()));
+        assertThat(watchClient.getHttpClient().dispatcher(), not(sameInstance(client.getHttpClient().dispatcher())));
+        assertThat(watchClient.getHttpClient().readTimeoutMillis(), equalTo(0));
+        assertThat(watchClient.getBasePath(), equalTo(client.getBasePath()));
+        assertThat(registry.size(), equalTo(1));
+    }
+
+    @Test
+    void rebuild_client_when_token_changes() throws IOException {
+        ApiClient first = registry.getClient(clusterInfo("1", "token"));
+        ApiClient second = registry.getClient(clusterInfo("1", "new-token"));
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(registry.size(), equalTo(1));
+    }
+
+    @Test
+    void evict_least_recently_used_client_when_registry_is_full() throws IOException {
+        ApiClient first = registry.getClient(clusterInfo("1", "token"));
+        ApiClient second = registry.getClient(clusterInfo("2", "token"));
+        registry.getClient(clusterInfo("1", "token"));
+        registry.getClient(clusterInfo("3", "token"));
+
+        assertThat(registry.size(), equalTo(2));
+        assertThat(registry.getClient(clusterInfo("1", "token")), sameInstance(first));
+        assertThat(registry.getClient(clusterInfo("2", "token")), not(sameInstance(second)));
+        assertThat(meterRegistry.counter("colly.k8s.client.pool.evictions").count(), equalTo(2.0));
+    }
+
+    @Test
+    void evict_idle_clients() throws IOException {
+        registry = new KubernetesClientRegistry(meterRegistry, 2, Duration.ZERO, Duration.ofSeconds(5), Duration.ofSeconds(20));
+        ApiClient first = registry.getClient(clusterInfo("1", "token"));
+
+        assertThat(registry.getClient(clusterInfo("1", "token")), not(sameInstance(first)));
+    }
+
+    @Test
+    void drop_clients_of_removed_clusters() throws IOException {
+        registry.getClient(clusterInfo("1", "token"));
+        registry.getClient(clusterInfo("2", "token"));
+
+        registry.retainClusters(Set.of("2"));
+
+        assertThat(registry.size(), equalTo(1));
+    }
+
+    @Test
+    void cancel_running_calls_of_cluster() throws Exception {
+        try (ServerSocket silentServer = new ServerSocket(0)) {
+            ClusterInfo clusterInfo = new ClusterInfo("1", "cluster-1", "token", "http://localhost:" + silentServer.getLocalPort(),
+                    "localhost", Set.of(), null, null);
+            ApiClient client = registry.getClient(clusterInfo);
+            CompletableFuture<V1NodeList> call = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new CoreV1Api(client).listNode().execute();
+                } catch (ApiException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (client.getHttpClient().dispatcher().runningCallsCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            registry.cancelCalls("1");
+
+            // the server never answers, so without the cancel the call would wait for the read timeout of 20 seconds
+            assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static ClusterInfo clusterInfo(String id, String token) {
+        return new ClusterInfo(id, "cluster-" + id, token, "https://api.example.com", "example.com", Set.of(), null, null);
+    }
+}
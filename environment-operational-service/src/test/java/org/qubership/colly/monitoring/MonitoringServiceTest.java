@@ -0,0 +1,144 @@
+package org.qubership.colly.monitoring;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.quarkiverse.wiremock.devservice.ConnectWireMock;
+import io.quarkiverse.wiremock.devservice.WireMockConfigKey;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@ConnectWireMock
+class MonitoringServiceTest {
+
+    private static final String RUNNING_PODS_QUERY = "count by (namespace) (kube_pod_status_phase{namespace=~\"ns-1|ns-2|ns-3\",phase=\"Running\"})";
+    private static final String FAILED_DEPLOYMENTS_QUERY = "count by (namespace) (kube_deployment_status_replicas_unavailable{namespace=~\"ns-1|ns-2|ns-3\"})";
+
+    @Inject
+    MonitoringService monitoringService;
+
+    @Inject
+    MonitoringClientRegistry monitoringClientRegistry;
+
+    WireMock wiremock;
+    @ConfigProperty(name = WireMockConfigKey.PORT)
+    Integer port;
+
+    @Test
+    void load_monitoring_data_of_cluster_with_one_grouped_query_per_param() {
+        mockQuery(RUNNING_PODS_QUERY, Map.of("ns-1", "2", "ns-2", "3", "ns-3", "4"));
+        mockQuery(FAILED_DEPLOYMENTS_QUERY, Map.of("ns-2", "1"));
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-a", List.of("ns-1", "ns-2"));
+        namespacesByEnvironment.put("env-b", List.of("ns-3"));
+
+        Map<String, Map<String, String>> monitoringData = monitoringService.loadMonitoringData("http://localhost:" + port, "cluster", namespacesByEnvironment);
+
+        assertThat(monitoringData.get("env-a"), allOf(hasEntry("Running Pods", "5"), hasEntry("Failed Deployments", "1")));
+        assertThat(monitoringData.get("env-b"), allOf(hasEntry("Running Pods", "4"), not(hasKey("Failed Deployments"))));
+        wiremock.verifyThat(1, getRequestedFor(urlPathEqualTo("/api/v1/query")).withQueryParam("query", WireMock.equalTo(RUNNING_PODS_QUERY)));
+        wiremock.verifyThat(1, getRequestedFor(urlPathEqualTo("/api/v1/query")).withQueryParam("query", WireMock.equalTo(FAILED_DEPLOYMENTS_QUERY)));
+    }
+
+    @Test
+    void keep_results_of_other_queries_when_one_query_fails() {
+        String runningPodsQuery = "count by (namespace) (kube_pod_status_phase{namespace=~\"ns-4|ns-5\",phase=\"Running\"})";
+        String failedDeploymentsQuery = "count by (namespace) (kube_deployment_status_replicas_unavailable{namespace=~\"ns-4|ns-5\"})";
+        mockQuery(runningPodsQuery, Map.of("ns-4", "2", "ns-5", "3"));
+        wiremock.register(WireMock.get(urlPathEqualTo("/api/v1/query"))
+                .withQueryParam("query", WireMock.equalTo(failedDeploymentsQuery))
+                .willReturn(WireMock.aResponse().withStatus(500)));
+        Map<String, List<String>> namespacesByEnvironment = new LinkedHashMap<>();
+        namespacesByEnvironment.put("env-c", List.of("ns-4"));
+        namespacesByEnvironment.put("env-d", List.of("ns-5"));
+
+        Map<String, Map<String, String>> monitoringData = monitoringService.loadMonitoringData("http://localhost:" + port, "cluster", namespacesByEnvironment);
+
+        assertThat(monitoringData.get("env-c"), allOf(hasEntry("Running Pods", "2"), not(hasKey("Failed Deployments"))));
+        assertThat(monitoringData.get("env-d"), allOf(hasEntry("Running Pods", "3"), not(hasKey("Failed Deployments"))));
+    }
+
+    @Test
+    void run_queries_of_environment_in_parallel() {
+        String runningPodsQuery = "count by (namespace) (kube_pod_status_phase{namespace=~\"slow-ns\",phase=\"Running\"})";
+        String failedDeploymentsQuery = "count by (namespace) (kube_deployment_status_replicas_unavailable{namespace=~\"slow-ns\"})";
+        mockQuery(runningPodsQuery, Map.of("slow-ns", "3"), 700);
+        mockQuery(failedDeploymentsQuery, Map.of("slow-ns", "1"), 700);
+
+        long start = System.nanoTime();
+        Map<String, String> monitoringData = monitoringService.loadMonitoringData("http://localhost:" + port, "env-slow", "cluster", List.of("slow-ns"));
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(monitoringData, allOf(hasEntry("Running Pods", "3"), hasEntry("Failed Deployments", "1")));
+        assertThat("Queries should run in parallel but took " + durationMs + "ms", durationMs, lessThan(1300L));
+    }
+
+    @Test
+    void reuse_monitoring_client_for_same_uri() {
+        MonitoringClient client = monitoringClientRegistry.getClient("http://localhost:" + port);
+
+        assertThat(monitoringClientRegistry.getClient("http://localhost:" + port), sameInstance(client));
+        assertThat(monitoringClientRegistry.getClient("http://127.0.0.1:" + port), not(sameInstance(client)));
+    }
+
+    @Test
+    void load_no_monitoring_data_without_monitoring_uri() {
+        assertThat(monitoringService.loadMonitoringData(null, "cluster", Map.of("env-a", List.of("ns-1"))), anEmptyMap());
+    }
+
+    @Test
+    void group_top_level_aggregation_by_namespace() {
+        Optional<MonitoringService.GroupedQuery> query = MonitoringService.GroupedQuery.parse("sum(rate(http_requests_total{namespace=~\"{namespace}\",cluster=\"{cluster}\"}[5m]))");
+
+        assertThat(query.map(groupedQuery -> groupedQuery.toQuery(List.of("a", "b"), "c1")).orElseThrow(),
+                equalTo("sum by (namespace) (rate(http_requests_total{namespace=~\"a|b\",cluster=\"c1\"}[5m]))"));
+    }
+
+    @Test
+    void do_not_group_queries_that_cannot_be_split_by_namespace() {
+        assertThat(MonitoringService.GroupedQuery.parse("count(a{namespace=~\"{namespace}\"}) / count(b{namespace=~\"{namespace}\"})"), equalTo(Optional.empty()));
+        assertThat(MonitoringService.GroupedQuery.parse("sum(a{namespace=~\"{namespace}\"}) by (pod)"), equalTo(Optional.empty()));
+        assertThat(MonitoringService.GroupedQuery.parse("avg(a{namespace=~\"{namespace}\"})"), equalTo(Optional.empty()));
+        assertThat(MonitoringService.GroupedQuery.parse("count(a{namespace=~\"{namespace}\",env=\"{env}\"})"), equalTo(Optional.empty()));
+        assertThat(MonitoringService.GroupedQuery.parse("count(a{pod=~\"{namespace}-.*\"})"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void aggregate_namespace_values_per_environment() {
+        assertThat(new MonitoringService.GroupedQuery("sum", "x").aggregate(List.of("1.5", "2.5")), equalTo(Optional.of("4")));
+        assertThat(new MonitoringService.GroupedQuery("max", "x").aggregate(List.of("1", "7", "3")), equalTo(Optional.of("7")));
+        assertThat(new MonitoringService.GroupedQuery("min", "x").aggregate(Arrays.asList("5", null, "3")), equalTo(Optional.of("3")));
+        assertThat(new MonitoringService.GroupedQuery("count", "x").aggregate(Arrays.asList(null, null)), equalTo(Optional.empty()));
+    }
+
+    private void mockQuery(String query, Map<String, String> valuesByNamespace) {
+        mockQuery(query, valuesByNamespace, 0);
+    }
+
+    private void mockQuery(String query, Map<String, String> valuesByNamespace, int delayMs) {
+        String result = valuesByNamespace.entrySet().stream()
+                .map(entry -> "{\"metric\":{\"namespace\":\"" + entry.getKey() + "\"},\"value\":[1747924558,\"" + entry.getValue() + "\"]}")
+                .reduce((first, second) -> first + "," + second)
+                .orElse("");
+        wiremock.register(WireMock.get(urlPathEqualTo("/api/v1/query"))
+                .withQueryParam("query", WireMock.equalTo(query))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(delayMs)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":[" + result + "]}}")));
+    }
+}